@@ -0,0 +1,98 @@
+package ch.cyberduck.core.b2;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.http.HttpResponseOutputStream;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import synapticloop.b2.response.BaseB2Response;
+
+/**
+ * Compute SHA-1 checksum while streaming part and append hex digits to body. The trailer is only written when the
+ * expected number of bytes has been written to not complete an aborted upload with a checksum of the truncated part.
+ */
+final class B2ChecksumTrailerOutputStream extends HttpResponseOutputStream<BaseB2Response> {
+    private static final Logger log = Logger.getLogger(B2ChecksumTrailerOutputStream.class);
+
+    /**
+     * Length of hex encoded SHA-1 checksum appended to body
+     */
+    public static final int SHA1_HEX_LENGTH = 40;
+
+    private final HttpResponseOutputStream<BaseB2Response> proxy;
+    private final MessageDigest digest;
+    /**
+     * Expected length of part excluding trailer
+     */
+    private final long length;
+
+    private long written;
+    private boolean closed;
+
+    public B2ChecksumTrailerOutputStream(final HttpResponseOutputStream<BaseB2Response> proxy, final long length) {
+        this(proxy, B2ChecksumTrailerOutputStream.sha1(), length);
+    }
+
+    private B2ChecksumTrailerOutputStream(final HttpResponseOutputStream<BaseB2Response> proxy, final MessageDigest digest, final long length) {
+        super(new DigestOutputStream(proxy, digest));
+        this.proxy = proxy;
+        this.digest = digest;
+        this.length = length;
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        }
+        catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected void afterWrite(final int n) {
+        written += n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        if(written == length) {
+            proxy.write(Hex.encodeHexString(digest.digest()).getBytes(StandardCharsets.US_ASCII));
+        }
+        else {
+            log.warn(String.format("Skip checksum trailer for aborted part with %d of %d bytes written", written, length));
+        }
+        super.close();
+    }
+
+    @Override
+    public BaseB2Response getStatus() throws BackgroundException {
+        return proxy.getStatus();
+    }
+}
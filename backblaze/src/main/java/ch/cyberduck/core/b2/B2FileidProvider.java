@@ -23,6 +23,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
@@ -43,10 +44,13 @@ public class B2FileidProvider implements IdProvider {
 
     private final B2Session session;
 
+    private final FileidCache fileids;
+
     private Cache<Path> cache = PathCache.empty();
 
     public B2FileidProvider(final B2Session session) {
         this.session = session;
+        this.fileids = FileidCache.get(session.getHost());
     }
 
     @Override
@@ -66,6 +70,11 @@ public class B2FileidProvider implements IdProvider {
                 }
             }
             if(containerService.isContainer(file)) {
+                final String cached = fileids.get(file);
+                if(null != cached) {
+                    file.attributes().setVersionId(cached);
+                    return cached;
+                }
                 final B2BucketResponse info = session.getClient().listBucket(file.getName());
                 // Cache in file attributes
                 return this.set(file, info.getBucketId());
@@ -92,7 +101,12 @@ public class B2FileidProvider implements IdProvider {
             throw new NotfoundException(file.getAbsolute());
         }
         catch(B2ApiException e) {
-            throw new B2ExceptionMappingService().map(e);
+            final BackgroundException failure = new B2ExceptionMappingService().map(e);
+            if(failure instanceof NotfoundException) {
+                // Cached identifier of bucket may be stale
+                fileids.remove(containerService.getContainer(file));
+            }
+            throw failure;
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map(e);
@@ -101,6 +115,10 @@ public class B2FileidProvider implements IdProvider {
 
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        if(containerService.isContainer(file)) {
+            // Identifiers of placeholders change when a folder is recreated by another client
+            fileids.put(file, id);
+        }
         return id;
     }
 
@@ -29,8 +29,8 @@ import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.SegmentThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
@@ -78,7 +78,7 @@ public class B2LargeCopyFeature implements Copy {
 
     @Override
     public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("largeupload", concurrency);
+        final ThreadPool pool = new SegmentThreadPool(session.getHost(), concurrency);
         try {
             final Map<String, String> fileinfo = new HashMap<>(status.getMetadata());
             if(null != status.getTimestamp()) {
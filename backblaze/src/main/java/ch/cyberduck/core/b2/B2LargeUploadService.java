@@ -34,8 +34,8 @@ import ch.cyberduck.core.io.StreamProgress;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.SegmentThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
@@ -99,7 +99,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                                  final StreamListener listener,
                                  final TransferStatus status,
                                  final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("largeupload", concurrency);
+        final ThreadPool pool = new SegmentThreadPool(session.getHost(), concurrency);
         try {
             // Get the results of the uploads in the order they were submitted
             // this is important for building the manifest, and is not a problem in terms of performance
@@ -134,6 +134,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                 status.setVersion(new VersionId(session.getClient().startLargeFileUpload(fileid.getFileid(containerService.getContainer(file), new DisabledListProgressListener()),
                     containerService.getKey(file), status.getMime(), fileinfo).getFileId()));
             }
+            session.getUploadPartUrls().open(status.getVersion().id);
             // Full size of file
             final long size = status.getLength() + status.getOffset();
             // Submit file segments for concurrent upload
@@ -210,6 +211,9 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
             throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
         }
         finally {
+            if(status.getVersion() != null) {
+                session.getUploadPartUrls().clear(status.getVersion().id);
+            }
             pool.shutdown(false);
         }
     }
@@ -231,7 +235,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                     .skip(offset);
                 status.setHeader(overall.getHeader());
                 status.setNonces(overall.getNonces());
-                status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
+                // SHA-1 of part computed while streaming
                 status.setSegment(true);
                 status.setVersion(overall.getVersion());
                 status.setPart(partNumber);
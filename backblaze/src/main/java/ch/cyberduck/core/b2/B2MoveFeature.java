@@ -18,11 +18,13 @@ package ch.cyberduck.core.b2;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 public class B2MoveFeature implements Move {
@@ -42,9 +44,15 @@ public class B2MoveFeature implements Move {
 
     @Override
     public Path move(final Path source, final Path target, final TransferStatus status, final Delete.Callback delete, final ConnectionCallback callback) throws BackgroundException {
-        final Path copy = proxy.copy(source, target, status.length(source.attributes().getSize()), callback);
-        new B2DeleteFeature(session, fileid).delete(Collections.singletonList(new Path(source)), callback, delete);
-        return copy;
+        try {
+            final Path copy = proxy.copy(source, target, status.length(source.attributes().getSize()), callback);
+            new B2DeleteFeature(session, fileid).delete(Collections.singletonList(new Path(source)), callback, delete);
+            return copy;
+        }
+        finally {
+            // Identifiers of moved directories are no longer valid
+            FileidCache.get(session.getHost()).remove(Arrays.asList(source, target));
+        }
     }
 
     @Override
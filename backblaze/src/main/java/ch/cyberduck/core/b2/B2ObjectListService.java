@@ -25,6 +25,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.io.Checksum;
@@ -108,7 +109,12 @@ public class B2ObjectListService implements ListService {
             return objects;
         }
         catch(B2ApiException e) {
-            throw new B2ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            final BackgroundException failure = new B2ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            if(failure instanceof NotfoundException) {
+                // Cached identifier of bucket may be stale
+                FileidCache.get(session.getHost()).remove(containerService.getContainer(directory));
+            }
+            throw failure;
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map(e);
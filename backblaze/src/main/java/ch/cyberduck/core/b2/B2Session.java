@@ -48,11 +48,16 @@ public class B2Session extends HttpSession<B2ApiClient> {
 
     private final B2FileidProvider fileid = new B2FileidProvider(this);
     private final B2ListService listService = new B2ListService(this, fileid);
+    private final B2UploadPartUrlPool uploadPartUrls = new B2UploadPartUrlPool(this);
 
     public B2Session(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, trust, key);
     }
 
+    public B2UploadPartUrlPool getUploadPartUrls() {
+        return uploadPartUrls;
+    }
+
     @Override
     public B2ApiClient connect(final Proxy proxy, final HostKeyCallback key, final LoginCallback prompt) {
         final HttpClientBuilder configuration = builder.build(proxy, this, prompt);
@@ -0,0 +1,100 @@
+package ch.cyberduck.core.b2;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import synapticloop.b2.exception.B2ApiException;
+import synapticloop.b2.response.B2GetUploadPartUrlResponse;
+
+/**
+ * Upload part URLs of large files reused for subsequent parts. A URL is only used by a single part upload at a time
+ * and is discarded after an error reply as required by the API.
+ */
+public class B2UploadPartUrlPool {
+    private static final Logger log = Logger.getLogger(B2UploadPartUrlPool.class);
+
+    private final B2Session session;
+
+    private final Map<String, Deque<B2GetUploadPartUrlResponse>> urls = new ConcurrentHashMap<>();
+
+    public B2UploadPartUrlPool(final B2Session session) {
+        this.session = session;
+    }
+
+    /**
+     * Keep upload URLs for reuse by subsequent parts until cleared
+     *
+     * @param fileid Large file identifier
+     */
+    public void open(final String fileid) {
+        urls.putIfAbsent(fileid, new ConcurrentLinkedDeque<>());
+    }
+
+    /**
+     * @param fileid Large file identifier
+     * @return Idle upload URL or new URL obtained from server
+     */
+    public B2GetUploadPartUrlResponse borrow(final String fileid) throws B2ApiException, IOException {
+        final Deque<B2GetUploadPartUrlResponse> idle = urls.get(fileid);
+        final B2GetUploadPartUrlResponse url = null == idle ? null : idle.poll();
+        if(null == url) {
+            final B2GetUploadPartUrlResponse response = this.request(fileid);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Obtained upload URL %s for large file %s", response, fileid));
+            }
+            return response;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Use cached upload URL %s for large file %s", url, fileid));
+        }
+        return url;
+    }
+
+    protected B2GetUploadPartUrlResponse request(final String fileid) throws B2ApiException, IOException {
+        return session.getClient().getUploadPartUrl(fileid);
+    }
+
+    /**
+     * Make upload URL available for next part after successful upload
+     *
+     * @param fileid Large file identifier
+     * @param url    Upload URL no longer in use
+     */
+    public void release(final String fileid, final B2GetUploadPartUrlResponse url) {
+        final Deque<B2GetUploadPartUrlResponse> idle = urls.get(fileid);
+        if(null == idle) {
+            // Large file not open or already finished
+            return;
+        }
+        idle.push(url);
+    }
+
+    /**
+     * Discard all upload URLs for large file
+     *
+     * @param fileid Large file identifier finished or cancelled
+     */
+    public void clear(final String fileid) {
+        urls.remove(fileid);
+    }
+}
@@ -59,6 +59,11 @@ import static ch.cyberduck.core.b2.B2MetadataFeature.X_BZ_INFO_SRC_LAST_MODIFIED
 public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> implements Write<BaseB2Response> {
     private static final Logger log = Logger.getLogger(B2WriteFeature.class);
 
+    /**
+     * Checksum of part sent as hex digits following the content
+     */
+    private static final String HEX_DIGITS_AT_END = "hex_digits_at_end";
+
     private final PathContainerService containerService
         = new B2PathContainerService();
 
@@ -97,8 +102,12 @@ public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> imp
                     final Checksum checksum = status.getChecksum();
                     if(status.isSegment()) {
                         final B2GetUploadPartUrlResponse uploadUrl
-                            = session.getClient().getUploadPartUrl(status.getVersion().id);
-                        return session.getClient().uploadLargeFilePart(uploadUrl, status.getPart(), entity, checksum.hash);
+                            = session.getUploadPartUrls().borrow(status.getVersion().id);
+                        final B2UploadPartResponse response = session.getClient().uploadLargeFilePart(uploadUrl, status.getPart(), entity,
+                            Checksum.NONE == checksum ? HEX_DIGITS_AT_END : checksum.hash);
+                        // Discard URL after error reply
+                        session.getUploadPartUrls().release(status.getVersion().id, uploadUrl);
+                        return response;
                     }
                     else {
                         if(null == urls.get()) {
@@ -149,10 +158,18 @@ public class B2WriteFeature extends AbstractHttpWriteFeature<BaseB2Response> imp
 
             @Override
             public long getContentLength() {
+                if(status.isSegment() && Checksum.NONE == status.getChecksum()) {
+                    return status.getLength() + B2ChecksumTrailerOutputStream.SHA1_HEX_LENGTH;
+                }
                 return status.getLength();
             }
         };
-        return this.write(file, status, command);
+        final HttpResponseOutputStream<BaseB2Response> out = this.write(file, status, command);
+        if(status.isSegment() && Checksum.NONE == status.getChecksum()) {
+            // Compute checksum while streaming part and append hex digits to body
+            return new B2ChecksumTrailerOutputStream(out, status.getLength());
+        }
+        return out;
     }
 
     @Override
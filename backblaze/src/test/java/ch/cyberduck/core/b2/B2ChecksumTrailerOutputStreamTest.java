@@ -0,0 +1,66 @@
+package ch.cyberduck.core.b2;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.http.HttpResponseOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import synapticloop.b2.response.BaseB2Response;
+
+import static org.junit.Assert.assertEquals;
+
+public class B2ChecksumTrailerOutputStreamTest {
+
+    @Test
+    public void testTrailer() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final byte[] content = "test".getBytes(StandardCharsets.UTF_8);
+        final B2ChecksumTrailerOutputStream out = new B2ChecksumTrailerOutputStream(new NullResponseOutputStream(body), content.length);
+        out.write(content);
+        out.close();
+        assertEquals(content.length + B2ChecksumTrailerOutputStream.SHA1_HEX_LENGTH, body.size());
+        assertEquals("test" + DigestUtils.sha1Hex(content), new String(body.toByteArray(), StandardCharsets.US_ASCII));
+        // Ignore double close
+        out.close();
+        assertEquals(content.length + B2ChecksumTrailerOutputStream.SHA1_HEX_LENGTH, body.size());
+    }
+
+    @Test
+    public void testSkipTrailerOnAbort() throws Exception {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final byte[] content = "test".getBytes(StandardCharsets.UTF_8);
+        final B2ChecksumTrailerOutputStream out = new B2ChecksumTrailerOutputStream(new NullResponseOutputStream(body), content.length + 1);
+        out.write(content);
+        out.close();
+        assertEquals("test", new String(body.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    private static final class NullResponseOutputStream extends HttpResponseOutputStream<BaseB2Response> {
+        public NullResponseOutputStream(final ByteArrayOutputStream proxy) {
+            super(proxy);
+        }
+
+        @Override
+        public BaseB2Response getStatus() {
+            return null;
+        }
+    }
+}
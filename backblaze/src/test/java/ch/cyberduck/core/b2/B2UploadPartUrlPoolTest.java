@@ -0,0 +1,70 @@
+package ch.cyberduck.core.b2;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import synapticloop.b2.response.B2GetUploadPartUrlResponse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class B2UploadPartUrlPoolTest {
+
+    @Test
+    public void testReuseReleased() throws Exception {
+        final B2UploadPartUrlPool pool = new MockUploadPartUrlPool();
+        pool.open("f");
+        final B2GetUploadPartUrlResponse url = pool.borrow("f");
+        // In use by another part
+        assertNotSame(url, pool.borrow("f"));
+        pool.release("f", url);
+        assertSame(url, pool.borrow("f"));
+    }
+
+    @Test
+    public void testIgnoreCleared() throws Exception {
+        final B2UploadPartUrlPool pool = new MockUploadPartUrlPool();
+        pool.open("f");
+        final B2GetUploadPartUrlResponse url = pool.borrow("f");
+        pool.clear("f");
+        // Part finished after large file was completed
+        pool.release("f", url);
+        assertNotSame(url, pool.borrow("f"));
+        final B2GetUploadPartUrlResponse other = pool.borrow("f");
+        pool.release("f", other);
+        assertNotSame(other, pool.borrow("f"));
+    }
+
+    @Test
+    public void testIgnoreNotOpen() throws Exception {
+        final B2UploadPartUrlPool pool = new MockUploadPartUrlPool();
+        final B2GetUploadPartUrlResponse url = pool.borrow("f");
+        pool.release("f", url);
+        assertNotSame(url, pool.borrow("f"));
+    }
+
+    private static final class MockUploadPartUrlPool extends B2UploadPartUrlPool {
+        public MockUploadPartUrlPool() {
+            super(null);
+        }
+
+        @Override
+        protected B2GetUploadPartUrlResponse request(final String fileid) {
+            return mock(B2GetUploadPartUrlResponse.class);
+        }
+    }
+}
@@ -164,15 +164,16 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
      */
     public AttributedList<E> filter(final Comparator<E> comparator, final Filter<E> filter) {
         final AttributedList<E> filtered = new AttributedList<>(impl);
-        if(null != comparator) {
-            this.doSort(filtered.impl, comparator);
-        }
         if(null != filter) {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Filter list %s with filter %s", this, filter));
             }
             filtered.impl.removeIf(e -> !filter.accept(e));
         }
+        // Only sort remaining items
+        if(null != comparator) {
+            this.doSort(filtered.impl, comparator);
+        }
         return filtered;
     }
 
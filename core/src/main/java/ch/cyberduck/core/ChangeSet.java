@@ -0,0 +1,143 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Files changed below a directory since a cursor was obtained from a change feed
+ */
+public final class ChangeSet {
+
+    /**
+     * Cursor to retrieve subsequent changes
+     */
+    private final String cursor;
+    /**
+     * Files added, modified or deleted
+     */
+    private final List<Path> files = new ArrayList<>();
+    /**
+     * Identifiers of changed files including files moved or deleted from an unknown location
+     */
+    private final Set<String> ids = new HashSet<>();
+    /**
+     * False if changes could not be determined and all directories must be listed
+     */
+    private boolean complete = true;
+    /**
+     * Match location of changed files with directory ignoring case
+     */
+    private Protocol.Case sensitivity = Protocol.Case.sensitive;
+
+    public ChangeSet(final String cursor) {
+        this.cursor = cursor;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public List<Path> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    public Set<String> getIds() {
+        return Collections.unmodifiableSet(ids);
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @param file File added, modified or deleted at this location
+     */
+    public ChangeSet withFile(final Path file) {
+        files.add(file);
+        return this.withId(file.attributes().getVersionId());
+    }
+
+    /**
+     * @param id Identifier of changed file with previous location possibly unknown
+     */
+    public ChangeSet withId(final String id) {
+        if(StringUtils.isNotBlank(id)) {
+            ids.add(id);
+        }
+        return this;
+    }
+
+    public ChangeSet withComplete(final boolean complete) {
+        this.complete = complete;
+        return this;
+    }
+
+    /**
+     * @param sensitivity Case sensitivity of paths of changed files
+     */
+    public ChangeSet withCaseSensitivity(final Protocol.Case sensitivity) {
+        this.sensitivity = sensitivity;
+        return this;
+    }
+
+    /**
+     * @param directory Directory
+     * @param list      Listing of directory obtained before changes
+     * @return True if listing may be outdated
+     */
+    public boolean isModified(final Path directory, final AttributedList<Path> list) {
+        if(!complete) {
+            return true;
+        }
+        for(Path file : files) {
+            switch(sensitivity) {
+                case insensitive:
+                    if(StringUtils.equalsIgnoreCase(file.getParent().getAbsolute(), directory.getAbsolute())) {
+                        return true;
+                    }
+                    break;
+                default:
+                    if(file.getParent().getAbsolute().equals(directory.getAbsolute())) {
+                        return true;
+                    }
+            }
+        }
+        for(Path child : list) {
+            if(ids.contains(child.attributes().getVersionId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ChangeSet{");
+        sb.append("cursor='").append(cursor).append('\'');
+        sb.append(", files=").append(files.size());
+        sb.append(", ids=").append(ids.size());
+        sb.append(", complete=").append(complete);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -19,14 +19,19 @@ package ch.cyberduck.core;
  */
 
 import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LocalNotfoundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.io.ChannelInputStream;
+import ch.cyberduck.core.io.ChannelOutputStream;
+import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.TildeExpander;
 import ch.cyberduck.core.local.WorkdirPrefixer;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.serializer.Serializer;
+import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.unicode.NFCNormalizer;
 
 import org.apache.commons.io.FilenameUtils;
@@ -38,24 +43,28 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
-import java.nio.channels.SeekableByteChannel;
-import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.LinkOption;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.text.MessageFormat;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -64,6 +73,12 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
 
     public static final char DELIMITER = CharUtils.toChar(PreferencesFactory.get().getProperty("local.delimiter"));
 
+    /**
+     * Attributes by absolute path read with the listing of the parent directory while filtering and sorting the
+     * listing in this thread
+     */
+    private static final ThreadLocal<Map<String, BasicFileAttributes>> listing = new ThreadLocal<>();
+
     /**
      * Absolute path in local file system
      */
@@ -146,6 +161,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isDirectory() {
+        final BasicFileAttributes attributes = this.listing();
+        if(attributes != null) {
+            return attributes.isDirectory();
+        }
         return Paths.get(path).toFile().isDirectory();
     }
 
@@ -155,6 +174,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isFile() {
+        final BasicFileAttributes attributes = this.listing();
+        if(attributes != null) {
+            return attributes.isRegularFile();
+        }
         return Paths.get(path).toFile().isFile();
     }
 
@@ -229,20 +252,49 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         return this.list(path, filter);
     }
 
+    /**
+     * Names and attributes of children are read together in a single pass to avoid a separate lookup of the type
+     * for every file when sorting or filtering the listing
+     */
     public AttributedList<Local> list(final String path, final Filter<String> filter) throws AccessDeniedException {
         final AttributedList<Local> children = new AttributedList<Local>();
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(path), new DirectoryStream.Filter<Path>() {
-            @Override
-            public boolean accept(final Path entry) {
-                if(null == entry.getFileName()) {
-                    return false;
+        // Only collected when listing for filtering and sorting
+        final Map<String, BasicFileAttributes> attributes = listing.get();
+        final Path directory = Paths.get(path);
+        try {
+            Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                    if(file.equals(directory)) {
+                        throw new NotDirectoryException(file.toString());
+                    }
+                    this.add(file, attrs);
+                    return FileVisitResult.CONTINUE;
                 }
-                return filter.accept(entry.getFileName().toString());
-            }
-        })) {
-            for(Path entry : stream) {
-                children.add(LocalFactory.get(entry.toString()));
-            }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path file, final IOException e) throws IOException {
+                    if(file.equals(directory)) {
+                        throw e;
+                    }
+                    // Attributes not readable
+                    this.add(file, null);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                private void add(final Path file, final BasicFileAttributes attrs) {
+                    if(null == file.getFileName()) {
+                        return;
+                    }
+                    if(filter.accept(file.getFileName().toString())) {
+                        final Local child = LocalFactory.get(file.toString());
+                        if(attributes != null && attrs != null) {
+                            attributes.put(child.getAbsolute(), attrs);
+                        }
+                        children.add(child);
+                    }
+                }
+            });
         }
         catch(IOException e) {
             throw new LocalAccessDeniedException(MessageFormat.format(
@@ -255,6 +307,40 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         return this.list(new NullFilter<>());
     }
 
+    /**
+     * Attributes of children read together with the listing are only used for filtering and sorting and discarded
+     * before returning.
+     *
+     * @param comparator Sort order
+     * @param filter     Filter for children
+     */
+    public AttributedList<Local> list(final Comparator<Local> comparator, final Filter<Local> filter) throws AccessDeniedException {
+        final Map<String, BasicFileAttributes> previous = listing.get();
+        listing.set(new HashMap<>());
+        try {
+            return this.list().filter(comparator, filter);
+        }
+        finally {
+            if(null == previous) {
+                listing.remove();
+            }
+            else {
+                listing.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return Attributes from listing of parent directory while filtering and sorting or null
+     */
+    private BasicFileAttributes listing() {
+        final Map<String, BasicFileAttributes> attributes = listing.get();
+        if(null == attributes) {
+            return null;
+        }
+        return attributes.get(path);
+    }
+
     @Override
     public String getAbsolute() {
         return path;
@@ -371,18 +457,29 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Copy to %s with options %s", copy, options));
             }
-            InputStream in = null;
-            OutputStream out = null;
+            final InputStream in = this.getInputStream();
+            final OutputStream out;
             try {
-                in = this.getInputStream();
                 out = copy.getOutputStream(options.append);
-                IOUtils.copy(in, out);
             }
-            catch(IOException e) {
+            catch(AccessDeniedException e) {
+                IOUtils.closeQuietly(in);
+                throw e;
+            }
+            try {
+                final TransferStatus status = new TransferStatus();
+                // Zero copy transfer between file channels if possible
+                new StreamCopier(status, status).transfer(in, out);
+            }
+            catch(AccessDeniedException e) {
+                throw e;
+            }
+            catch(BackgroundException e) {
                 throw new LocalAccessDeniedException(MessageFormat.format(
                     LocaleFactory.localizedString("Cannot copy {0}", "Error"), this.getName()), e);
             }
             finally {
+                // Streams are only closed by copier on success
                 IOUtils.closeQuietly(in);
                 IOUtils.closeQuietly(out);
             }
@@ -434,7 +531,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     protected InputStream getInputStream(final String path) throws LocalAccessDeniedException {
         try {
             final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
-            return new SeekableByteChannelInputStream(channel);
+            return new ChannelInputStream(channel);
         }
         catch(RuntimeException | IOException e) {
             throw new LocalAccessDeniedException(e.getMessage(), e);
@@ -459,7 +556,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
                 options.add(StandardOpenOption.TRUNCATE_EXISTING);
             }
             final FileChannel channel = FileChannel.open(Paths.get(path), options);
-            return Channels.newOutputStream(channel);
+            return new ChannelOutputStream(channel);
         }
         catch(RuntimeException | IOException e) {
             throw new LocalAccessDeniedException(e.getMessage(), e);
@@ -524,72 +621,4 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
         sb.append('}');
         return sb.toString();
     }
-
-    private static final class SeekableByteChannelInputStream extends InputStream {
-        private final SeekableByteChannel channel;
-        private long markPosition = 0L;
-
-        public SeekableByteChannelInputStream(final SeekableByteChannel channel) {
-            this.channel = channel;
-        }
-
-        @Override
-        public int read() throws IOException {
-            final ByteBuffer buffer = ByteBuffer.wrap(new byte[1]);
-            final int bytesRead = channel.read(buffer);
-            if(bytesRead > 0) {
-                buffer.position(0);
-                return buffer.get();
-            }
-            else {
-                return -1;
-            }
-        }
-
-        @Override
-        public int read(final byte[] b, final int off, final int len) throws IOException {
-            final ByteBuffer buffer = ByteBuffer.wrap(b);
-            buffer.position(off);
-            buffer.limit(off + len);
-            final int bytesRead = channel.read(buffer);
-            if(bytesRead > 0) {
-                return bytesRead;
-            }
-            else {
-                return -1;
-            }
-        }
-
-        @Override
-        public long skip(final long n) throws IOException {
-            channel.position(channel.position() + n);
-            return channel.position();
-        }
-
-        @Override
-        public boolean markSupported() {
-            return true;
-        }
-
-        @Override
-        public void mark(final int readlimit) {
-            try {
-                markPosition = channel.position();
-            }
-            catch(final IOException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        @Override
-        public void reset() throws IOException {
-            channel.position(markPosition);
-            markPosition = 0;
-        }
-
-        @Override
-        public void close() throws IOException {
-            channel.close();
-        }
-    }
 }
@@ -27,6 +27,7 @@ import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Home;
 import ch.cyberduck.core.features.IdProvider;
 import ch.cyberduck.core.features.Move;
+import ch.cyberduck.core.features.Probe;
 import ch.cyberduck.core.features.PromptUrlProvider;
 import ch.cyberduck.core.features.Quota;
 import ch.cyberduck.core.features.Read;
@@ -46,6 +47,7 @@ import ch.cyberduck.core.shared.DefaultUploadFeature;
 import ch.cyberduck.core.shared.DefaultUrlProvider;
 import ch.cyberduck.core.shared.DisabledBulkFeature;
 import ch.cyberduck.core.shared.DisabledMoveFeature;
+import ch.cyberduck.core.shared.DisabledProbeFeature;
 import ch.cyberduck.core.shared.DisabledQuotaFeature;
 import ch.cyberduck.core.shared.NullFileidProvider;
 import ch.cyberduck.core.threading.CancelCallback;
@@ -341,6 +343,9 @@ public abstract class Session<C> implements TranscriptListener {
         if(type == Quota.class) {
             return (T) new DisabledQuotaFeature();
         }
+        if(type == Probe.class) {
+            return (T) new DisabledProbeFeature();
+        }
         return host.getProtocol().getFeature(type);
     }
 
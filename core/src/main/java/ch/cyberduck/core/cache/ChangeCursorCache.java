@@ -0,0 +1,136 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent cursors of change feeds for root directories of synchronizations shared by all sessions with the same
+ * host and account.
+ */
+public final class ChangeCursorCache {
+    private static final Logger log = Logger.getLogger(ChangeCursorCache.class);
+
+    private static final Map<String, ChangeCursorCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Cursors shared by all connections to the same host with the same username
+     */
+    public static ChangeCursorCache get(final Host host) {
+        return caches.computeIfAbsent(new HostUrlProvider(true).get(host), key -> new ChangeCursorCache(
+            LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Cursors"),
+                String.format("%s.properties", DigestUtils.sha256Hex(key)))));
+    }
+
+    private final Local file;
+
+    /**
+     * Absolute path of directory to cursor. Loaded lazily.
+     */
+    private Properties cursors;
+
+    public ChangeCursorCache(final Local file) {
+        this.file = file;
+    }
+
+    /**
+     * @param directory Root directory
+     * @return Cursor saved after last synchronization or null
+     */
+    public synchronized String get(final Path directory) {
+        return this.load().getProperty(directory.getAbsolute());
+    }
+
+    /**
+     * @param directory Root directory
+     * @param cursor    Cursor for state of files after completed synchronization
+     */
+    public synchronized void put(final Path directory, final String cursor) {
+        if(StringUtils.isBlank(cursor)) {
+            return;
+        }
+        if(cursor.equals(this.load().getProperty(directory.getAbsolute()))) {
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Save cursor %s for %s", cursor, directory));
+        }
+        cursors.setProperty(directory.getAbsolute(), cursor);
+        this.save();
+    }
+
+    /**
+     * @param directory Root directory
+     */
+    public synchronized void remove(final Path directory) {
+        if(null == this.load().remove(directory.getAbsolute())) {
+            return;
+        }
+        this.save();
+    }
+
+    private Properties load() {
+        if(null == cursors) {
+            cursors = new Properties();
+            if(file.exists()) {
+                try (InputStream in = file.getInputStream()) {
+                    cursors.load(in);
+                }
+                catch(IllegalArgumentException | AccessDeniedException | IOException e) {
+                    log.warn(String.format("Failure reading cursors from %s. %s", file.getAbsolute(), e));
+                }
+            }
+        }
+        return cursors;
+    }
+
+    private void save() {
+        try {
+            new DefaultLocalDirectoryFeature().mkdir(file.getParent());
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving cursors to %s. %s", file.getAbsolute(), e));
+        }
+        try (OutputStream out = file.getOutputStream(false)) {
+            cursors.store(out, null);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving cursors to %s. %s", file.getAbsolute(), e));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving cursors to %s. %s", file.getAbsolute(), e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent mapping of directories to identifiers of backends addressing files by ID shared by all sessions with the
+ * same host and account. Changes are appended to a journal in the support directory which is compacted when loaded.
+ * Only directories are cached as file identifiers change when overwritten with some backends.
+ */
+public final class FileidCache {
+    private static final Logger log = Logger.getLogger(FileidCache.class);
+
+    private static final Map<String, FileidCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Cache shared by all connections to the same host with the same username
+     */
+    public static FileidCache get(final Host host) {
+        return caches.computeIfAbsent(new HostUrlProvider(true).get(host), key -> new FileidCache(
+            LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Fileids"),
+                String.format("%s.properties", DigestUtils.sha256Hex(key))),
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("fileid.cache.ttl.seconds"))));
+    }
+
+    private final Local file;
+    /**
+     * Maximum age of entry in milliseconds
+     */
+    private final long ttl;
+
+    /**
+     * Absolute path of directory to identifier with timestamp. Loaded lazily from journal.
+     */
+    private Map<String, Entry> entries;
+
+    public FileidCache(final Local file, final long ttl) {
+        this.file = file;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param directory Directory
+     * @return Cached identifier or null if unknown or expired
+     */
+    public synchronized String get(final Path directory) {
+        if(!directory.isDirectory()) {
+            return null;
+        }
+        final Entry entry = this.load().get(directory.getAbsolute());
+        if(null == entry) {
+            return null;
+        }
+        if(entry.isExpired(ttl)) {
+            return null;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Return cached identifier %s for %s", entry.id, directory));
+        }
+        return entry.id;
+    }
+
+    /**
+     * Cache identifier of directory. Ignored for files.
+     *
+     * @param directory Directory
+     * @param id        Identifier
+     */
+    public synchronized void put(final Path directory, final String id) {
+        if(!directory.isDirectory()) {
+            return;
+        }
+        if(StringUtils.isBlank(id)) {
+            return;
+        }
+        final Entry previous = this.load().get(directory.getAbsolute());
+        if(previous != null && previous.id.equals(id) && !previous.isExpired(ttl)) {
+            return;
+        }
+        final Entry entry = new Entry(id, System.currentTimeMillis());
+        entries.put(directory.getAbsolute(), entry);
+        final Properties journal = new Properties();
+        journal.setProperty(directory.getAbsolute(), entry.toString());
+        this.append(journal);
+    }
+
+    /**
+     * Cache identifiers of all directories in listing
+     *
+     * @param list Directory listing with identifiers set in attributes
+     */
+    public synchronized void put(final AttributedList<Path> list) {
+        final Properties journal = new Properties();
+        final long timestamp = System.currentTimeMillis();
+        for(Path f : list) {
+            if(!f.isDirectory()) {
+                continue;
+            }
+            if(f.attributes().isDuplicate()) {
+                // Ignore trashed
+                continue;
+            }
+            final String id = f.attributes().getVersionId();
+            if(StringUtils.isBlank(id)) {
+                continue;
+            }
+            final Entry previous = this.load().get(f.getAbsolute());
+            if(previous != null && previous.id.equals(id) && !previous.isExpired(ttl)) {
+                continue;
+            }
+            final Entry entry = new Entry(id, timestamp);
+            entries.put(f.getAbsolute(), entry);
+            journal.setProperty(f.getAbsolute(), entry.toString());
+        }
+        if(journal.isEmpty()) {
+            return;
+        }
+        this.append(journal);
+    }
+
+    /**
+     * Remove file and all its descendants when moved or deleted
+     *
+     * @param file File or directory
+     */
+    public void remove(final Path file) {
+        this.remove(Collections.singleton(file));
+    }
+
+    /**
+     * Remove files and all their descendants when moved or deleted or when no longer found
+     *
+     * @param files Files or directories
+     */
+    public synchronized void remove(final Collection<Path> files) {
+        final Set<String> removed = new HashSet<>();
+        for(Path file : files) {
+            removed.add(file.getAbsolute());
+        }
+        final Properties journal = new Properties();
+        for(String key : this.load().keySet()) {
+            if(this.isRemoved(key, removed)) {
+                // Empty value marks removal in journal
+                journal.setProperty(key, StringUtils.EMPTY);
+            }
+        }
+        if(journal.isEmpty()) {
+            return;
+        }
+        for(String key : journal.stringPropertyNames()) {
+            entries.remove(key);
+        }
+        this.append(journal);
+    }
+
+    /**
+     * @return True if key or any of its parents is removed
+     */
+    private boolean isRemoved(final String key, final Set<String> removed) {
+        if(removed.contains(String.valueOf(Path.DELIMITER))) {
+            return true;
+        }
+        for(String parent = key; StringUtils.isNotEmpty(parent);
+            parent = StringUtils.substringBeforeLast(parent, String.valueOf(Path.DELIMITER))) {
+            if(removed.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, Entry> load() {
+        if(null == entries) {
+            entries = new HashMap<>();
+            if(file.exists()) {
+                final Properties journal = new Properties();
+                try (InputStream in = file.getInputStream()) {
+                    journal.load(in);
+                }
+                catch(IllegalArgumentException | AccessDeniedException | IOException e) {
+                    log.warn(String.format("Failure reading identifiers from %s. %s", file.getAbsolute(), e));
+                }
+                for(String key : journal.stringPropertyNames()) {
+                    final Entry entry = Entry.parse(journal.getProperty(key));
+                    if(null == entry || entry.isExpired(ttl)) {
+                        continue;
+                    }
+                    entries.put(key, entry);
+                }
+                // Drop removed, expired and superseded entries from journal
+                this.compact();
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Replace journal with current entries
+     */
+    private void compact() {
+        final Properties journal = new Properties();
+        for(Map.Entry<String, Entry> entry : entries.entrySet()) {
+            journal.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Compact journal %s with %d entries", file, journal.size()));
+        }
+        this.save(journal, false);
+    }
+
+    private void append(final Properties journal) {
+        this.save(journal, true);
+    }
+
+    private void save(final Properties journal, final boolean append) {
+        try {
+            new DefaultLocalDirectoryFeature().mkdir(file.getParent());
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving identifiers to %s. %s", file.getAbsolute(), e));
+        }
+        try (OutputStream out = file.getOutputStream(append)) {
+            journal.store(out, null);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving identifiers to %s. %s", file.getAbsolute(), e));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving identifiers to %s. %s", file.getAbsolute(), e.getMessage()));
+        }
+    }
+
+    private static final class Entry {
+        private final String id;
+        private final long timestamp;
+
+        private Entry(final String id, final long timestamp) {
+            this.id = id;
+            this.timestamp = timestamp;
+        }
+
+        private boolean isExpired(final long ttl) {
+            return System.currentTimeMillis() - timestamp > ttl;
+        }
+
+        /**
+         * @return Null for removed entry
+         */
+        private static Entry parse(final String value) {
+            final int index = StringUtils.indexOf(value, ',');
+            if(index == -1) {
+                return null;
+            }
+            try {
+                return new Entry(value.substring(index + 1), Long.parseLong(value.substring(0, index)));
+            }
+            catch(NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d,%s", timestamp, id);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CacheReference;
+import ch.cyberduck.core.DefaultPathPredicate;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short lived results of existence and attributes lookups for files shared by all sessions of a bookmark. Concurrent
+ * lookups of the same file are merged into a single request and missing files are remembered to not repeat requests
+ * answered with not found. Entries are discarded after a few seconds or when invalidated after modifications.
+ */
+public final class PathLookupCache {
+    private static final Logger log = Logger.getLogger(PathLookupCache.class);
+
+    private static final Map<String, PathLookupCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Cache shared by all connections of the bookmark
+     */
+    public static PathLookupCache get(final Host host) {
+        return caches.computeIfAbsent(host.getUuid(), key -> new PathLookupCache(
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("path.lookup.cache.ttl.seconds")),
+            PreferencesFactory.get().getLong("path.lookup.cache.size")));
+    }
+
+    /**
+     * Maximum age of entry in milliseconds
+     */
+    private final long ttl;
+    /**
+     * Entries by absolute path with files of different type or version
+     */
+    private final LRUCache<String, Map<CacheReference<Path>, Entry>> entries;
+    /**
+     * Lookups in progress
+     */
+    private final Map<Lookup, FutureTask<Entry>> inflight = new ConcurrentHashMap<>();
+    /**
+     * Generation by absolute path of files with lookups in progress. Incremented when entries are invalidated to
+     * discard results of lookups started before.
+     */
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+
+    public PathLookupCache(final long ttl, final long size) {
+        this.ttl = ttl;
+        this.entries = LRUCache.build(size);
+    }
+
+    /**
+     * @param file     File
+     * @param delegate Lookup implementation for cache miss
+     * @return True if file exists
+     */
+    public boolean find(final Path file, final Find delegate) throws BackgroundException {
+        if(ttl <= 0) {
+            return delegate.find(file);
+        }
+        final Entry cached = this.lookup(file);
+        if(cached != null) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Return cached lookup %s for %s", cached, file));
+            }
+            return cached.exists;
+        }
+        return this.load(new Lookup(file, false), new BackgroundExceptionCallable<Entry>() {
+            @Override
+            public Entry call() throws BackgroundException {
+                return new Entry(delegate.find(file), null);
+            }
+        }).exists;
+    }
+
+    /**
+     * @param file     File
+     * @param delegate Lookup implementation for cache miss
+     * @return Attributes of file
+     * @throws NotfoundException File does not exist
+     */
+    public PathAttributes attributes(final Path file, final AttributesFinder delegate) throws BackgroundException {
+        if(ttl <= 0) {
+            return delegate.find(file);
+        }
+        final Entry cached = this.lookup(file);
+        if(cached != null) {
+            if(!cached.exists) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Return cached not found for %s", file));
+                }
+                throw new NotfoundException(file.getAbsolute());
+            }
+            if(cached.attributes != null) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Return cached attributes %s for %s", cached.attributes, file));
+                }
+                return new PathAttributes(cached.attributes);
+            }
+        }
+        final Entry entry = this.load(new Lookup(file, true), new BackgroundExceptionCallable<Entry>() {
+            @Override
+            public Entry call() throws BackgroundException {
+                try {
+                    return new Entry(true, delegate.find(file));
+                }
+                catch(NotfoundException e) {
+                    return new Entry(false, null);
+                }
+            }
+        });
+        if(!entry.exists) {
+            throw new NotfoundException(file.getAbsolute());
+        }
+        return new PathAttributes(entry.attributes);
+    }
+
+    private Entry lookup(final Path file) {
+        final Map<CacheReference<Path>, Entry> versions = entries.get(file.getAbsolute());
+        if(null == versions) {
+            return null;
+        }
+        final Entry entry = versions.get(new DefaultPathPredicate(file));
+        if(null == entry) {
+            return null;
+        }
+        if(System.currentTimeMillis() - entry.timestamp > ttl) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Run lookup or wait for result of identical lookup in progress
+     */
+    private Entry load(final Lookup lookup, final BackgroundExceptionCallable<Entry> loader) throws BackgroundException {
+        final FutureTask<Entry> task = new FutureTask<>(loader);
+        final FutureTask<Entry> existing = inflight.putIfAbsent(lookup, task);
+        if(null == existing) {
+            final String path = lookup.file.getAbsolute();
+            final long started = this.begin(path);
+            Entry entry = null;
+            try {
+                task.run();
+                entry = this.await(task);
+            }
+            finally {
+                inflight.remove(lookup, task);
+                this.end(lookup, started, entry);
+            }
+            return entry;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Await lookup in progress for %s", lookup.file));
+        }
+        return this.await(existing);
+    }
+
+    /**
+     * @return Generation of path when lookup is started
+     */
+    private long begin(final String path) {
+        return generations.compute(path, (key, generation) -> {
+            final Generation current = null == generation ? new Generation() : generation;
+            current.lookups++;
+            return current;
+        }).value;
+    }
+
+    /**
+     * Save result unless path was invalidated since lookup was started
+     *
+     * @param entry Null if lookup failed
+     */
+    private void end(final Lookup lookup, final long started, final Entry entry) {
+        generations.computeIfPresent(lookup.file.getAbsolute(), (key, generation) -> {
+            if(entry != null && generation.value == started) {
+                final Entry cached = this.lookup(lookup.file);
+                // Keep attributes known from previous lookup
+                if(null == cached || null == cached.attributes || !entry.exists) {
+                    // Entries of path only modified while holding generation
+                    Map<CacheReference<Path>, Entry> versions = entries.get(key);
+                    if(null == versions) {
+                        versions = new ConcurrentHashMap<>();
+                        entries.put(key, versions);
+                    }
+                    versions.put(lookup.reference, entry);
+                }
+            }
+            return --generation.lookups == 0 ? null : generation;
+        });
+    }
+
+    private Entry await(final FutureTask<Entry> task) throws BackgroundException {
+        try {
+            return task.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+
+    /**
+     * Discard entries for all versions of file and directory with the same path
+     *
+     * @param file Modified file
+     */
+    public void invalidate(final Path file) {
+        this.invalidate(file.getAbsolute());
+        inflight.keySet().removeIf(lookup -> lookup.file.getAbsolute().equals(file.getAbsolute()));
+    }
+
+    private void invalidate(final String path) {
+        generations.computeIfPresent(path, (key, generation) -> {
+            generation.value++;
+            return generation;
+        });
+        entries.remove(path);
+    }
+
+    /**
+     * Discard all entries
+     */
+    public void clear() {
+        for(String path : generations.keySet()) {
+            this.invalidate(path);
+        }
+        entries.clear();
+        inflight.clear();
+    }
+
+    private static final class Lookup {
+        private final Path file;
+        private final CacheReference<Path> reference;
+        /**
+         * Lookup of attributes or existence only
+         */
+        private final boolean attributes;
+
+        public Lookup(final Path file, final boolean attributes) {
+            this.file = file;
+            this.reference = new DefaultPathPredicate(file);
+            this.attributes = attributes;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Lookup lookup = (Lookup) o;
+            return attributes == lookup.attributes && Objects.equals(reference, lookup.reference);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reference, attributes);
+        }
+    }
+
+    /**
+     * Guarded by compute of generations map
+     */
+    private static final class Generation {
+        private long value;
+        /**
+         * Number of lookups in progress
+         */
+        private int lookups;
+    }
+
+    private static final class Entry {
+        private final boolean exists;
+        /**
+         * Null if only existence is known
+         */
+        private final PathAttributes attributes;
+        private final long timestamp = System.currentTimeMillis();
+
+        public Entry(final boolean exists, final PathAttributes attributes) {
+            this.exists = exists;
+            this.attributes = attributes;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Entry{");
+            sb.append("exists=").append(exists);
+            sb.append(", attributes=").append(attributes);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PathLookupCache{");
+        sb.append("size=").append(entries.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
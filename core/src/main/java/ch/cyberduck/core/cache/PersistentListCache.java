@@ -0,0 +1,288 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.serializer.impl.dd.PathPlistReader;
+import ch.cyberduck.core.serializer.impl.dd.PlistWriter;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent directory listings shared by all sessions with the same host and account. Each listing is saved with the
+ * revision of the directory it was taken from and only returned when the directory is found with the same revision
+ * again. Listings are saved to the support directory with an index of revisions appended to a journal which is
+ * compacted when loaded.
+ */
+public final class PersistentListCache {
+    private static final Logger log = Logger.getLogger(PersistentListCache.class);
+
+    private static final Map<String, PersistentListCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Cache shared by all connections to the same host with the same username
+     */
+    public static PersistentListCache get(final Host host) {
+        return caches.computeIfAbsent(new HostUrlProvider(true).get(host), key -> new PersistentListCache(
+            LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Listings"), DigestUtils.sha256Hex(key)),
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("browser.cache.persistent.ttl.seconds"))));
+    }
+
+    /**
+     * Folder with listings and index
+     */
+    private final Local folder;
+    private final Local index;
+    /**
+     * Maximum age of listing in milliseconds
+     */
+    private final long ttl;
+
+    /**
+     * Absolute path of directory to revision with timestamp. Loaded lazily from journal.
+     */
+    private Map<String, Entry> entries;
+    /**
+     * Directories with listing returned from cache in this process. Attributes of their children are not validated.
+     */
+    private final Set<String> restored = new HashSet<>();
+
+    public PersistentListCache(final Local folder, final long ttl) {
+        this.folder = folder;
+        this.index = LocalFactory.get(folder, "index.properties");
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param directory Directory
+     * @param revision  Current revision of directory
+     * @return Saved listing or null if unknown, expired or saved for a different revision
+     */
+    public synchronized AttributedList<Path> get(final Path directory, final String revision) {
+        final Entry entry = this.load().get(directory.getAbsolute());
+        if(null == entry) {
+            return null;
+        }
+        if(entry.isExpired(ttl)) {
+            return null;
+        }
+        if(!entry.revision.equals(revision)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Saved listing for %s with revision %s superseded by %s", directory, entry.revision, revision));
+            }
+            return null;
+        }
+        final AttributedList<Path> list;
+        try {
+            list = new AttributedList<>(new PathPlistReader().readCollection(this.listing(directory)));
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure reading listing for %s. %s", directory, e));
+            return null;
+        }
+        list.attributes().setTimestamp(entry.timestamp);
+        restored.add(directory.getAbsolute());
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Return saved listing with %d files for %s with revision %s", list.size(), directory, revision));
+        }
+        return list;
+    }
+
+    /**
+     * @param directory Directory
+     * @param revision  Revision of directory when listed
+     * @param list      Directory listing
+     */
+    public synchronized void put(final Path directory, final String revision, final AttributedList<Path> list) {
+        if(StringUtils.isBlank(revision)) {
+            return;
+        }
+        this.load();
+        restored.remove(directory.getAbsolute());
+        try {
+            new DefaultLocalDirectoryFeature().mkdir(folder);
+            new PlistWriter<Path>().write(list.toList(), this.listing(directory));
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving listing for %s. %s", directory, e));
+            return;
+        }
+        final Entry entry = new Entry(revision, System.currentTimeMillis());
+        entries.put(directory.getAbsolute(), entry);
+        final Properties journal = new Properties();
+        journal.setProperty(directory.getAbsolute(), entry.toString());
+        this.save(journal, true);
+    }
+
+    /**
+     * @param directory Directory
+     * @return True if listing of directory was returned from cache. Attributes of its children may be outdated.
+     */
+    public synchronized boolean isRestored(final Path directory) {
+        return restored.contains(directory.getAbsolute());
+    }
+
+    /**
+     * Mark listing of directory as retrieved from server
+     *
+     * @param directory Directory
+     */
+    public synchronized void validate(final Path directory) {
+        restored.remove(directory.getAbsolute());
+    }
+
+    /**
+     * Remove saved listing of directory
+     *
+     * @param directory Directory
+     */
+    public synchronized void remove(final Path directory) {
+        restored.remove(directory.getAbsolute());
+        if(null == this.load().remove(directory.getAbsolute())) {
+            return;
+        }
+        try {
+            this.listing(directory).delete();
+        }
+        catch(AccessDeniedException | NotfoundException e) {
+            log.warn(String.format("Failure deleting listing for %s. %s", directory, e));
+        }
+        final Properties journal = new Properties();
+        // Empty value marks removal in journal
+        journal.setProperty(directory.getAbsolute(), StringUtils.EMPTY);
+        this.save(journal, true);
+    }
+
+    private Local listing(final Path directory) {
+        return LocalFactory.get(folder, String.format("%s.plist", DigestUtils.sha256Hex(directory.getAbsolute())));
+    }
+
+    private Map<String, Entry> load() {
+        if(null == entries) {
+            entries = new HashMap<>();
+            if(index.exists()) {
+                final Properties journal = new Properties();
+                try (InputStream in = index.getInputStream()) {
+                    journal.load(in);
+                }
+                catch(IllegalArgumentException | AccessDeniedException | IOException e) {
+                    log.warn(String.format("Failure reading index from %s. %s", index.getAbsolute(), e));
+                }
+                for(String key : journal.stringPropertyNames()) {
+                    final Entry entry = Entry.parse(journal.getProperty(key));
+                    if(null == entry || entry.isExpired(ttl)) {
+                        continue;
+                    }
+                    entries.put(key, entry);
+                }
+                // Drop removed, expired and superseded entries from journal
+                this.compact();
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Replace journal with current entries
+     */
+    private void compact() {
+        final Properties journal = new Properties();
+        for(Map.Entry<String, Entry> entry : entries.entrySet()) {
+            journal.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Compact journal %s with %d entries", index, journal.size()));
+        }
+        this.save(journal, false);
+    }
+
+    private void save(final Properties journal, final boolean append) {
+        try {
+            new DefaultLocalDirectoryFeature().mkdir(folder);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving index to %s. %s", index.getAbsolute(), e));
+        }
+        try (OutputStream out = index.getOutputStream(append)) {
+            journal.store(out, null);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving index to %s. %s", index.getAbsolute(), e));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving index to %s. %s", index.getAbsolute(), e.getMessage()));
+        }
+    }
+
+    private static final class Entry {
+        private final String revision;
+        private final long timestamp;
+
+        private Entry(final String revision, final long timestamp) {
+            this.revision = revision;
+            this.timestamp = timestamp;
+        }
+
+        private boolean isExpired(final long ttl) {
+            return System.currentTimeMillis() - timestamp > ttl;
+        }
+
+        /**
+         * @return Null for removed entry
+         */
+        private static Entry parse(final String value) {
+            final int index = StringUtils.indexOf(value, ',');
+            if(index == -1) {
+                return null;
+            }
+            try {
+                return new Entry(value.substring(index + 1), Long.parseLong(value.substring(0, index)));
+            }
+            catch(NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d,%s", timestamp, revision);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ChangeSet;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+/**
+ * Retrieve files changed below a directory since a previous invocation from the change feed of the server
+ */
+public interface ChangeFeed {
+
+    /**
+     * @param directory Root directory
+     * @return Cursor for current state of files to retrieve subsequent changes
+     */
+    String cursor(Path directory) throws BackgroundException;
+
+    /**
+     * @param directory Root directory
+     * @param cursor    Cursor from previous invocation
+     * @return Files changed since cursor was obtained. Incomplete if the cursor has expired.
+     */
+    ChangeSet changes(Path directory, String cursor) throws BackgroundException;
+}
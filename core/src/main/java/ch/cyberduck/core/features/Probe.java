@@ -0,0 +1,28 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+
+/**
+ * Keep idle connection alive with the least expensive request supported by the protocol
+ */
+public interface Probe {
+    /**
+     * @throws BackgroundException Connection is no longer usable
+     */
+    void probe() throws BackgroundException;
+}
@@ -0,0 +1,160 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Run requests concurrently on the thread safe HTTP client of a single session instead of borrowing a session from
+ * the pool for every parallel request. Threads are shared by all features of the session. Submitting blocks while the
+ * maximum number of requests is queued to apply back-pressure on the caller. Tasks must not submit further requests
+ * and wait for their completion to not exhaust the threads.
+ */
+public class ConcurrentHttpRequestService {
+    private static final Logger log = Logger.getLogger(ConcurrentHttpRequestService.class);
+
+    private final ThreadPool pool;
+    /**
+     * Permits for requests queued or in flight
+     */
+    private final Semaphore queue;
+
+    /**
+     * @param threads Number of requests in flight
+     * @param queue   Maximum number of requests queued or in flight
+     */
+    public ConcurrentHttpRequestService(final int threads, final int queue) {
+        this.pool = ThreadPoolFactory.get("requests", threads);
+        this.queue = new Semaphore(Math.max(threads, queue));
+    }
+
+    /**
+     * Schedule request and wait while queue is full
+     *
+     * @param request Request
+     * @return Result retrieved with #await
+     */
+    public <T> Future<T> submit(final BackgroundExceptionCallable<T> request) throws ConnectionCanceledException {
+        return this.submit(request, null);
+    }
+
+    /**
+     * Schedule request and wait while queue is full or the caller has reached its own limit of requests
+     *
+     * @param request Request
+     * @param limit   Permits for requests of the caller queued or in flight or null for no limit
+     * @return Result retrieved with #await
+     */
+    public <T> Future<T> submit(final BackgroundExceptionCallable<T> request, final Semaphore limit) throws ConnectionCanceledException {
+        try {
+            if(limit != null) {
+                limit.acquire();
+            }
+            try {
+                queue.acquire();
+            }
+            catch(InterruptedException e) {
+                if(limit != null) {
+                    limit.release();
+                }
+                throw e;
+            }
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        final FutureTask<T> task = new FutureTask<T>(request) {
+            @Override
+            protected void done() {
+                // Completed, failed or cancelled
+                queue.release();
+                if(limit != null) {
+                    limit.release();
+                }
+            }
+        };
+        try {
+            pool.executor().execute(task);
+        }
+        catch(RejectedExecutionException e) {
+            queue.release();
+            if(limit != null) {
+                limit.release();
+            }
+            throw new ConnectionCanceledException(e);
+        }
+        return task;
+    }
+
+    /**
+     * @param future Submitted request
+     * @return Result of request
+     * @throws BackgroundException Failure of request
+     */
+    public <T> T await(final Future<T> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException | CancellationException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Request failed with execution failure %s", e.getMessage()));
+            }
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+
+    /**
+     * Cancel pending requests and reject any further requests
+     */
+    public void shutdown() {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Shutdown %s", this));
+        }
+        for(Runnable pending : pool.executor().shutdownNow()) {
+            // Notify callers waiting for request never started
+            if(pending instanceof Future) {
+                ((Future) pending).cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrentHttpRequestService{");
+        sb.append("available=").append(queue.availablePermits());
+        sb.append('}');
+        return sb.toString();
+    }
+}
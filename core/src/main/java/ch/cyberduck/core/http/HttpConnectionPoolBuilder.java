@@ -18,6 +18,7 @@ package ch.cyberduck.core.http;
  */
 
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
 import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.ProxyCredentialsStoreFactory;
@@ -31,6 +32,7 @@ import ch.cyberduck.core.proxy.ProxySocketFactory;
 import ch.cyberduck.core.ssl.CustomTrustSSLProtocolSocketFactory;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
+import ch.cyberduck.core.ssl.X509TrustManager;
 
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthSchemeProvider;
@@ -57,18 +59,32 @@ import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HttpContext;
 import org.apache.log4j.Logger;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class HttpConnectionPoolBuilder {
     private static final Logger log = Logger.getLogger(HttpConnectionPoolBuilder.class);
 
+    /**
+     * Connection pools shared by sessions with the same host, credentials, trust and key manager
+     */
+    private static final Map<SharedConnectionManagerKey, SharedConnectionManager> managers = new HashMap<>();
+
     private final Preferences preferences = PreferencesFactory.get();
     private final ConnectionSocketFactory socketFactory;
     private final ConnectionSocketFactory sslSocketFactory;
     private final Host host;
+    /**
+     * Key of shared connection pool or null if connection pool is not shared
+     */
+    private final SharedConnectionManagerKey shared;
 
     public HttpConnectionPoolBuilder(final Host host,
                                      final ThreadLocalHostnameDelegatingTrustManager trust,
@@ -110,15 +126,23 @@ public class HttpConnectionPoolBuilder {
                 trust.setTarget(host.getHostName());
                 return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
             }
-        });
+        }, new SharedConnectionManagerKey(new HostUrlProvider(true).get(host), trust.getDelegate(), key));
     }
 
     public HttpConnectionPoolBuilder(final Host host,
                                      final ConnectionSocketFactory socketFactory,
                                      final ConnectionSocketFactory sslSocketFactory) {
+        this(host, socketFactory, sslSocketFactory, null);
+    }
+
+    private HttpConnectionPoolBuilder(final Host host,
+                                      final ConnectionSocketFactory socketFactory,
+                                      final ConnectionSocketFactory sslSocketFactory,
+                                      final SharedConnectionManagerKey shared) {
         this.host = host;
         this.socketFactory = socketFactory;
         this.sslSocketFactory = sslSocketFactory;
+        this.shared = shared;
     }
 
     /**
@@ -128,7 +152,21 @@ public class HttpConnectionPoolBuilder {
      * @return Builder for HTTP client
      */
     public HttpClientBuilder build(final Proxy proxy, final TranscriptListener listener, final LoginCallback prompt) {
-        final HttpClientBuilder configuration = HttpClients.custom();
+        final HttpClientBuilder configuration;
+        // Always register HTTP for possible use with proxy. Contains a number of protocol properties such as the
+        // default port and the socket factory to be used to create the java.net.Socket instances for the given protocol
+        // Subclasses may register socket factories specific to the session
+        if(null != shared && HttpConnectionPoolBuilder.class == this.getClass() && preferences.getBoolean("http.connections.shared")) {
+            // Keep-alive connections and resumable TLS sessions are reused by all sessions of the same host
+            final SharedConnectionManager manager = this.acquire();
+            configuration = new SharedConnectionManagerHttpClientBuilder(manager);
+            configuration.setConnectionManager(manager.pool);
+            configuration.setConnectionManagerShared(true);
+        }
+        else {
+            configuration = HttpClients.custom();
+            configuration.setConnectionManager(this.createConnectionManager(this.createRegistry()));
+        }
         // Use HTTP Connect proxy implementation provided here instead of
         // relying on internal proxy support in socket factory
         switch(proxy.getType()) {
@@ -165,9 +203,6 @@ public class HttpConnectionPoolBuilder {
             configuration.disableContentCompression();
         }
         configuration.setRequestExecutor(new LoggingHttpRequestExecutor(listener));
-        // Always register HTTP for possible use with proxy. Contains a number of protocol properties such as the
-        // default port and the socket factory to be used to create the java.net.Socket instances for the given protocol
-        configuration.setConnectionManager(this.createConnectionManager(this.createRegistry()));
         configuration.setDefaultAuthSchemeRegistry(RegistryBuilder.<AuthSchemeProvider>create()
             .register(AuthSchemes.BASIC, new BasicSchemeFactory(
                 Charset.forName(preferences.getProperty("http.credentials.charset"))))
@@ -197,6 +232,20 @@ public class HttpConnectionPoolBuilder {
             .build();
     }
 
+    /**
+     * @return Connection pool shared with other sessions with lease released when HTTP client is closed
+     */
+    SharedConnectionManager acquire() {
+        synchronized(managers) {
+            final SharedConnectionManager manager = managers.computeIfAbsent(shared,
+                key -> new SharedConnectionManager(key, this.createConnectionManager(this.createRegistry()),
+                    preferences.getInteger("http.connections.route"),
+                    Math.min(preferences.getInteger("http.connections.total"), preferences.getInteger("http.connections.shared.route.limit"))));
+            manager.acquire();
+            return manager;
+        }
+    }
+
     public Registry<ConnectionSocketFactory> createRegistry() {
         return RegistryBuilder.<ConnectionSocketFactory>create()
             .register(Scheme.http.toString(), socketFactory)
@@ -214,4 +263,134 @@ public class HttpConnectionPoolBuilder {
         manager.setValidateAfterInactivity(preferences.getInteger("http.connections.stale.check.ms"));
         return manager;
     }
+
+    private static final class SharedConnectionManagerKey {
+        private final String url;
+        private final X509TrustManager trust;
+        private final X509KeyManager key;
+
+        public SharedConnectionManagerKey(final String url, final X509TrustManager trust, final X509KeyManager key) {
+            this.url = url;
+            this.trust = trust;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final SharedConnectionManagerKey that = (SharedConnectionManagerKey) o;
+            // Require same instances of trust and key manager for socket factories to be interchangeable
+            return Objects.equals(url, that.url) && trust == that.trust && key == that.key;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, System.identityHashCode(trust), System.identityHashCode(key));
+        }
+
+        @Override
+        public String toString() {
+            return url;
+        }
+    }
+
+    static final class SharedConnectionManager {
+        private final SharedConnectionManagerKey key;
+        private final PoolingHttpClientConnectionManager pool;
+        /**
+         * Maximum number of connections per route for each HTTP client
+         */
+        private final int route;
+        /**
+         * Upper bound for connections per route regardless of number of HTTP clients
+         */
+        private final int limit;
+        /**
+         * Number of HTTP clients using the connection pool
+         */
+        private int leases;
+
+        public SharedConnectionManager(final SharedConnectionManagerKey key, final PoolingHttpClientConnectionManager pool,
+                                       final int route, final int limit) {
+            this.key = key;
+            this.pool = pool;
+            this.route = route;
+            this.limit = limit;
+        }
+
+        /**
+         * Grow connections allowed per route with every HTTP client to not limit concurrent requests of sessions
+         * sharing the connection pool below the limit of a single session. Bound by a maximum regardless of the number
+         * of HTTP clients.
+         */
+        public void acquire() {
+            synchronized(managers) {
+                leases++;
+                this.resize();
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Acquired lease for shared connection pool %s", this));
+                }
+            }
+        }
+
+        /**
+         * Shutdown connection pool when no longer in use by any HTTP client
+         */
+        public void release() {
+            synchronized(managers) {
+                if(--leases == 0) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Shutdown shared connection pool %s", this));
+                    }
+                    managers.remove(key);
+                    pool.shutdown();
+                }
+                else {
+                    this.resize();
+                }
+            }
+        }
+
+        PoolingHttpClientConnectionManager getPool() {
+            return pool;
+        }
+
+        private void resize() {
+            // Idle connections in excess of the limit are closed when leasing the next connection
+            pool.setDefaultMaxPerRoute((int) Math.max(route, Math.min(limit, (long) route * leases)));
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("SharedConnectionManager{");
+            sb.append("key=").append(key);
+            sb.append(", leases=").append(leases);
+            sb.append(", route=").append(pool.getDefaultMaxPerRoute());
+            sb.append(", pool=").append(pool.getTotalStats());
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Releases lease of shared connection pool when HTTP client is closed
+     */
+    private static final class SharedConnectionManagerHttpClientBuilder extends HttpClientBuilder {
+        public SharedConnectionManagerHttpClientBuilder(final SharedConnectionManager manager) {
+            final AtomicBoolean released = new AtomicBoolean();
+            this.addCloseable(new Closeable() {
+                @Override
+                public void close() {
+                    if(released.compareAndSet(false, true)) {
+                        manager.release();
+                    }
+                }
+            });
+        }
+    }
 }
@@ -20,6 +20,7 @@ package ch.cyberduck.core.http;
  */
 
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.ProxyFactory;
 import ch.cyberduck.core.ssl.SSLSession;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
@@ -30,6 +31,11 @@ public abstract class HttpSession<C> extends SSLSession<C> {
 
     protected HttpConnectionPoolBuilder builder;
 
+    /**
+     * Concurrent requests on client of this session
+     */
+    private ConcurrentHttpRequestService requests;
+
     protected HttpSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, trust, key);
         this.builder = new HttpConnectionPoolBuilder(host,
@@ -40,4 +46,27 @@ public abstract class HttpSession<C> extends SSLSession<C> {
     public void setBuilder(final HttpConnectionPoolBuilder builder) {
         this.builder = builder;
     }
+
+    /**
+     * @return Service to run requests concurrently using the client of this session
+     */
+    public synchronized ConcurrentHttpRequestService getRequestService() {
+        if(null == requests) {
+            requests = new ConcurrentHttpRequestService(
+                PreferencesFactory.get().getInteger("http.requests.concurrency"),
+                PreferencesFactory.get().getInteger("http.requests.queue"));
+        }
+        return requests;
+    }
+
+    @Override
+    protected void disconnect() {
+        synchronized(this) {
+            if(requests != null) {
+                requests.shutdown();
+                requests = null;
+            }
+        }
+        super.disconnect();
+    }
 }
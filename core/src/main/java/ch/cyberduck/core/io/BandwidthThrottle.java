@@ -3,6 +3,7 @@ package ch.cyberduck.core.io;
 import org.apache.log4j.Logger;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.util.concurrent.Uninterruptibles;
 
@@ -26,9 +27,9 @@ import com.google.common.util.concurrent.Uninterruptibles;
  * have been exceeded, subsequent calls to request(..) will block.  The default value of T is 100 milliseconds. Smaller
  * window values T allow fairer bandwidth sharing and less noticeable pauses but may decrease efficiency slightly.<p>
  * <p/>
- * Note that throttles are <i>not</i> cumulative.  In the future, this may allow enable fancier control.  Also,
- * BandwidthThrottle may be able delegate to other throttles.  This would allow, for example, a 15 KB/s Gnutella
- * messaging throttle, with no more than 10 KB/s devoted to uploads.<p>
+ * Requests are granted at most the bytes of a single window and reserve bandwidth without locking in the order
+ * of arrival. Streams sharing a throttle are therefore served in turn. A throttle may delegate to a parent throttle
+ * shared with other throttles to enforce an additional limit, for example for all transfers to the same host.<p>
  * <p/>
  * This implementation is based on the <a href="http://cvs.sourceforge.net/cgi-bin/viewcvs.cgi/freenet/freenet/src/freenet/support/io/Bandwidth.java">Bandwidth</a>
  * class from the Freenet project.  It has been simplified and better documented.<p>
@@ -45,6 +46,11 @@ public final class BandwidthThrottle {
      */
     private static final int MILLIS_PER_TICK = 1000 / TICKS_PER_SECOND;
 
+    /**
+     * The value of T, in nanoseconds.
+     */
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(MILLIS_PER_TICK);
+
     /**
      * The bytes to send per tick.  Modified by setThrottle.
      */
@@ -56,13 +62,15 @@ public final class BandwidthThrottle {
     private volatile boolean switching = false;
 
     /**
-     * The number of bytes remaining in this window.
+     * The system time in nanoseconds when all bandwidth reserved so far is used. Bandwidth not used is only
+     * accumulated for a single window.
      */
-    private int availableBytes;
+    private final AtomicLong reserved = new AtomicLong(System.nanoTime());
+
     /**
-     * The system time when the window is reset so more bytes can be sent.
+     * Additional limit shared with other throttles or null
      */
-    private long nextTickTime;
+    private final BandwidthThrottle parent;
 
     /**
      * Creates a new bandwidth throttle at the given throttle rate. The default windows size T is used.  The bytes per
@@ -71,6 +79,17 @@ public final class BandwidthThrottle {
      * @param bytesPerSecond the limits in bytes (not bits!) per second (not milliseconds!)
      */
     public BandwidthThrottle(float bytesPerSecond) {
+        this(bytesPerSecond, (BandwidthThrottle) null);
+    }
+
+    /**
+     * Creates a new bandwidth throttle at the given throttle rate additionally limited by the parent throttle.
+     *
+     * @param bytesPerSecond the limits in bytes (not bits!) per second (not milliseconds!)
+     * @param parent         Throttle shared with other throttles or null
+     */
+    public BandwidthThrottle(float bytesPerSecond, final BandwidthThrottle parent) {
+        this.parent = parent;
         this.setRate(bytesPerSecond);
     }
 
@@ -83,7 +102,7 @@ public final class BandwidthThrottle {
      * @param switching      true if we should only allow bandwidth to be used every other second.
      */
     public BandwidthThrottle(float bytesPerSecond, boolean switching) {
-        this.setRate(bytesPerSecond);
+        this(bytesPerSecond);
         this.setSwitching(switching);
 
     }
@@ -96,7 +115,7 @@ public final class BandwidthThrottle {
     /**
      * Bytes per second allowed
      */
-    private float rate = UNLIMITED;
+    private volatile float rate = UNLIMITED;
 
     /**
      * Sets the throttle to the given throttle rate.  The default windows size T is used.  The bytes per windows N is
@@ -109,11 +128,16 @@ public final class BandwidthThrottle {
             rate = UNLIMITED;
         }
         else {
+            if(Float.compare(rate, bytesPerSecond) == 0) {
+                return;
+            }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Set rate to %s bytes per second", bytesPerSecond));
             }
             rate = bytesPerSecond;
             bytesPerTick = (int) (bytesPerSecond / TICKS_PER_SECOND);
+            // Discard reservations made with previous rate
+            reserved.set(System.nanoTime());
         }
         if(switching) {
             this.fixBytesPerTick(true);
@@ -127,6 +151,13 @@ public final class BandwidthThrottle {
         return rate;
     }
 
+    /**
+     * @return Throttle shared with other throttles or null
+     */
+    public BandwidthThrottle getParent() {
+        return parent;
+    }
+
     /**
      * Sets whether or not this throttle is switching bandwidth on/off.
      */
@@ -165,49 +196,75 @@ public final class BandwidthThrottle {
      * @return the number of bytes the sender is expected to send, which is always greater than one and less than or
      * equal to desired
      */
-    public synchronized int request(int desired) {
-        if(UNLIMITED == rate) {
-            return desired;
+    public int request(int desired) {
+        final int granted = this.reserve(desired);
+        if(null == parent) {
+            return granted;
         }
-        waitForBandwidth();
-        int result = Math.min(desired, availableBytes);
-        availableBytes -= result;
-        return result;
+        final int allowed = parent.request(granted);
+        if(allowed < granted) {
+            // Return bandwidth not allowed by parent
+            this.release(granted - allowed);
+        }
+        return allowed;
     }
 
     /**
-     * Waits until data is _availableBytes.
+     * Reserve bandwidth for up to a single window and wait until it is available.
+     *
+     * @return Number of bytes reserved
      */
-    private void waitForBandwidth() {
+    private int reserve(final int desired) {
+        if(UNLIMITED == rate) {
+            return desired;
+        }
+        if(switching) {
+            this.waitForSwitch();
+        }
+        final int granted = Math.min(desired, Math.max(1, bytesPerTick));
+        final long cost = this.cost(granted);
+        long now;
+        long next;
         while(true) {
-            long now = System.currentTimeMillis();
-            updateWindow(now);
-            if(availableBytes != 0) {
+            now = System.nanoTime();
+            final long previous = reserved.get();
+            next = Math.max(previous, now) + cost;
+            if(reserved.compareAndSet(previous, next)) {
                 break;
             }
+        }
+        // Allow to use bandwidth of a single window without delay
+        final long delay = next - now - NANOS_PER_TICK;
+        if(delay > 0) {
             if(log.isInfoEnabled()) {
-                log.info(String.format("Throttling bandwidth for %d milliseconds", nextTickTime - now));
+                log.info(String.format("Throttling bandwidth for %d milliseconds", TimeUnit.NANOSECONDS.toMillis(delay)));
             }
-            Uninterruptibles.sleepUninterruptibly(nextTickTime - now, TimeUnit.MILLISECONDS);
+            Uninterruptibles.sleepUninterruptibly(delay, TimeUnit.NANOSECONDS);
+        }
+        return granted;
+    }
+
+    private void release(final int bytes) {
+        if(UNLIMITED == rate) {
+            return;
         }
+        reserved.addAndGet(-this.cost(bytes));
     }
 
     /**
-     * Updates _availableBytes and _nextTickTime if possible.
+     * @return Time in nanoseconds to send number of bytes
      */
-    private void updateWindow(long now) {
-        if(now >= nextTickTime) {
-            if(!switching || ((now / 1000) % 2) == 0) {
-                availableBytes = bytesPerTick;
-                nextTickTime = now + MILLIS_PER_TICK;
-            }
-            else {
-                availableBytes = 0;
-                // the next tick time is the time we'll hit
-                // the next second.
-                long diff = 1000 - (now % 1000);
-                nextTickTime = now + diff;
-            }
+    private long cost(final int bytes) {
+        return bytes * NANOS_PER_TICK / Math.max(1, bytesPerTick);
+    }
+
+    /**
+     * Waits until the next even second when switching
+     */
+    private void waitForSwitch() {
+        final long now = System.currentTimeMillis();
+        if(((now / 1000) % 2) != 0) {
+            Uninterruptibles.sleepUninterruptibly(1000 - (now % 1000), TimeUnit.MILLISECONDS);
         }
     }
 
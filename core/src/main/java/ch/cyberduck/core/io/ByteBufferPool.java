@@ -0,0 +1,105 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of reusable buffers. Buffers are allocated when the pool is empty and only retained up to the limit
+ * of the pool when released.
+ */
+public final class ByteBufferPool {
+
+    private static final class Holder {
+        private static final ByteBufferPool heap = new ByteBufferPool(
+            PreferencesFactory.get().getInteger("connection.chunksize"),
+            PreferencesFactory.get().getInteger("connection.buffer.pool.size"), false);
+        private static final ByteBufferPool direct = new ByteBufferPool(
+            PreferencesFactory.get().getInteger("connection.chunksize"),
+            PreferencesFactory.get().getInteger("connection.buffer.pool.size"), true);
+    }
+
+    /**
+     * @return Shared pool of heap buffers with backing array of default chunk size
+     */
+    public static ByteBufferPool heap() {
+        return Holder.heap;
+    }
+
+    /**
+     * @return Shared pool of direct buffers of default chunk size
+     */
+    public static ByteBufferPool direct() {
+        return Holder.direct;
+    }
+
+    private final int capacity;
+    private final boolean direct;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * @param capacity Size of buffers
+     * @param limit    Maximum number of buffers retained
+     * @param direct   Allocate direct buffers
+     */
+    public ByteBufferPool(final int capacity, final int limit, final boolean direct) {
+        this.capacity = capacity;
+        this.direct = direct;
+        this.buffers = new ArrayBlockingQueue<>(limit);
+    }
+
+    /**
+     * @return Cleared buffer from pool or newly allocated buffer if pool is empty
+     */
+    public ByteBuffer borrow() {
+        final ByteBuffer buffer = buffers.poll();
+        if(null == buffer) {
+            return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return buffer to pool. Buffer is discarded if the pool is full.
+     *
+     * @param buffer Buffer previously borrowed from this pool
+     */
+    public void release(final ByteBuffer buffer) {
+        if(buffer.capacity() != capacity || buffer.isDirect() != direct) {
+            return;
+        }
+        buffers.offer(buffer);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ByteBufferPool{");
+        sb.append("capacity=").append(capacity);
+        sb.append(", direct=").append(direct);
+        sb.append(", available=").append(buffers.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
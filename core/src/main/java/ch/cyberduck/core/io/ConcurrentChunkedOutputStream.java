@@ -0,0 +1,211 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.SegmentThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Buffers written data in chunks uploaded in the background while the next chunk is written. Chunks are submitted in
+ * order to a thread pool with the number of chunks in flight bounded by the concurrency. With a concurrency of one
+ * chunks are uploaded sequentially in order. Each chunk is retried on failure and its buffer is reused for a
+ * subsequent chunk when completed.
+ */
+public abstract class ConcurrentChunkedOutputStream extends OutputStream {
+    private static final Logger log = Logger.getLogger(ConcurrentChunkedOutputStream.class);
+
+    private final Host host;
+    private final TransferStatus overall;
+    private final ThreadPool pool;
+    /**
+     * Buffers of chunks in flight and chunk currently written
+     */
+    private final ByteBufferPool buffers;
+    /**
+     * Permits for chunks in flight
+     */
+    private final Semaphore inflight;
+    private final List<Future<Void>> chunks = new ArrayList<>();
+    private final AtomicReference<BackgroundException> failure = new AtomicReference<>();
+    private final AtomicBoolean close = new AtomicBoolean();
+
+    private ByteBuffer buffer;
+    /**
+     * Offset of current chunk
+     */
+    private long offset = 0L;
+
+    /**
+     * @param host        Bookmark
+     * @param overall     Transfer status
+     * @param chunksize   Size of chunks
+     * @param concurrency Maximum number of chunks uploaded in parallel
+     */
+    public ConcurrentChunkedOutputStream(final Host host, final TransferStatus overall, final int chunksize, final int concurrency) {
+        this.host = host;
+        this.overall = overall;
+        this.pool = new SegmentThreadPool(host, concurrency);
+        this.buffers = new ByteBufferPool(chunksize, concurrency + 1, false);
+        this.inflight = new Semaphore(concurrency);
+        this.buffer = buffers.borrow();
+    }
+
+    /**
+     * Upload chunk. Invoked concurrently for chunks of the same stream unless concurrency is one.
+     *
+     * @param offset Offset of chunk in stream
+     * @param chunk  Content with data starting at index 0
+     * @param length Number of bytes in chunk
+     */
+    protected abstract void upload(long offset, byte[] chunk, int length) throws BackgroundException;
+
+    @Override
+    public void write(final int value) throws IOException {
+        this.write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int position = off;
+        int remaining = len;
+        while(remaining > 0) {
+            final int n = Math.min(remaining, buffer.remaining());
+            buffer.put(b, position, n);
+            position += n;
+            remaining -= n;
+            if(!buffer.hasRemaining()) {
+                this.submit();
+            }
+        }
+    }
+
+    private void submit() throws IOException {
+        if(null != failure.get()) {
+            throw new IOException(failure.get().getMessage(), failure.get());
+        }
+        try {
+            // Wait for slot of previous chunk
+            inflight.acquire();
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        final ByteBuffer chunk = buffer;
+        final long position = offset;
+        final int length = chunk.position();
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Submit chunk with offset %d and length %d", position, length));
+        }
+        chunks.removeIf(Future::isDone);
+        chunks.add(pool.execute(new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                try {
+                    return new DefaultRetryCallable<>(host, new BackgroundExceptionCallable<Void>() {
+                        @Override
+                        public Void call() throws BackgroundException {
+                            if(null != failure.get()) {
+                                throw new ConnectionCanceledException();
+                            }
+                            ConcurrentChunkedOutputStream.this.upload(position, chunk.array(), length);
+                            return null; //Void
+                        }
+                    }, overall).call();
+                }
+                catch(BackgroundException e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                }
+                finally {
+                    buffers.release(chunk);
+                    inflight.release();
+                }
+            }
+        }));
+        offset += length;
+        buffer = buffers.borrow();
+    }
+
+    /**
+     * Upload remaining data and wait for all chunks to complete
+     */
+    @Override
+    public void close() throws IOException {
+        if(close.get()) {
+            log.warn(String.format("Skip double close of stream %s", this));
+            return;
+        }
+        try {
+            if(null == failure.get() && buffer.position() > 0) {
+                this.submit();
+            }
+            for(Future<Void> chunk : chunks) {
+                try {
+                    chunk.get();
+                }
+                catch(InterruptedException e) {
+                    throw new InterruptedIOException(e.getMessage());
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Failure uploading chunk %s", e.getCause()));
+                }
+            }
+            if(null != failure.get()) {
+                throw new IOException(failure.get().getMessage(), failure.get());
+            }
+        }
+        finally {
+            pool.shutdown(false);
+            close.set(true);
+        }
+    }
+
+    /**
+     * @return Number of bytes submitted for upload
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrentChunkedOutputStream{");
+        sb.append("offset=").append(offset);
+        sb.append(", failure=").append(failure);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide throttles per host and direction shared as parent by the throttles of all transfers to the same
+ * host. Limits the total bandwidth regardless of the number of concurrent transfers and connections.
+ */
+public final class SharedBandwidthThrottle {
+
+    private static final Map<String, BandwidthThrottle> uploads = new ConcurrentHashMap<>();
+    private static final Map<String, BandwidthThrottle> downloads = new ConcurrentHashMap<>();
+
+    private SharedBandwidthThrottle() {
+        //
+    }
+
+    /**
+     * @param host Bookmark
+     * @return Throttle shared by all uploads to the same host
+     */
+    public static BandwidthThrottle upload(final Host host) {
+        return get(uploads, host, "queue.upload.bandwidth.host.bytes");
+    }
+
+    /**
+     * @param host Bookmark
+     * @return Throttle shared by all downloads from the same host
+     */
+    public static BandwidthThrottle download(final Host host) {
+        return get(downloads, host, "queue.download.bandwidth.host.bytes");
+    }
+
+    private static BandwidthThrottle get(final Map<String, BandwidthThrottle> throttles, final Host host, final String property) {
+        final BandwidthThrottle throttle = throttles.computeIfAbsent(new HostUrlProvider(false).get(host),
+            key -> new BandwidthThrottle(BandwidthThrottle.UNLIMITED));
+        // Apply changes to preferences
+        throttle.setRate(PreferencesFactory.get().getFloat(property));
+        return throttle;
+    }
+}
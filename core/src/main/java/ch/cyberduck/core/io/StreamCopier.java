@@ -28,6 +28,12 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -79,7 +85,8 @@ public final class StreamCopier {
     }
 
     /**
-     * Updates the current number of bytes transferred in the status reference.
+     * Updates the current number of bytes transferred in the status reference. Uses zero copy transfer if
+     * both streams are backed by channels and at least one of them is a file channel.
      *
      * @param in  The stream to read from
      * @param out The stream to write to
@@ -90,41 +97,20 @@ public final class StreamCopier {
                 if(offset > 0) {
                     skip(in, offset);
                 }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
-                }
-                while(len > 0) {
-                    cancel.validate();
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
+                final List<BandwidthThrottle> throttles = new ArrayList<>();
+                final ReadableByteChannel source = channel(in, throttles);
+                final WritableByteChannel target = channel(out, throttles);
+                if(null != source && null != target) {
+                    if(source instanceof FileChannel || target instanceof FileChannel) {
+                        this.transfer(source, target, throttles);
                     }
                     else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
-                    }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
+                        this.transfer(source, target, throttles, ByteBufferPool.direct());
                     }
                 }
+                else {
+                    this.transfer(in, out, ByteBufferPool.heap());
+                }
                 final StreamCloser c = new DefaultStreamCloser();
                 c.close(out);
             }
@@ -151,6 +137,175 @@ public final class StreamCopier {
         cancel.validate();
     }
 
+    /**
+     * Copy through buffer borrowed from pool
+     */
+    private void transfer(final InputStream in, final OutputStream out, final ByteBufferPool pool) throws IOException, BackgroundException {
+        final ByteBuffer borrowed = chunksize == pool.getCapacity() ? pool.borrow() : ByteBuffer.allocate(chunksize);
+        try {
+            final byte[] buffer = borrowed.array();
+            long total = 0;
+            int len = this.next(total);
+            while(len > 0) {
+                cancel.validate();
+                final int read = in.read(buffer, 0, len);
+                if(-1 == read) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+                else {
+                    listener.recv(read);
+                    out.write(buffer, 0, read);
+                    progress.progress(read);
+                    listener.sent(read);
+                    total += read;
+                }
+                len = this.next(total);
+            }
+        }
+        finally {
+            pool.release(borrowed);
+        }
+    }
+
+    /**
+     * Copy between channels through direct buffer borrowed from pool
+     */
+    private void transfer(final ReadableByteChannel source, final WritableByteChannel target, final List<BandwidthThrottle> throttles,
+                          final ByteBufferPool pool) throws IOException, BackgroundException {
+        final ByteBuffer buffer = chunksize == pool.getCapacity() ? pool.borrow() : ByteBuffer.allocateDirect(chunksize);
+        try {
+            long total = 0;
+            int len = this.next(total);
+            while(len > 0) {
+                cancel.validate();
+                buffer.clear();
+                buffer.limit(this.request(throttles, len));
+                final int read = source.read(buffer);
+                if(-1 == read) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes read from channel", total));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+                listener.recv(read);
+                buffer.flip();
+                while(buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                progress.progress(read);
+                listener.sent(read);
+                total += read;
+                len = this.next(total);
+            }
+        }
+        finally {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Zero copy transfer in chunks from or to file channel
+     */
+    private void transfer(final ReadableByteChannel source, final WritableByteChannel target, final List<BandwidthThrottle> throttles) throws IOException, BackgroundException {
+        long total = 0;
+        int len = this.next(total);
+        while(len > 0) {
+            cancel.validate();
+            final int chunk = this.request(throttles, len);
+            final long transferred;
+            if(source instanceof FileChannel) {
+                final FileChannel channel = (FileChannel) source;
+                final long position = channel.position();
+                transferred = channel.transferTo(position, chunk, target);
+                channel.position(position + transferred);
+            }
+            else {
+                final FileChannel channel = (FileChannel) target;
+                final long position = channel.position();
+                transferred = channel.transferFrom(source, position, chunk);
+                channel.position(position + transferred);
+            }
+            if(transferred <= 0) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes transferred from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            listener.recv(transferred);
+            progress.progress(transferred);
+            listener.sent(transferred);
+            total += transferred;
+            len = this.next(total);
+        }
+    }
+
+    /**
+     * @param total Bytes transferred so far
+     * @return Number of bytes to request in next chunk or zero when limit is reached
+     */
+    private int next(final long total) {
+        if(limit > 0) {
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from stream", limit));
+                }
+                progress.setComplete();
+            }
+            // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+            return (int) Math.min(limit - total, chunksize);
+        }
+        return chunksize;
+    }
+
+    private int request(final List<BandwidthThrottle> throttles, final int desired) {
+        int len = desired;
+        for(BandwidthThrottle throttle : throttles) {
+            len = throttle.request(len);
+        }
+        return len;
+    }
+
+    /**
+     * @param in        Stream
+     * @param throttles Bandwidth throttles found when unwrapping stream
+     * @return Channel backing the stream or null if not backed by a channel
+     */
+    private static ReadableByteChannel channel(final InputStream in, final List<BandwidthThrottle> throttles) {
+        if(in.getClass() == ThrottledInputStream.class) {
+            throttles.add(((ThrottledInputStream) in).getThrottle());
+            return channel(((ThrottledInputStream) in).getDelegate(), throttles);
+        }
+        if(in instanceof ChannelInputStream) {
+            return ((ChannelInputStream) in).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @param out       Stream
+     * @param throttles Bandwidth throttles found when unwrapping stream
+     * @return Channel backing the stream or null if not backed by a channel
+     */
+    private static WritableByteChannel channel(final OutputStream out, final List<BandwidthThrottle> throttles) {
+        if(out.getClass() == ThrottledOutputStream.class) {
+            throttles.add(((ThrottledOutputStream) out).getThrottle());
+            return channel(((ThrottledOutputStream) out).getDelegate(), throttles);
+        }
+        if(out.getClass() == VoidStatusOutputStream.class) {
+            return channel(((VoidStatusOutputStream) out).getProxy(), throttles);
+        }
+        if(out instanceof ChannelOutputStream) {
+            return ((ChannelOutputStream) out).getChannel();
+        }
+        return null;
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
@@ -0,0 +1,266 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.transfer.TransferItem;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Size, modification date and inode of local files at the time they were last transferred. Files found unchanged
+ * since can be skipped without looking up the remote file. Assumes the remote files are not modified by others.
+ * <p>
+ * Only files committed after a successful transfer in this run are saved to the snapshot for the next run.
+ */
+public class LocalSnapshot {
+    private static final Logger log = Logger.getLogger(LocalSnapshot.class);
+
+    private static final int VERSION = 1;
+
+    /**
+     * @param host  Bookmark
+     * @param roots Files of transfer
+     * @return Snapshot for transfer with the same roots to the same account
+     */
+    public static LocalSnapshot get(final Host host, final List<TransferItem> roots) {
+        final StringBuilder key = new StringBuilder(new HostUrlProvider(true).get(host));
+        for(TransferItem root : roots) {
+            key.append(root.remote.getAbsolute()).append(root.local.getAbsolute());
+        }
+        return new LocalSnapshot(LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Snapshots"),
+            String.format("%s.snapshot", DigestUtils.sha256Hex(key.toString()))));
+    }
+
+    /**
+     * @return Snapshot never reporting any file unchanged
+     */
+    public static LocalSnapshot empty() {
+        return new LocalSnapshot(null) {
+            @Override
+            public boolean isUnchanged(final Local file) {
+                return false;
+            }
+
+            @Override
+            public void commit(final Local file) {
+                //
+            }
+
+            @Override
+            public void save() {
+                //
+            }
+        };
+    }
+
+    private final Local file;
+
+    /**
+     * Entries of previous run. Loaded lazily.
+     */
+    private Map<String, Entry> previous;
+    /**
+     * Attributes read in this run
+     */
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    /**
+     * Entries committed in this run
+     */
+    private final Map<String, Entry> next = new ConcurrentHashMap<>();
+
+    public LocalSnapshot(final Local file) {
+        this.file = file;
+    }
+
+    /**
+     * @param file Local file or directory
+     * @return True if size, modification date and inode are the same as when last committed. For directories no
+     * entries were added or removed.
+     */
+    public boolean isUnchanged(final Local file) {
+        final Entry entry = this.read(file);
+        if(null == entry) {
+            return false;
+        }
+        final Entry saved = this.load().get(file.getAbsolute());
+        return entry.equals(saved);
+    }
+
+    /**
+     * Save attributes of file read before transfer for next run
+     *
+     * @param file Local file or directory transferred
+     */
+    public void commit(final Local file) {
+        final Entry entry = current.remove(file.getAbsolute());
+        if(null == entry) {
+            return;
+        }
+        next.put(file.getAbsolute(), entry);
+    }
+
+    /**
+     * Replace snapshot with files committed in this run
+     */
+    public void save() {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Save snapshot %s with %d entries", file, next.size()));
+        }
+        final java.nio.file.Path target = Paths.get(file.getAbsolute());
+        final java.nio.file.Path temporary = Paths.get(String.format("%s.tmp", file.getAbsolute()));
+        try {
+            Files.createDirectories(target.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(VERSION);
+                out.writeInt(next.size());
+                for(Map.Entry<String, Entry> entry : next.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving snapshot to %s. %s", file, e.getMessage()));
+        }
+        finally {
+            current.clear();
+            next.clear();
+        }
+    }
+
+    /**
+     * @return Null if attributes cannot be read or file is a symbolic link
+     */
+    private Entry read(final Local file) {
+        final Entry cached = current.get(file.getAbsolute());
+        if(cached != null) {
+            return cached;
+        }
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(Paths.get(file.getAbsolute()), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading attributes of %s. %s", file, e.getMessage()));
+            return null;
+        }
+        if(attributes.isSymbolicLink()) {
+            return null;
+        }
+        final Entry entry = new Entry(attributes.isDirectory() ? -1L : attributes.size(), attributes.lastModifiedTime().toMillis(),
+            null == attributes.fileKey() ? StringUtils.EMPTY : attributes.fileKey().toString());
+        current.put(file.getAbsolute(), entry);
+        return entry;
+    }
+
+    private synchronized Map<String, Entry> load() {
+        if(null == previous) {
+            previous = new HashMap<>();
+            final java.nio.file.Path source = Paths.get(file.getAbsolute());
+            if(Files.exists(source)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+                    if(in.readInt() == VERSION) {
+                        final int size = in.readInt();
+                        for(int i = 0; i < size; i++) {
+                            previous.put(in.readUTF(), Entry.read(in));
+                        }
+                    }
+                }
+                catch(EOFException e) {
+                    log.warn(String.format("Truncated snapshot %s", file));
+                    previous.clear();
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading snapshot %s. %s", file, e.getMessage()));
+                    previous.clear();
+                }
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Loaded snapshot %s with %d entries", file, previous.size()));
+                }
+            }
+        }
+        return previous;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long modified;
+        /**
+         * Device and inode
+         */
+        private final String key;
+
+        private Entry(final long size, final long modified, final String key) {
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+        }
+
+        private void write(final DataOutputStream out) throws IOException {
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.writeUTF(key);
+        }
+
+        private static Entry read(final DataInputStream in) throws IOException {
+            return new Entry(in.readLong(), in.readLong(), in.readUTF());
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Entry entry = (Entry) o;
+            return size == entry.size && modified == entry.modified && key.equals(entry.key);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (size ^ (size >>> 32));
+            result = 31 * result + (int) (modified ^ (modified >>> 32));
+            result = 31 * result + key.hashCode();
+            return result;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -31,6 +32,8 @@ import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
 import ch.cyberduck.core.threading.FailureDiagnostics;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.vault.VaultRegistry;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
@@ -42,7 +45,13 @@ import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DefaultSessionPool implements SessionPool {
     private static final Logger log = Logger.getLogger(DefaultSessionPool.class);
@@ -64,6 +73,11 @@ public class DefaultSessionPool implements SessionPool {
 
     private SessionPool features = SessionPool.DISCONNECTED;
 
+    /**
+     * Connections requested to open once a session has logged in
+     */
+    private final AtomicReference<Warmup> warmup = new AtomicReference<>();
+
     public DefaultSessionPool(final ConnectionService connect, final X509TrustManager trust, final X509KeyManager key,
                               final VaultRegistry registry, final Cache<Path> cache, final TranscriptListener transcript,
                               final Host bookmark) {
@@ -77,6 +91,13 @@ public class DefaultSessionPool implements SessionPool {
         configuration.setEvictionPolicyClassName(CustomPoolEvictionPolicy.class.getName());
         configuration.setBlockWhenExhausted(true);
         configuration.setMaxWaitMillis(BORROW_MAX_WAIT_INTERVAL);
+        // Probe idle connections instead of closing them
+        configuration.setTestWhileIdle(true);
+        configuration.setNumTestsPerEvictionRun(-1);
+        configuration.setTimeBetweenEvictionRunsMillis(TimeUnit.SECONDS.toMillis(
+            PreferencesFactory.get().getLong("connection.pool.keepalive.seconds")));
+        configuration.setMinEvictableIdleTimeMillis(TimeUnit.SECONDS.toMillis(
+            PreferencesFactory.get().getLong("connection.pool.idle.seconds")));
         this.pool = new GenericObjectPool<Session>(new PooledSessionFactory(connect, trust, key, cache, bookmark, registry), configuration);
         final AbandonedConfig abandon = new AbandonedConfig();
         abandon.setUseUsageTracking(true);
@@ -93,6 +114,10 @@ public class DefaultSessionPool implements SessionPool {
         this.pool = pool;
     }
 
+    /**
+     * Only close connections exceeding the minimum number of idle connections after the idle timeout. Remaining
+     * idle connections are probed.
+     */
     public static final class CustomPoolEvictionPolicy implements EvictionPolicy<Session<?>> {
         public CustomPoolEvictionPolicy() {
             //
@@ -100,8 +125,15 @@ public class DefaultSessionPool implements SessionPool {
 
         @Override
         public boolean evict(final EvictionConfig config, final PooledObject<Session<?>> underTest, final int idleCount) {
-            log.warn(String.format("Evict idle session %s from pool", underTest));
-            return true;
+            if(0 == underTest.getBorrowedCount()) {
+                // Never connected
+                return false;
+            }
+            if(idleCount > config.getMinIdle() && underTest.getIdleTimeMillis() > config.getIdleEvictTime()) {
+                log.warn(String.format("Evict idle session %s from pool", underTest));
+                return true;
+            }
+            return false;
         }
     }
 
@@ -148,6 +180,8 @@ public class DefaultSessionPool implements SessionPool {
                     if(DISCONNECTED == features) {
                         features = new StatelessSessionPool(connect, session, cache, transcript, registry);
                     }
+                    // Open connections requested ahead of use now that credentials are known
+                    this.warmup();
                     return session.withListener(transcript);
                 }
                 catch(IllegalStateException e) {
@@ -224,6 +258,143 @@ public class DefaultSessionPool implements SessionPool {
         }
     }
 
+    /**
+     * Keep at least the number of connections used by the transfer idle in the pool. Connections are opened in
+     * parallel once the first session has logged in to prompt for credentials at most once.
+     *
+     * @param count    Number of connections used concurrently
+     * @param callback Cancel opening connections with transfer
+     */
+    @Override
+    public void warmup(final int count, final BackgroundActionState callback) {
+        final int target = Math.min(count, pool.getMaxIdle());
+        if(target > pool.getMinIdle()) {
+            this.withMinIdle(target);
+        }
+        warmup.set(new Warmup(target, callback));
+        if(DISCONNECTED != features) {
+            // Session already logged in
+            this.warmup();
+        }
+    }
+
+    /**
+     * Open connections requested for warmup in the background
+     */
+    private void warmup() {
+        final Warmup pending = warmup.getAndSet(null);
+        if(null == pending) {
+            return;
+        }
+        final int open = pending.count - pool.getNumActive();
+        if(open <= 0) {
+            return;
+        }
+        if(pending.callback.isCanceled()) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Open %d connections in pool %s", open, this));
+        }
+        final ThreadPool executor = ThreadPoolFactory.get("warmup", open);
+        executor.execute(() -> {
+            // Hold connected sessions until all are opened to not borrow the same session again
+            final List<Session> sessions = new ArrayList<>();
+            try {
+                final List<Future<Session>> parallel = new ArrayList<>();
+                for(int i = 1; i < open; i++) {
+                    parallel.add(executor.execute(() -> this.open(pending.callback)));
+                }
+                BackgroundException failure = null;
+                try {
+                    final Session first = this.open(pending.callback);
+                    if(first != null) {
+                        sessions.add(first);
+                    }
+                }
+                catch(BackgroundException e) {
+                    failure = e;
+                }
+                for(Future<Session> future : parallel) {
+                    try {
+                        final Session session = future.get();
+                        if(session != null) {
+                            sessions.add(session);
+                        }
+                    }
+                    catch(ExecutionException e) {
+                        if(null == failure) {
+                            failure = e.getCause() instanceof BackgroundException ? (BackgroundException) e.getCause()
+                                : new DefaultExceptionMappingService().map(e.getCause());
+                        }
+                    }
+                    catch(InterruptedException e) {
+                        if(null == failure) {
+                            failure = new ConnectionCanceledException(e);
+                        }
+                    }
+                }
+                if(failure != null) {
+                    this.failure(failure, sessions.size());
+                }
+            }
+            finally {
+                for(Session session : sessions) {
+                    pool.returnObject(session);
+                }
+                executor.shutdown(false);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Borrow connected session
+     *
+     * @return Null when canceled
+     */
+    private Session open(final BackgroundActionState callback) throws BackgroundException {
+        if(callback.isCanceled()) {
+            return null;
+        }
+        try {
+            return pool.borrowObject();
+        }
+        catch(NoSuchElementException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e);
+        }
+        catch(BackgroundException e) {
+            throw e;
+        }
+        catch(Exception e) {
+            throw new DefaultExceptionMappingService().map(e);
+        }
+    }
+
+    /**
+     * Stop keeping connections idle that failed to open and lower maximum idle pool size on network failure
+     *
+     * @param failure Failure opening connection
+     * @param opened  Number of connections opened successfully
+     */
+    private void failure(final BackgroundException failure, final int opened) {
+        if(failure instanceof ConnectionCanceledException) {
+            log.warn(String.format("Canceled opening connections in pool %s", this));
+        }
+        else {
+            log.error(String.format("Failure %s opening connections in pool %s", failure, this));
+        }
+        this.withMinIdle(Math.min(pool.getMinIdle(), opened + pool.getNumActive()));
+        if(diagnostics.determine(failure) == FailureDiagnostics.Type.network) {
+            final int max = Math.max(1, pool.getMaxIdle() - 1);
+            log.warn(String.format("Lower maximum idle pool size to %d connections.", max));
+            pool.setMaxIdle(max);
+        }
+    }
+
     @Override
     public void evict() {
         if(log.isInfoEnabled()) {
@@ -304,4 +475,14 @@ public class DefaultSessionPool implements SessionPool {
         sb.append('}');
         return sb.toString();
     }
+
+    private static final class Warmup {
+        private final int count;
+        private final BackgroundActionState callback;
+
+        private Warmup(final int count, final BackgroundActionState callback) {
+            this.count = count;
+            this.callback = callback;
+        }
+    }
 }
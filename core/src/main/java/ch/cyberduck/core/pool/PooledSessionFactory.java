@@ -25,6 +25,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Probe;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.vault.VaultRegistry;
@@ -77,6 +78,34 @@ public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
         connect.check(session, cache, new DisabledCancelCallback());
     }
 
+    /**
+     * Probe idle session to keep connection alive
+     *
+     * @return False if connection is no longer usable
+     */
+    @Override
+    public boolean validateObject(final PooledObject<Session> p) {
+        final Session<?> session = p.getObject();
+        if(0 == p.getBorrowedCount()) {
+            // Never connected
+            return true;
+        }
+        if(!session.isConnected()) {
+            return false;
+        }
+        try {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Probe idle session %s", session));
+            }
+            session.getFeature(Probe.class).probe();
+            return true;
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure probing idle session %s. %s", session, e));
+            return false;
+        }
+    }
+
     @Override
     public void passivateObject(final PooledObject<Session> p) {
         final Session session = p.getObject();
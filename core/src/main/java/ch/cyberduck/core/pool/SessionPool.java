@@ -85,6 +85,16 @@ public interface SessionPool {
      */
     void shutdown();
 
+    /**
+     * Open connections in the background ahead of use
+     *
+     * @param count    Number of connections used concurrently
+     * @param callback Cancel opening connections
+     */
+    default void warmup(int count, BackgroundActionState callback) {
+        // No pooled connections
+    }
+
     interface Callback {
         boolean isCanceled();
     }
@@ -313,6 +313,23 @@ public abstract class Preferences implements Locales {
         this.setDefault("transfer.cache.size", String.valueOf(100));
         this.setDefault("icon.cache.size", String.valueOf(200));
         this.setDefault("preferences.cache.size", String.valueOf(1000));
+        /*
+          Maximum age of persisted identifiers of directories
+         */
+        this.setDefault("fileid.cache.ttl.seconds", String.valueOf(7 * 24 * 60 * 60));
+        /*
+          Maximum age of results of lookups for existence and attributes of files merged and shared between sessions
+         */
+        this.setDefault("path.lookup.cache.ttl.seconds", String.valueOf(10));
+        this.setDefault("path.lookup.cache.size", String.valueOf(10000));
+        /*
+          Save directory listings to display until listed again in later sessions when the modification date of the
+          directory is unchanged. Files modified in place do not update the timestamp of the parent directory and
+          are only shown with current attributes once the directory is listed again.
+         */
+        this.setDefault("browser.cache.persistent", String.valueOf(false));
+        this.setDefault("browser.cache.persistent.ttl.seconds", String.valueOf(30 * 24 * 60 * 60));
+        this.setDefault("browser.cache.persistent.margin.seconds", String.valueOf(60));
 
         /*
           Caching NS* proxy instances.
@@ -469,6 +486,11 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.upload.file.redundancy.change", String.valueOf(true));
 
         this.setDefault("queue.upload.checksum.calculate", String.valueOf(false));
+        /*
+          Skip files unchanged in size, modification date and inode since previous upload with compare or skip action
+          without looking up remote file. Assumes remote files are not modified by others.
+         */
+        this.setDefault("queue.upload.snapshot.enable", String.valueOf(false));
 
         this.setDefault("queue.upload.skip.enable", String.valueOf(true));
         this.setDefault("queue.upload.skip.regex.default",
@@ -517,6 +539,9 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.download.segments", String.valueOf(true));
         this.setDefault("queue.download.segments.threshold", String.valueOf(10L * 1024L * 1024L));
         this.setDefault("queue.download.segments.size", String.valueOf(5L * 1024L * 1024L));
+        this.setDefault("queue.download.segments.size.max", String.valueOf(1024L * 1024L * 1024L));
+        // Targeted duration for transfer of a single segment to amortize latency of request
+        this.setDefault("queue.download.segments.duration.seconds", String.valueOf(10L));
 
         /*
           Open completed downloads
@@ -558,6 +583,14 @@ public abstract class Preferences implements Locales {
           Bandwidth throttle download stream
          */
         this.setDefault("queue.download.bandwidth.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for all uploads to the same host
+         */
+        this.setDefault("queue.upload.bandwidth.host.bytes", String.valueOf(-1));
+        /*
+          Bandwidth throttle for all downloads from the same host
+         */
+        this.setDefault("queue.download.bandwidth.host.bytes", String.valueOf(-1));
 
         /*
          * Concurrent connections for single transfer and maximum number of concurrent transfers in transfer list
@@ -590,6 +623,10 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.prompt.upload.action.default", TransferAction.overwrite.name());
         this.setDefault("queue.prompt.copy.action.default", TransferAction.overwrite.name());
         this.setDefault("queue.prompt.move.action.default", TransferAction.overwrite.name());
+        /*
+          Only list directories with changes reported by change feed of server since previous synchronization
+         */
+        this.setDefault("queue.sync.changes.enable", String.valueOf(false));
 
         this.setDefault("queue.transcript.open", String.valueOf(false));
         this.setDefault("queue.transcript.size.height", String.valueOf(200));
@@ -607,6 +644,19 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("http.connections.total", String.valueOf(Integer.MAX_VALUE));
         this.setDefault("http.connections.retry", String.valueOf(1));
+        /*
+          Share connection pool between sessions of the same host and credentials
+         */
+        this.setDefault("http.connections.shared", String.valueOf(true));
+        /*
+          Maximum number of connections per route of a shared connection pool regardless of the number of sessions
+         */
+        this.setDefault("http.connections.shared.route.limit", String.valueOf(50));
+        /*
+          Threads for concurrent requests of a session and maximum number of requests queued
+         */
+        this.setDefault("http.requests.concurrency", String.valueOf(25));
+        this.setDefault("http.requests.queue", String.valueOf(1000));
 
         this.setDefault("http.manager.timeout", String.valueOf(0)); // Infinite
         this.setDefault("http.socket.buffer", String.valueOf(8192));
@@ -644,7 +694,6 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("ftp.tls.datachannel", "P"); //C
         this.setDefault("ftp.tls.session.requirereuse", String.valueOf(true));
-        this.setDefault("ftp.ssl.session.cache.size", String.valueOf(100));
 
         /*
           Try to determine the timezone automatically using timestamp comparison from MLST and LIST
@@ -784,14 +833,20 @@ public abstract class Preferences implements Locales {
         this.setDefault("openstack.upload.largeobject.size", String.valueOf(1000L * 1024L * 1024L)); // 1GB
         // Each segment, except for the final one, must be at least 1 megabyte
         this.setDefault("openstack.upload.largeobject.size.minimum", String.valueOf(1 * 1024L * 1024L)); // 1MB
+        // Maximum number of segments in static large object manifest
+        this.setDefault("openstack.upload.largeobject.segments.max", String.valueOf(1000));
         // Remove segments when deleting large object manifest
         this.setDefault("openstack.upload.largeobject.cleanup", String.valueOf(true));
 
         this.setDefault("openstack.delete.multiple.partition", String.valueOf(10000));
+        // Delete segments referenced in manifest when deleting large object
+        this.setDefault("openstack.delete.largeobject.segments", String.valueOf(true));
 
         this.setDefault("googledrive.list.limit", String.valueOf(1000));
         this.setDefault("googledrive.teamdrive.enable", String.valueOf(true));
         this.setDefault("googledrive.delete.trash", String.valueOf(true));
+        // Maximum number of calls in a single batch request
+        this.setDefault("googledrive.batch.size", String.valueOf(100));
         // Limit the number of requests to 10 per second which is equal the user quota
         this.setDefault("googledrive.limit.requests.second", String.valueOf(100));
 
@@ -813,10 +868,13 @@ public abstract class Preferences implements Locales {
         this.setDefault("sds.version.lts", "4.12");
         this.setDefault("sds.listing.chunksize", String.valueOf(500));
         this.setDefault("sds.upload.multipart.chunksize", String.valueOf(2 * 1024L * 1024L));
+        this.setDefault("sds.upload.multipart.concurrency", String.valueOf(4));
         // Run missing file keys in bulk feature after upload
         this.setDefault("sds.encryption.missingkeys.upload", String.valueOf(true));
         this.setDefault("sds.encryption.missingkeys.scheduler.period", String.valueOf(120000)); // 2 minutes
         this.setDefault("sds.encryption.keys.ttl", String.valueOf(3600000)); // 1 hour
+        // Number of file keys requested and decrypted in parallel
+        this.setDefault("sds.encryption.keys.concurrency", String.valueOf(10));
         this.setDefault("sds.useracount.ttl", String.valueOf(3600000)); // 1 hour
         this.setDefault("sds.delete.dataroom.enable", String.valueOf(true));
         this.setDefault("sds.upload.sharelinks.keep", String.valueOf(true));
@@ -825,13 +883,26 @@ public abstract class Preferences implements Locales {
         this.setDefault("sds.upload.s3.status.period", String.valueOf(1000)); // 1 second
         this.setDefault("sds.oauth.migrate.enable", String.valueOf(true));
 
+        /*
+          Maximum number of streams requested for a single data object. The number of streams is negotiated with the server.
+         */
+        this.setDefault("irods.parallel.threads", String.valueOf(4));
+        /*
+          Maximum number of streams shared by all concurrent transfers to the same host
+         */
+        this.setDefault("irods.parallel.threads.limit", String.valueOf(16));
+
         this.setDefault("spectra.retry.delay", String.valueOf(60)); // 1 minute
+        this.setDefault("spectra.chunks.poll.interval", String.valueOf(1000)); // 1 second
+        this.setDefault("spectra.chunks.poll.idle", String.valueOf(600)); // 10 minutes
 
         this.setDefault("storegate.listing.chunksize", String.valueOf(500));
         this.setDefault("storegate.upload.multipart.chunksize", String.valueOf(0.5 * 1024L * 1024L));
         this.setDefault("storegate.lock.ttl", String.valueOf(24 * 3600000)); // 24 hours
 
         this.setDefault("oauth.browser.open.warn", String.valueOf(false));
+        // Refresh tokens in use before expiry
+        this.setDefault("oauth.refresh.margin.seconds", String.valueOf(60));
 
         this.setDefault("brick.pairing.nickname.configure", String.valueOf(false));
         this.setDefault("brick.pairing.hostname.configure", String.valueOf(true));
@@ -839,6 +910,11 @@ public abstract class Preferences implements Locales {
         this.setDefault("brick.pairing.interrupt.ms", String.valueOf(10 * 60 * 1000L)); // 10min
 
         this.setDefault("dropbox.upload.chunksize", String.valueOf(150 * 1024L * 1024L));
+        // Maximum number of entries allowed in a single request to finish upload sessions
+        this.setDefault("dropbox.upload.batch.size", String.valueOf(1000));
+        // Maximum time in milliseconds to wait for concurrent uploads to commit in the same batch
+        this.setDefault("dropbox.upload.batch.delay", String.valueOf(1000L));
+        this.setDefault("dropbox.upload.batch.poll.interval", String.valueOf(500L));
         this.setDefault("dropbox.business.enable", String.valueOf(true));
 
         /*
@@ -878,6 +954,10 @@ public abstract class Preferences implements Locales {
         this.setDefault("connection.pool.minidle", String.valueOf(1));
         this.setDefault("connection.pool.maxidle", String.valueOf(5));
         this.setDefault("connection.pool.maxtotal", String.valueOf(Integer.MAX_VALUE));
+        // Interval to probe idle connections
+        this.setDefault("connection.pool.keepalive.seconds", String.valueOf(30));
+        // Close idle connections exceeding minimum idle count after timeout
+        this.setDefault("connection.pool.idle.seconds", String.valueOf(300));
 
         /*
           Default login name
@@ -979,6 +1059,11 @@ public abstract class Preferences implements Locales {
         this.setDefault("connection.ssl.protocols", "TLSv1.3,TLSv1.2,TLSv1.1,TLSv1");
         this.setDefault("connection.ssl.protocols.ftp", "TLSv1.2,TLSv1.1,TLSv1");
         this.setDefault("connection.ssl.cipher.blacklist", StringUtils.EMPTY);
+        /*
+          Number of TLS sessions cached for resumption per SSL context
+         */
+        this.setDefault("connection.ssl.session.cache.size", String.valueOf(1000));
+        this.setDefault("connection.ssl.session.timeout.seconds", String.valueOf(86400));
 
         this.setDefault("connection.ssl.x509.revocation.online", String.valueOf(false));
 
@@ -993,6 +1078,10 @@ public abstract class Preferences implements Locales {
           Transfer read buffer size
          */
         this.setDefault("connection.chunksize", String.valueOf(32768));
+        /*
+          Maximum number of transfer read buffers retained for reuse
+         */
+        this.setDefault("connection.buffer.pool.size", String.valueOf(64));
         /*
           Buffer size for wrapped buffered streams
          */
@@ -1087,6 +1176,8 @@ public abstract class Preferences implements Locales {
 
         this.setDefault("threading.pool.size.max", String.valueOf(20));
         this.setDefault("threading.pool.keepalive.seconds", String.valueOf(60L));
+        // Maximum number of segments in flight for multipart transfers to the same host
+        this.setDefault("threading.pool.segments.size.max", String.valueOf(20));
 
         this.setDefault("cryptomator.enable", String.valueOf(true));
         this.setDefault("cryptomator.vault.version", String.valueOf(7));
@@ -0,0 +1,40 @@
+package ch.cyberduck.core.serializer.impl.dd;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DeserializerFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.serializer.PathDictionary;
+
+import com.dd.plist.NSDictionary;
+
+public class PathPlistReader extends PlistReader<Path> {
+
+    private final DeserializerFactory deserializer;
+
+    public PathPlistReader() {
+        this(new DeserializerFactory());
+    }
+
+    public PathPlistReader(final DeserializerFactory deserializer) {
+        this.deserializer = deserializer;
+    }
+
+    @Override
+    public Path deserialize(final NSDictionary dict) {
+        return new PathDictionary(deserializer).deserialize(dict);
+    }
+}
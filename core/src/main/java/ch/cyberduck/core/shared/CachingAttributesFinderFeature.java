@@ -0,0 +1,79 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.cache.PathLookupCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.AttributesFinder;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Answer from cached directory listing of parent if available and fallback to the native implementation otherwise.
+ * Lookups not answered from the listing are shared with concurrent and recent lookups for the same file.
+ */
+public class CachingAttributesFinderFeature implements AttributesFinder {
+    private static final Logger log = Logger.getLogger(CachingAttributesFinderFeature.class);
+
+    private final Session<?> session;
+    private final AttributesFinder delegate;
+
+    private Cache<Path> cache = PathCache.empty();
+
+    public CachingAttributesFinderFeature(final Session<?> session, final AttributesFinder delegate) {
+        this.session = session;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public PathAttributes find(final Path file) throws BackgroundException {
+        if(!file.isRoot()) {
+            final AttributedList<Path> list = cache.get(file.getParent());
+            if(cache.isValid(file.getParent())) {
+                final Path found = list.find(new ListFilteringFeature.ListFilteringPredicate(session, file));
+                if(null == found) {
+                    throw new NotfoundException(file.getAbsolute());
+                }
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Return attributes %s for %s from cached listing", found.attributes(), file));
+                }
+                return found.attributes();
+            }
+        }
+        return PathLookupCache.get(session.getHost()).attributes(file, delegate.withCache(cache));
+    }
+
+    @Override
+    public CachingAttributesFinderFeature withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CachingAttributesFinderFeature{");
+        sb.append("delegate=").append(delegate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
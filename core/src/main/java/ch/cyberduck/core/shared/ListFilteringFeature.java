@@ -83,7 +83,7 @@ public abstract class ListFilteringFeature {
         return this;
     }
 
-    private static final class ListFilteringPredicate extends DefaultPathPredicate {
+    static final class ListFilteringPredicate extends DefaultPathPredicate {
         private final Session<?> session;
         private final Path file;
 
@@ -0,0 +1,121 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.cache.PersistentListCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Display listing saved in previous session when the directory is found with the same modification date in the listing
+ * of its parent. Only for protocols where the timestamp of a directory is updated when its contents change. The saved
+ * listing is passed as a first chunk to the listener only and the directory is always listed again because the
+ * modification date of a directory does not change when a file in it is modified in place.
+ */
+public class PersistentListService implements ListService {
+    private static final Logger log = Logger.getLogger(PersistentListService.class);
+
+    private final Session<?> session;
+    private final ListService delegate;
+    private final PersistentListCache cache;
+    /**
+     * Do not save listings of directories modified within this number of milliseconds to not miss changes made
+     * within the resolution of the modification date
+     */
+    private final long margin;
+
+    public PersistentListService(final Session<?> session, final ListService delegate) {
+        this(session, delegate, PersistentListCache.get(session.getHost()),
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("browser.cache.persistent.margin.seconds")));
+    }
+
+    public PersistentListService(final Session<?> session, final ListService delegate, final PersistentListCache cache, final long margin) {
+        this.session = session;
+        this.delegate = delegate;
+        this.cache = cache;
+        this.margin = margin;
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final String revision = this.toRevision(directory);
+        if(null == revision) {
+            final AttributedList<Path> list = delegate.list(directory, listener);
+            cache.validate(directory);
+            return list;
+        }
+        final AttributedList<Path> cached = cache.get(directory, revision);
+        if(cached != null) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Display saved listing of %s until revalidated", directory));
+            }
+            listener.chunk(directory, cached);
+        }
+        final AttributedList<Path> list = delegate.list(directory, listener);
+        cache.put(directory, revision, list);
+        return list;
+    }
+
+    /**
+     * @param directory Directory with attributes from listing of parent
+     * @return Null if saved listing cannot be displayed for directory
+     */
+    protected String toRevision(final Path directory) {
+        if(session.getHost().getProtocol().getDirectoryTimestamp() != Protocol.DirectoryTimestamp.implicit) {
+            return null;
+        }
+        if(directory.isRoot()) {
+            return null;
+        }
+        // ETag of collections is not reliably updated by servers when contents change
+        final PathAttributes attributes = directory.attributes();
+        if(attributes.getModificationDate() > 0) {
+            if(System.currentTimeMillis() - attributes.getModificationDate() < margin) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Skip revalidation of %s recently modified", directory));
+                }
+                return null;
+            }
+            return String.valueOf(attributes.getModificationDate());
+        }
+        return null;
+    }
+
+    @Override
+    public ListService withCache(final Cache<Path> cache) {
+        return new PersistentListService(session, delegate.withCache(cache), this.cache, margin);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PersistentListService{");
+        sb.append("delegate=").append(delegate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -30,7 +30,9 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
+import javax.net.ssl.SSLSessionContext;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.security.KeyManagementException;
@@ -38,11 +40,22 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
     private static final Logger log = Logger.getLogger(CustomTrustSSLProtocolSocketFactory.class);
 
+    /**
+     * SSL contexts by trust and key manager. Factories with the same trust and key manager such as for all sessions
+     * of a pool share the context and its client session cache to resume TLS sessions instead of repeating the full
+     * handshake. Trust managers of sessions delegating to the same trust manager are keyed by their delegate. Entries
+     * are removed when no longer referenced by any factory.
+     */
+    private static final Map<X509TrustManager, Map<X509KeyManager, WeakReference<SSLContext>>> contexts
+        = new WeakHashMap<>();
+
     private final SSLSocketFactory factory;
     /**
      * Shared context
@@ -75,19 +88,44 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
                                                final String... protocols) {
         this.trust = trust;
         this.key = key;
-        try {
-            // Default provider
-            context = SSLContext.getInstance("TLS");
-            context.init(new KeyManager[]{key}, new TrustManager[]{trust}, seeder);
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Using SSL context with protocol %s", context.getProtocol()));
+        this.context = context(trust, key, seeder);
+        this.factory = context.getSocketFactory();
+        this.protocols = protocols;
+    }
+
+    private static SSLContext context(final X509TrustManager trust, final X509KeyManager key, final SecureRandom seeder) {
+        synchronized(contexts) {
+            final Map<X509KeyManager, WeakReference<SSLContext>> keys = contexts.computeIfAbsent(
+                trust instanceof ThreadLocalHostnameDelegatingTrustManager ? ((ThreadLocalHostnameDelegatingTrustManager) trust).getDelegate() : trust,
+                t -> new WeakHashMap<>());
+            final WeakReference<SSLContext> reference = keys.get(key);
+            if(reference != null) {
+                final SSLContext context = reference.get();
+                if(context != null) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Reuse SSL context %s for trust manager %s and key manager %s", context, trust, key));
+                    }
+                    return context;
+                }
+            }
+            try {
+                // Default provider
+                final SSLContext context = SSLContext.getInstance("TLS");
+                context.init(new KeyManager[]{key}, new TrustManager[]{trust}, seeder);
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Using SSL context with protocol %s", context.getProtocol()));
+                }
+                final Preferences preferences = PreferencesFactory.get();
+                final SSLSessionContext sessions = context.getClientSessionContext();
+                sessions.setSessionCacheSize(preferences.getInteger("connection.ssl.session.cache.size"));
+                sessions.setSessionTimeout(preferences.getInteger("connection.ssl.session.timeout.seconds"));
+                keys.put(key, new WeakReference<>(context));
+                return context;
+            }
+            catch(NoSuchAlgorithmException | KeyManagementException e) {
+                throw new FactoryException(e.getMessage(), e);
             }
-            factory = context.getSocketFactory();
-        }
-        catch(NoSuchAlgorithmException | KeyManagementException e) {
-            throw new FactoryException(e.getMessage(), e);
         }
-        this.protocols = protocols;
     }
 
     /**
@@ -25,9 +25,10 @@ import java.security.cert.X509Certificate;
 public class ThreadLocalHostnameDelegatingTrustManager implements X509TrustManager, TrustManagerHostnameCallback {
 
     /**
-     * Target hostname of current request stored as thread local
+     * Target hostname of current request stored as thread local. Shared by all instances as the SSL context
+     * initialized with the trust manager of one session is reused by other sessions with the same delegate.
      */
-    private final ThreadLocal<String> target
+    private static final ThreadLocal<String> target
         = new ThreadLocal<String>();
 
     private final X509TrustManager delegate;
@@ -72,6 +73,10 @@ public class ThreadLocalHostnameDelegatingTrustManager implements X509TrustManag
         this.target.set(hostname);
     }
 
+    public X509TrustManager getDelegate() {
+        return delegate;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("ThreadLocalHostnameDelegatingTrustManager{");
@@ -31,6 +31,8 @@ import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.shared.CachingAttributesFinderFeature;
+import ch.cyberduck.core.shared.CachingFindFeature;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -51,8 +53,8 @@ public class ComparisonServiceFilter implements ComparePathFilter {
     private Cache<Path> cache = PathCache.empty();
 
     public ComparisonServiceFilter(final Session<?> session, final TimeZone tz, final ProgressListener listener) {
-        this.finder = session.getFeature(Find.class, new DefaultFindFeature(session));
-        this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
+        this.finder = new CachingFindFeature(session, session.getFeature(Find.class, new DefaultFindFeature(session)));
+        this.attribute = new CachingAttributesFinderFeature(session, session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session)));
         this.timestamp = new TimestampComparisonService(tz);
         this.size = new SizeComparisonService();
         this.checksum = new ChecksumComparisonService();
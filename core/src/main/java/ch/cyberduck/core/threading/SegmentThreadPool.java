@@ -0,0 +1,207 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pool for the segments of a single file. Segments are run in the executor shared by all files transferred to the
+ * same host instead of creating threads per file.
+ */
+public class SegmentThreadPool implements ThreadPool {
+    private static final Logger log = Logger.getLogger(SegmentThreadPool.class);
+
+    private final SharedSegmentExecutor shared;
+    /**
+     * Maximum number of segments of this file in flight
+     */
+    private final int concurrency;
+
+    /**
+     * Segments waiting for a slot. Guarded by shared executor
+     */
+    private final Deque<FutureTask<?>> queue = new ArrayDeque<>();
+    /**
+     * Segments running. Guarded by shared executor
+     */
+    private int running;
+
+    private final List<Future<?>> submitted = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile boolean shutdown;
+
+    private final AbstractExecutorService executor = new AbstractExecutorService() {
+        @Override
+        public void shutdown() {
+            SegmentThreadPool.this.shutdown(false);
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            SegmentThreadPool.this.shutdown(false);
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && SegmentThreadPool.this.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            for(Future<?> future : SegmentThreadPool.this.futures()) {
+                try {
+                    future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                catch(ExecutionException | CancellationException e) {
+                    // Ignore failure of task
+                }
+                catch(TimeoutException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            SegmentThreadPool.this.execute(Executors.callable(command));
+        }
+    };
+
+    /**
+     * @param host        Bookmark used to lookup shared executor
+     * @param concurrency Maximum number of concurrent segments for this file
+     */
+    public SegmentThreadPool(final Host host, final int concurrency) {
+        this(SharedSegmentExecutor.get(host), concurrency);
+    }
+
+    public SegmentThreadPool(final SharedSegmentExecutor shared, final int concurrency) {
+        this.shared = shared;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public <T> Future<T> execute(final Callable<T> command) {
+        if(shutdown) {
+            throw new RejectedExecutionException(String.format("Pool %s is shutdown", this));
+        }
+        final FutureTask<T> task = new FutureTask<>(command);
+        submitted.add(task);
+        shared.submit(this, task);
+        return task;
+    }
+
+    /**
+     * @param gracefully Wait for queued and running segments to complete or cancel them otherwise
+     */
+    @Override
+    public void shutdown(final boolean gracefully) {
+        shutdown = true;
+        if(gracefully) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Shutdown pool %s gracefully", this));
+            }
+            try {
+                while(!executor.awaitTermination(1L, TimeUnit.SECONDS)) {
+                    log.warn(String.format("Await termination for pool %s", this));
+                }
+            }
+            catch(InterruptedException e) {
+                log.error(String.format("Failure awaiting pool termination. %s", e.getMessage()));
+            }
+        }
+        else {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Shutdown pool %s now", this));
+            }
+            shared.cancel(this);
+            for(Future<?> future : this.futures()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public AbstractExecutorService executor() {
+        return executor;
+    }
+
+    private List<Future<?>> futures() {
+        synchronized(submitted) {
+            return new ArrayList<>(submitted);
+        }
+    }
+
+    private boolean isTerminated() {
+        for(Future<?> future : this.futures()) {
+            if(!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Deque<FutureTask<?>> queue() {
+        return queue;
+    }
+
+    boolean isAvailable() {
+        return running < concurrency;
+    }
+
+    void increment() {
+        running++;
+    }
+
+    void decrement() {
+        running--;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentThreadPool{");
+        sb.append("shared=").append(shared);
+        sb.append(", concurrency=").append(concurrency);
+        sb.append('}');
+        return sb.toString();
+    }
+}
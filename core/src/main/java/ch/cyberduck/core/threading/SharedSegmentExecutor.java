@@ -0,0 +1,158 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide executor for segments of multipart uploads and copies shared by all files transferred to the same
+ * host. Limits the total number of segments in flight and dispatches queued segments of different files in round
+ * robin order.
+ */
+public final class SharedSegmentExecutor {
+    private static final Logger log = Logger.getLogger(SharedSegmentExecutor.class);
+
+    private static final Map<String, SharedSegmentExecutor> executors = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Shared executor for all connections to the same host
+     */
+    public static SharedSegmentExecutor get(final Host host) {
+        return executors.computeIfAbsent(new HostUrlProvider(false).get(host), key -> new SharedSegmentExecutor(key,
+            PreferencesFactory.get().getInteger("threading.pool.segments.size.max")));
+    }
+
+    private final String name;
+    /**
+     * Maximum number of segments in flight
+     */
+    private final int limit;
+    private final ThreadPoolExecutor executor;
+    /**
+     * Pools with queued segments in round robin order
+     */
+    private final Deque<SegmentThreadPool> pools = new ArrayDeque<>();
+
+    private int running;
+
+    public SharedSegmentExecutor(final String name, final int limit) {
+        this.name = name;
+        this.limit = limit;
+        this.executor = new ThreadPoolExecutor(limit, limit,
+            PreferencesFactory.get().getLong("threading.pool.keepalive.seconds"), TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("segments", new LoggingUncaughtExceptionHandler()));
+        // Reuse threads across files but release them when no transfer is running
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queue segment of file and dispatch when a slot becomes available
+     *
+     * @param pool Segments of a single file
+     * @param task Segment
+     */
+    synchronized void submit(final SegmentThreadPool pool, final FutureTask<?> task) {
+        pool.queue().add(task);
+        if(!pools.contains(pool)) {
+            pools.addLast(pool);
+        }
+        this.dispatch();
+    }
+
+    /**
+     * Remove all queued segments of file
+     *
+     * @param pool Segments of a single file
+     */
+    synchronized void cancel(final SegmentThreadPool pool) {
+        for(FutureTask<?> task : pool.queue()) {
+            task.cancel(false);
+        }
+        pool.queue().clear();
+        pools.remove(pool);
+    }
+
+    private synchronized void release(final SegmentThreadPool pool) {
+        running--;
+        pool.decrement();
+        this.dispatch();
+    }
+
+    private void dispatch() {
+        while(running < limit) {
+            final SegmentThreadPool next = this.next();
+            if(null == next) {
+                break;
+            }
+            final FutureTask<?> task = next.queue().poll();
+            running++;
+            next.increment();
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Dispatch segment %s in %s with %d running", task, this, running));
+            }
+            executor.execute(() -> {
+                try {
+                    task.run();
+                }
+                finally {
+                    this.release(next);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return Next pool in round robin order with queued segments below its concurrency limit or null
+     */
+    private SegmentThreadPool next() {
+        for(int i = pools.size(); i > 0; i--) {
+            final SegmentThreadPool pool = pools.pollFirst();
+            if(pool.queue().isEmpty()) {
+                // Added again when submitting
+                continue;
+            }
+            pools.addLast(pool);
+            if(pool.isAvailable()) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SharedSegmentExecutor{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", limit=").append(limit);
+        sb.append('}');
+        return sb.toString();
+    }
+}
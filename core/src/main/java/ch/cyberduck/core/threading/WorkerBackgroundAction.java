@@ -21,6 +21,7 @@ import ch.cyberduck.core.Controller;
 import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.cache.PathLookupCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.pool.SessionPool;
@@ -80,6 +81,10 @@ public class WorkerBackgroundAction<T> extends RegistryBackgroundAction<T> {
             worker.cancel();
             throw e;
         }
+        finally {
+            // Discard lookups for files possibly modified by worker
+            PathLookupCache.get(session.getHost()).clear();
+        }
         return result;
     }
 
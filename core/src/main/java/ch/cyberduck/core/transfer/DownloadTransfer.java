@@ -38,6 +38,7 @@ import ch.cyberduck.core.filter.DownloadDuplicateFilter;
 import ch.cyberduck.core.filter.DownloadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DelegateStreamListener;
+import ch.cyberduck.core.io.SharedBandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.LocalSymlinkFactory;
@@ -52,6 +53,7 @@ import ch.cyberduck.core.transfer.download.OverwriteFilter;
 import ch.cyberduck.core.transfer.download.RenameExistingFilter;
 import ch.cyberduck.core.transfer.download.RenameFilter;
 import ch.cyberduck.core.transfer.download.ResumeFilter;
+import ch.cyberduck.core.transfer.download.SegmentSizeEstimator;
 import ch.cyberduck.core.transfer.download.SkipFilter;
 import ch.cyberduck.core.transfer.download.TrashFilter;
 import ch.cyberduck.core.transfer.normalizer.DownloadRootPathsNormalizer;
@@ -99,7 +101,8 @@ public class DownloadTransfer extends Transfer {
     }
 
     public DownloadTransfer(final Host host, final List<TransferItem> roots, final Filter<Path> f, final Comparator<Path> comparator) {
-        super(host, roots, new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.download.bandwidth.bytes")));
+        super(host, roots, new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.download.bandwidth.bytes"),
+            SharedBandwidthThrottle.download(host)));
         this.filter = f;
         this.comparator = comparator;
         this.symlinkResolver = new DownloadSymlinkResolver(roots);
@@ -284,8 +287,12 @@ public class DownloadTransfer extends Transfer {
                     super.recv(bytes);
                 }
             };
+            final long start = System.nanoTime();
             download.download(file, local, bandwidth, this.options.icon ?
                 new IconUpdateSreamListener(recvListener, status, local) : recvListener, status, connectionCallback);
+            if(status.isSegment()) {
+                SegmentSizeEstimator.get(source.getHost()).record(status.getLength(), System.nanoTime() - start);
+            }
         }
         else if(file.isDirectory()) {
             if(!status.isExists()) {
@@ -20,6 +20,7 @@ package ch.cyberduck.core.transfer;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ChangeSet;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
@@ -28,7 +29,10 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.cache.ChangeCursorCache;
+import ch.cyberduck.core.cache.PersistentListCache;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChangeFeed;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
@@ -73,6 +77,19 @@ public class SyncTransfer extends Transfer {
     private Cache<Path> cache
         = new PathCache(PreferencesFactory.get().getInteger("transfer.cache.size"));
 
+    /**
+     * Changes below root since previous synchronization. Null if not supported or not yet retrieved.
+     */
+    private ChangeSet changes;
+    /**
+     * Cursor saved after previous synchronization
+     */
+    private String cursor;
+    /**
+     * Change feed of server queried for current run
+     */
+    private boolean tracked;
+
     private final Map<TransferItem, Comparison> comparisons = Collections.synchronizedMap(new LRUMap<TransferItem, Comparison>(
         PreferencesFactory.get().getInteger("transfer.cache.size")));
 
@@ -170,6 +187,30 @@ public class SyncTransfer extends Transfer {
     public void pre(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         final Map<TransferItem, TransferStatus> downloads = new HashMap<>();
         final Map<TransferItem, TransferStatus> uploads = new HashMap<>();
+        this.split(files, downloads, uploads);
+        download.pre(source, destination, downloads, callback);
+        upload.pre(source, destination, uploads, callback);
+    }
+
+    @Override
+    public void post(final Session<?> source, final Session<?> destination, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
+        final Map<TransferItem, TransferStatus> downloads = new HashMap<>();
+        final Map<TransferItem, TransferStatus> uploads = new HashMap<>();
+        this.split(files, downloads, uploads);
+        download.post(source, destination, downloads, callback);
+        upload.post(source, destination, uploads, callback);
+        final ChangeSet changes = this.getChanges();
+        if(changes != null) {
+            // Subsequent synchronization only lists directories with changes
+            ChangeCursorCache.get(source.getHost()).put(item.remote, changes.getCursor());
+        }
+    }
+
+    /**
+     * Sort files by direction of transfer
+     */
+    private void split(final Map<TransferItem, TransferStatus> files,
+                       final Map<TransferItem, TransferStatus> downloads, final Map<TransferItem, TransferStatus> uploads) throws BackgroundException {
         for(Map.Entry<TransferItem, TransferStatus> entry : files.entrySet()) {
             switch(comparison.compare(entry.getKey().remote, entry.getKey().local)) {
                 case remote:
@@ -180,8 +221,6 @@ public class SyncTransfer extends Transfer {
                     break;
             }
         }
-        download.pre(source, destination, downloads, callback);
-        upload.pre(source, destination, uploads, callback);
     }
 
     @Override
@@ -193,7 +232,14 @@ public class SyncTransfer extends Transfer {
         final Set<TransferItem> children = new HashSet<TransferItem>();
         final Find finder = session.getFeature(Find.class, new DefaultFindFeature(session)).withCache(cache);
         if(finder.find(directory)) {
+            final ChangeSet changes = this.track(session);
+            if(changes != null) {
+                this.restore(session, directory, changes);
+            }
             children.addAll(download.list(session, directory, local, listener));
+            if(changes != null && cache.isCached(directory)) {
+                PersistentListCache.get(session.getHost()).put(directory, changes.getCursor(), cache.get(directory));
+            }
         }
         if(local.exists()) {
             children.addAll(upload.list(session, directory, local, listener));
@@ -201,6 +247,75 @@ public class SyncTransfer extends Transfer {
         return new ArrayList<TransferItem>(children);
     }
 
+    /**
+     * Retrieve changes since previous synchronization once for each run
+     *
+     * @return Null if server has no change feed
+     */
+    private synchronized ChangeSet track(final Session<?> session) {
+        if(tracked) {
+            return changes;
+        }
+        tracked = true;
+        if(!PreferencesFactory.get().getBoolean("queue.sync.changes.enable")) {
+            return null;
+        }
+        if(!item.remote.isDirectory()) {
+            return null;
+        }
+        final ChangeFeed feature = session.getFeature(ChangeFeed.class);
+        if(null == feature) {
+            return null;
+        }
+        try {
+            cursor = ChangeCursorCache.get(session.getHost()).get(item.remote);
+            if(null == cursor) {
+                // Initial synchronization lists all directories
+                changes = new ChangeSet(feature.cursor(item.remote)).withComplete(false);
+            }
+            else {
+                changes = feature.changes(item.remote, cursor);
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Retrieved changes %s for %s", changes, item.remote));
+            }
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure retrieving changes for %s. %s", item.remote, e));
+        }
+        return changes;
+    }
+
+    private synchronized ChangeSet getChanges() {
+        return changes;
+    }
+
+    /**
+     * Use listing saved in previous synchronization for directory without changes
+     */
+    private void restore(final Session<?> session, final Path directory, final ChangeSet changes) {
+        if(cache.isCached(directory)) {
+            return;
+        }
+        if(!changes.isComplete()) {
+            return;
+        }
+        final AttributedList<Path> list = PersistentListCache.get(session.getHost()).get(directory, cursor);
+        if(null == list) {
+            return;
+        }
+        if(changes.isModified(directory, list)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip saved listing for %s with changes", directory));
+            }
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Use saved listing for %s without changes", directory));
+        }
+        cache.put(directory, list);
+    }
+
     @Override
     public TransferAction action(final Session<?> source, final Session<?> destination, final boolean resumeRequested, final boolean reloadRequested,
                                  final TransferPrompt prompt, final ListProgressListener listener) {
@@ -249,6 +364,11 @@ public class SyncTransfer extends Transfer {
     public void start() {
         download.start();
         upload.start();
+        synchronized(this) {
+            tracked = false;
+            changes = null;
+            cursor = null;
+        }
         super.start();
     }
 
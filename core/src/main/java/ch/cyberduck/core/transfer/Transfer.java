@@ -309,6 +309,19 @@ public abstract class Transfer implements Serializable {
      */
     public abstract List<TransferItem> list(Session<?> session, Path directory, Local local, ListProgressListener listener) throws BackgroundException;
 
+    /**
+     * Populate cache with the contents of the directory prior preparing its children to allow filters to determine
+     * the status of all children from a single listing instead of querying the attributes of each file.
+     *
+     * @param session   Connection to server with target directory
+     * @param directory Directory to list the contents
+     * @param status    Transfer status of directory
+     * @param listener  Listener
+     */
+    public void prefetch(final Session<?> session, final Path directory, final TransferStatus status, final ListProgressListener listener) throws BackgroundException {
+        //
+    }
+
     /**
      * @param source      Connection to source server of transfer. May be null.
      * @param destination Connection to target server of transfer
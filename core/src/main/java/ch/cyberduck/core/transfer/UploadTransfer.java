@@ -17,11 +17,13 @@ package ch.cyberduck.core.transfer;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.NullFilter;
@@ -30,6 +32,7 @@ import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Symlink;
@@ -38,7 +41,9 @@ import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.filter.UploadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DelegateStreamListener;
+import ch.cyberduck.core.io.SharedBandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.local.LocalSnapshot;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.normalizer.UploadRootPathsNormalizer;
 import ch.cyberduck.core.transfer.symlink.UploadSymlinkResolver;
@@ -61,6 +66,7 @@ import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class UploadTransfer extends Transfer {
     private static final Logger log = Logger.getLogger(UploadTransfer.class);
@@ -74,6 +80,15 @@ public class UploadTransfer extends Transfer {
 
     private UploadFilterOptions options = new UploadFilterOptions();
 
+    /**
+     * Attributes of local files from previous transfer. Null if not used for selected action.
+     */
+    private LocalSnapshot snapshot;
+    /**
+     * Local folders of directories to prefetch
+     */
+    private final Map<Path, Local> directories = new ConcurrentHashMap<>();
+
     public UploadTransfer(final Host host, final Path root, final Local local) {
         this(host, Collections.singletonList(new TransferItem(root, local)),
                 PreferencesFactory.get().getBoolean("queue.upload.skip.enable") ? new UploadRegexFilter() : new NullFilter<Local>());
@@ -93,7 +108,8 @@ public class UploadTransfer extends Transfer {
     }
 
     public UploadTransfer(final Host host, final List<TransferItem> roots, final Filter<Local> f, final Comparator<Local> comparator) {
-        super(host, roots, new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes")));
+        super(host, roots, new BandwidthThrottle(PreferencesFactory.get().getFloat("queue.upload.bandwidth.bytes"),
+            SharedBandwidthThrottle.upload(host)));
         this.filter = f;
         this.comparator = comparator;
     }
@@ -132,13 +148,56 @@ public class UploadTransfer extends Transfer {
             }
         }
         final List<TransferItem> children = new ArrayList<TransferItem>();
-        for(Local local : directory.list().filter(comparator, filter)) {
-            children.add(new TransferItem(new Path(remote, local.getName(),
-                    local.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file)), local));
+        final LocalSnapshot snapshot = this.getSnapshot();
+        for(Local local : directory.list(comparator, filter)) {
+            final boolean folder = local.isDirectory();
+            final TransferItem item = new TransferItem(new Path(remote, local.getName(),
+                    folder ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file)), local);
+            if(snapshot != null && folder) {
+                directories.put(item.remote, local);
+            }
+            children.add(item);
         }
         return children;
     }
 
+    @Override
+    public void prefetch(final Session<?> session, final Path directory, final TransferStatus status, final ListProgressListener listener) throws BackgroundException {
+        if(cache.isValid(directory)) {
+            return;
+        }
+        if(status.isExists()) {
+            final LocalSnapshot snapshot = this.getSnapshot();
+            if(snapshot != null) {
+                Local local = directories.remove(directory);
+                for(TransferItem root : roots) {
+                    if(root.remote.equals(directory)) {
+                        local = root.local;
+                    }
+                }
+                if(local != null && snapshot.isUnchanged(local)) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Skip prefetch of %s unchanged since previous transfer", directory));
+                    }
+                    return;
+                }
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Prefetch contents of %s", directory));
+            }
+            try {
+                cache.put(directory, session.getFeature(ListService.class).list(directory, listener));
+            }
+            catch(NotfoundException e) {
+                cache.put(directory, new AttributedList<>());
+            }
+        }
+        else {
+            // Directory will be created with no children
+            cache.put(directory, new AttributedList<>());
+        }
+    }
+
     @Override
     public AbstractUploadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
         if(log.isDebugEnabled()) {
@@ -159,10 +218,10 @@ public class UploadTransfer extends Transfer {
             return new RenameExistingFilter(resolver, source, options).withCache(cache);
         }
         if(action.equals(TransferAction.skip)) {
-            return new SkipFilter(resolver, source, options).withCache(cache);
+            return new SkipFilter(resolver, source, options).withCache(cache).withSnapshot(this.getSnapshot(source));
         }
         if(action.equals(TransferAction.comparison)) {
-            return new CompareFilter(resolver, source, options, listener).withCache(cache);
+            return new CompareFilter(resolver, source, options, listener).withCache(cache).withSnapshot(this.getSnapshot(source));
         }
         return new OverwriteFilter(resolver, source, options).withCache(cache);
     }
@@ -224,6 +283,41 @@ public class UploadTransfer extends Transfer {
         final Bulk<?> feature = source.getFeature(Bulk.class);
         feature.post(Type.upload, files, callback);
         super.post(source, destination, files, callback);
+        final LocalSnapshot snapshot = this.getSnapshot();
+        if(snapshot != null) {
+            // Only files committed after successful transfer
+            snapshot.save();
+        }
+    }
+
+    /**
+     * @param session Connection
+     * @return Snapshot of previous transfer or empty snapshot if disabled
+     */
+    private synchronized LocalSnapshot getSnapshot(final Session<?> session) {
+        if(!PreferencesFactory.get().getBoolean("queue.upload.snapshot.enable")) {
+            return LocalSnapshot.empty();
+        }
+        if(null == snapshot) {
+            snapshot = LocalSnapshot.get(session.getHost(), roots);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return Null if no snapshot is used for this run
+     */
+    private synchronized LocalSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void start() {
+        synchronized(this) {
+            snapshot = null;
+            directories.clear();
+        }
+        super.start();
     }
 
     @Override
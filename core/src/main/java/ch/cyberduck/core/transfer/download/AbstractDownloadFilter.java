@@ -48,6 +48,7 @@ import ch.cyberduck.core.local.QuarantineService;
 import ch.cyberduck.core.local.QuarantineServiceFactory;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.CachingAttributesFinderFeature;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPathFilter;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -84,7 +85,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         this.symlinkResolver = symlinkResolver;
         this.session = session;
         this.options = options;
-        this.attribute = session.getFeature(AttributesFinder.class);
+        this.attribute = new CachingAttributesFinderFeature(session, session.getFeature(AttributesFinder.class));
     }
 
     @Override
@@ -212,10 +213,8 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                             }
                             long remaining = status.getLength();
                             long offset = 0;
-                            // Part size from default setting of size divided by maximum number of connections
-                            long partsize = Math.max(
-                                preferences.getLong("queue.download.segments.size"),
-                                status.getLength() / preferences.getInteger("queue.connections.limit"));
+                            // Part size adapted to number of connections and throughput measured for host
+                            final long partsize = SegmentSizeEstimator.get(session.getHost()).getSize(status.getLength());
                             // Sorted list
                             final List<TransferStatus> segments = new ArrayList<TransferStatus>();
                             final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
@@ -0,0 +1,121 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size of segments for ranged downloads adapted to the throughput measured for previous segments from the same host.
+ * Files are split into enough segments to keep all connections busy. Segments are widened to amortize the latency
+ * of the request when the throughput of a single range is high.
+ */
+public final class SegmentSizeEstimator {
+    private static final Logger log = Logger.getLogger(SegmentSizeEstimator.class);
+
+    private static final Map<String, SegmentSizeEstimator> estimators = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Estimator shared by all downloads from the same host
+     */
+    public static SegmentSizeEstimator get(final Host host) {
+        return estimators.computeIfAbsent(new HostUrlProvider(false).get(host), key -> {
+            final Preferences preferences = PreferencesFactory.get();
+            return new SegmentSizeEstimator(
+                preferences.getLong("queue.download.segments.size"),
+                preferences.getLong("queue.download.segments.size.max"),
+                preferences.getLong("queue.download.segments.duration.seconds"),
+                preferences.getInteger("queue.connections.limit"));
+        });
+    }
+
+    private final long minimum;
+    private final long maximum;
+    /**
+     * Targeted duration of transfer for a single segment in seconds
+     */
+    private final long duration;
+    private final int connections;
+
+    /**
+     * Moving average of bytes per second for a single segment. Zero if unknown.
+     */
+    private final AtomicLong throughput = new AtomicLong();
+
+    public SegmentSizeEstimator(final long minimum, final long maximum, final long duration, final int connections) {
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.duration = duration;
+        this.connections = Math.max(1, connections);
+    }
+
+    /**
+     * @param length Size of file
+     * @return Segment size within configured bounds
+     */
+    public long getSize(final long length) {
+        // Twice the number of connections to balance slower ranges
+        long size = length / (connections * 2L);
+        final long rate = throughput.get();
+        if(rate > 0) {
+            // Widen to transfer for the targeted duration but keep all connections busy
+            size = Math.max(size, Math.min(rate * duration, length / connections));
+        }
+        size = Math.max(minimum, Math.min(maximum, size));
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Use segment size %d for length %d with throughput %d", size, length, rate));
+        }
+        return size;
+    }
+
+    /**
+     * Record throughput of completed segment
+     *
+     * @param bytes Number of bytes transferred
+     * @param nanos Elapsed time
+     */
+    public void record(final long bytes, final long nanos) {
+        if(bytes <= 0L || nanos <= 0L) {
+            return;
+        }
+        final long rate = (long) (bytes / ((double) nanos / TimeUnit.SECONDS.toNanos(1)));
+        throughput.accumulateAndGet(rate, (previous, sample) -> 0L == previous ? sample : (previous * 3 + sample) / 4);
+    }
+
+    public long getThroughput() {
+        return throughput.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentSizeEstimator{");
+        sb.append("minimum=").append(minimum);
+        sb.append(", maximum=").append(maximum);
+        sb.append(", throughput=").append(throughput);
+        sb.append('}');
+        return sb.toString();
+    }
+}
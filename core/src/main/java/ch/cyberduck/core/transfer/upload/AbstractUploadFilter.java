@@ -36,8 +36,11 @@ import ch.cyberduck.core.features.Timestamp;
 import ch.cyberduck.core.features.UnixPermission;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.ChecksumCompute;
+import ch.cyberduck.core.local.LocalSnapshot;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.CachingAttributesFinderFeature;
+import ch.cyberduck.core.shared.CachingFindFeature;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferOptions;
@@ -65,14 +68,15 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
     protected AttributesFinder attribute;
     protected Cache<Path> cache = PathCache.empty();
     protected UploadFilterOptions options;
+    protected LocalSnapshot snapshot = LocalSnapshot.empty();
 
     public AbstractUploadFilter(final SymlinkResolver<Local> symlinkResolver, final Session<?> session,
                                 final UploadFilterOptions options) {
         this.symlinkResolver = symlinkResolver;
         this.session = session;
         this.options = options;
-        this.find = session.getFeature(Find.class, new DefaultFindFeature(session));
-        this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
+        this.find = new CachingFindFeature(session, session.getFeature(Find.class, new DefaultFindFeature(session)));
+        this.attribute = new CachingAttributesFinderFeature(session, session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session)));
     }
 
     @Override
@@ -96,6 +100,11 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         return this;
     }
 
+    public AbstractUploadFilter withSnapshot(final LocalSnapshot snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(!local.exists()) {
@@ -112,7 +121,13 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
             .withLockId(parent.getLockId());
         // Read remote attributes first
         if(parent.isExists()) {
-            if(find.withCache(cache).find(file)) {
+            if(file.isDirectory() && snapshot.isUnchanged(local)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Skip lookup of directory %s unchanged since previous transfer", file));
+                }
+                status.setExists(true);
+            }
+            else if(find.withCache(cache).find(file)) {
                 status.setExists(true);
                 // Read remote attributes
                 final PathAttributes attributes = attribute.withCache(cache).find(file);
@@ -350,6 +365,7 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
                     move.move(file, status.getDisplayname().remote, status, new Delete.DisabledCallback(), new DisabledConnectionCallback());
                 }
             }
+            snapshot.commit(local);
         }
     }
 }
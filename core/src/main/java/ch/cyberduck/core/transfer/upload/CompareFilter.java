@@ -64,6 +64,16 @@ public class CompareFilter extends AbstractUploadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(super.accept(file, local, parent)) {
+            if(snapshot.isUnchanged(local)) {
+                if(file.isDirectory()) {
+                    return true;
+                }
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Skip file %s unchanged since previous transfer", file));
+                }
+                snapshot.commit(local);
+                return false;
+            }
             final Comparison comparison = comparisonService.compare(file, local);
             switch(comparison) {
                 case local:
@@ -75,6 +85,8 @@ public class CompareFilter extends AbstractUploadFilter {
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Skip file %s with comparison %s", file, comparison));
                     }
+                    // Skip comparison in next run when unchanged
+                    snapshot.commit(local);
                     return false;
                 case remote:
                     if(log.isInfoEnabled()) {
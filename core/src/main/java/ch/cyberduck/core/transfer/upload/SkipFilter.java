@@ -45,10 +45,18 @@ public class SkipFilter extends AbstractUploadFilter {
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(parent.isExists()) {
             if(local.isFile()) {
+                if(snapshot.isUnchanged(local)) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip file %s unchanged since previous transfer", file));
+                    }
+                    snapshot.commit(local);
+                    return false;
+                }
                 if(find.withCache(cache).find(file)) {
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Skip file %s", file));
                     }
+                    snapshot.commit(local);
                     return false;
                 }
             }
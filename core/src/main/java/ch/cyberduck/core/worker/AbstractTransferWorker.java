@@ -31,6 +31,7 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SleepPreventer;
 import ch.cyberduck.core.SleepPreventerFactory;
 import ch.cyberduck.core.TransferItemCache;
+import ch.cyberduck.core.cache.PathLookupCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.TransferCanceledException;
@@ -156,6 +157,18 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
      */
     protected abstract void release(Session session, Connection type, BackgroundException failure);
 
+    /**
+     * Discard lookups for file modified by transfer
+     */
+    private void invalidate(final Session<?> source, final Session<?> destination, final Path file) {
+        if(source != null) {
+            PathLookupCache.get(source.getHost()).invalidate(file);
+        }
+        if(destination != null) {
+            PathLookupCache.get(destination.getHost()).invalidate(file);
+        }
+    }
+
     @Override
     public Boolean initialize() {
         return false;
@@ -289,6 +302,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             );
                             // Apply filter
                             filter.apply(item.remote, item.local, status, progress);
+                            invalidate(source, destination, file);
+                            invalidate(source, destination, item.remote);
                             // Add transfer length to total bytes
                             transfer.addSize(status.getLength() + status.getOffset());
                             // Add skipped bytes
@@ -296,6 +311,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             // Recursive
                             if(file.isDirectory()) {
                                 final List<TransferItem> children;
+                                // Fetch attributes of all children with single listing
+                                transfer.prefetch(source, item.remote, status, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
                                 // Call recursively for all children
                                 children = transfer.list(source, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
                                 // Put into cache for later reference when transferring
@@ -396,6 +413,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 segment.getRename().remote != null ? segment.getRename().remote : item.remote,
                                 segment.getRename().local != null ? segment.getRename().local : item.local,
                                 options, segment, progress);
+                            invalidate(source, destination, item.remote);
                         }
                         finally {
                             release(source, Connection.source, null);
@@ -415,8 +433,11 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 segment.getRename().remote != null ? segment.getRename().remote : item.remote,
                                 segment.getRename().local != null ? segment.getRename().local : item.local,
                                 options, segment, connect, progress, stream);
+                            invalidate(s, d, item.remote);
                         }
                         catch(BackgroundException e) {
+                            // Discard lookups before determining status for retry
+                            invalidate(s, d, item.remote);
                             release(s, Connection.source, e);
                             release(d, Connection.destination, e);
                             log.warn(String.format("Failure transferring %s. %s", item, e));
@@ -497,6 +518,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                     status.getRename().remote != null ? status.getRename().remote : item.remote,
                                     status.getRename().local != null ? status.getRename().local : item.local,
                                     options, status.complete(), progress);
+                                invalidate(source, destination, item.remote);
                             }
                             finally {
                                 release(source, Connection.source, null);
@@ -58,6 +58,21 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     private final AtomicInteger size = new AtomicInteger();
     private final ThreadPool pool;
 
+    /**
+     * Cancel borrowing and opening connections with transfer
+     */
+    private final BackgroundActionState state = new BackgroundActionState() {
+        @Override
+        public boolean isCanceled() {
+            return ConcurrentTransferWorker.this.isCanceled();
+        }
+
+        @Override
+        public boolean isRunning() {
+            return true;
+        }
+    };
+
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
                                     final Transfer transfer,
@@ -88,38 +103,22 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connect, notification);
         this.source = source;
         this.destination = destination;
+        final int connections = transfer.getTransferType() == Host.TransferType.newconnection ? 1 : PreferencesFactory.get().getInteger("queue.connections.limit");
         this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
-            transfer.getTransferType() == Host.TransferType.newconnection ? 1 : PreferencesFactory.get().getInteger("queue.connections.limit"), priority);
+            connections, priority);
         this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        // Connect sessions for queued transfer
+        source.warmup(connections, state);
+        destination.warmup(connections, state);
     }
 
     @Override
     protected Session<?> borrow(final Connection type) throws BackgroundException {
         switch(type) {
             case source:
-                return source.borrow(new BackgroundActionState() {
-                    @Override
-                    public boolean isCanceled() {
-                        return ConcurrentTransferWorker.this.isCanceled();
-                    }
-
-                    @Override
-                    public boolean isRunning() {
-                        return true;
-                    }
-                });
+                return source.borrow(state);
             case destination:
-                return destination.borrow(new BackgroundActionState() {
-                    @Override
-                    public boolean isCanceled() {
-                        return ConcurrentTransferWorker.this.isCanceled();
-                    }
-
-                    @Override
-                    public boolean isRunning() {
-                        return true;
-                    }
-                });
+                return destination.borrow(state);
         }
         return null;
     }
@@ -24,9 +24,12 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
+import ch.cyberduck.core.cache.PersistentListCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ListCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.PersistentListService;
 
 import org.apache.log4j.Logger;
 
@@ -54,7 +57,7 @@ public class SessionListWorker extends Worker<AttributedList<Path>> {
                 listener.chunk(directory, list);
                 return list;
             }
-            final ListService service = session.getFeature(ListService.class).withCache(cache);
+            final ListService service = this.getFeature(session).withCache(cache);
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Run with feature %s", service));
             }
@@ -65,6 +68,19 @@ public class SessionListWorker extends Worker<AttributedList<Path>> {
         }
     }
 
+    private ListService getFeature(final Session<?> session) {
+        final ListService feature = session.getFeature(ListService.class);
+        if(PreferencesFactory.get().getBoolean("browser.cache.persistent")) {
+            if(cache.isCached(directory)) {
+                // Reload of invalidated listing
+                PersistentListCache.get(session.getHost()).remove(directory);
+                return feature;
+            }
+            return new PersistentListService(session, feature);
+        }
+        return feature;
+    }
+
     protected boolean isCached() {
         return cache.isValid(directory);
     }
@@ -0,0 +1,60 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class ChangeSetTest {
+
+    @Test
+    public void testIncomplete() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        assertTrue(new ChangeSet("c").withComplete(false).isModified(directory, AttributedList.emptyList()));
+        assertFalse(new ChangeSet("c").isModified(directory, AttributedList.emptyList()));
+    }
+
+    @Test
+    public void testModifiedChild() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final ChangeSet changes = new ChangeSet("c").withFile(new Path("/d/s/f", EnumSet.of(Path.Type.file)));
+        assertFalse(changes.isModified(directory, AttributedList.emptyList()));
+        assertTrue(changes.isModified(new Path(directory, "s", EnumSet.of(Path.Type.directory)), AttributedList.emptyList()));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        final Path directory = new Path("/d/S", EnumSet.of(Path.Type.directory));
+        final Path file = new Path("/D/s/f", EnumSet.of(Path.Type.file));
+        assertFalse(new ChangeSet("c").withFile(file).isModified(directory, AttributedList.emptyList()));
+        assertTrue(new ChangeSet("c").withCaseSensitivity(Protocol.Case.insensitive).withFile(file).isModified(directory, AttributedList.emptyList()));
+    }
+
+    @Test
+    public void testMovedChild() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<>(Collections.singletonList(
+            new Path(directory, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("1"))));
+        // Moved to location outside of directory
+        assertTrue(new ChangeSet("c").withId("1").isModified(directory, list));
+        assertFalse(new ChangeSet("c").withId("2").isModified(directory, list));
+        assertFalse(new ChangeSet("c").withId(null).isModified(directory, list));
+    }
+}
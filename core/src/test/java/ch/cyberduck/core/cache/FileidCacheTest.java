@@ -0,0 +1,100 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class FileidCacheTest {
+
+    @Test
+    public void testPersist() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final Path directory = new Path("/a/b", EnumSet.of(Path.Type.directory));
+        {
+            final FileidCache cache = new FileidCache(file, Long.MAX_VALUE);
+            assertNull(cache.get(directory));
+            cache.put(directory, "1");
+            assertEquals("1", cache.get(directory));
+            cache.put(new Path("/a/f", EnumSet.of(Path.Type.file)), "2");
+            assertNull(cache.get(new Path("/a/f", EnumSet.of(Path.Type.file))));
+        }
+        assertEquals("1", new FileidCache(file, Long.MAX_VALUE).get(directory));
+        assertNull(new FileidCache(file, -1L).get(directory));
+        file.delete();
+    }
+
+    @Test
+    public void testPutList() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final FileidCache cache = new FileidCache(file, Long.MAX_VALUE);
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setVersionId("1");
+        final PathAttributes trashed = new PathAttributes();
+        trashed.setVersionId("2");
+        trashed.setDuplicate(true);
+        cache.put(new AttributedList<>(Arrays.asList(
+            new Path("/a/d", EnumSet.of(Path.Type.directory), attributes),
+            new Path("/a/t", EnumSet.of(Path.Type.directory), trashed),
+            new Path("/a/f", EnumSet.of(Path.Type.file), attributes))));
+        assertEquals("1", cache.get(new Path("/a/d", EnumSet.of(Path.Type.directory))));
+        assertNull(cache.get(new Path("/a/t", EnumSet.of(Path.Type.directory))));
+        assertEquals("1", new FileidCache(file, Long.MAX_VALUE).get(new Path("/a/d", EnumSet.of(Path.Type.directory))));
+        file.delete();
+    }
+
+    @Test
+    public void testRemoveDescendants() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final FileidCache cache = new FileidCache(file, Long.MAX_VALUE);
+        cache.put(new Path("/a", EnumSet.of(Path.Type.directory)), "1");
+        cache.put(new Path("/a/b", EnumSet.of(Path.Type.directory)), "2");
+        cache.put(new Path("/ab", EnumSet.of(Path.Type.directory)), "3");
+        cache.remove(new Path("/a", EnumSet.of(Path.Type.directory)));
+        assertNull(cache.get(new Path("/a", EnumSet.of(Path.Type.directory))));
+        assertNull(cache.get(new Path("/a/b", EnumSet.of(Path.Type.directory))));
+        assertEquals("3", cache.get(new Path("/ab", EnumSet.of(Path.Type.directory))));
+        final FileidCache reloaded = new FileidCache(file, Long.MAX_VALUE);
+        assertNull(reloaded.get(new Path("/a/b", EnumSet.of(Path.Type.directory))));
+        assertEquals("3", reloaded.get(new Path("/ab", EnumSet.of(Path.Type.directory))));
+        file.delete();
+    }
+
+    @Test
+    public void testRemoveMultiple() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final FileidCache cache = new FileidCache(file, Long.MAX_VALUE);
+        cache.put(new Path("/a/b", EnumSet.of(Path.Type.directory)), "1");
+        cache.put(new Path("/c/d", EnumSet.of(Path.Type.directory)), "2");
+        cache.put(new Path("/e", EnumSet.of(Path.Type.directory)), "3");
+        cache.remove(Arrays.asList(new Path("/a", EnumSet.of(Path.Type.directory)), new Path("/c/d", EnumSet.of(Path.Type.directory))));
+        assertNull(cache.get(new Path("/a/b", EnumSet.of(Path.Type.directory))));
+        assertNull(cache.get(new Path("/c/d", EnumSet.of(Path.Type.directory))));
+        assertEquals("3", cache.get(new Path("/e", EnumSet.of(Path.Type.directory))));
+        cache.remove(new Path("/", EnumSet.of(Path.Type.directory)));
+        assertNull(cache.get(new Path("/e", EnumSet.of(Path.Type.directory))));
+        file.delete();
+    }
+}
@@ -0,0 +1,193 @@
+package ch.cyberduck.core.cache;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Find;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PathLookupCacheTest {
+
+    @Test
+    public void testNegativeCache() throws Exception {
+        final PathLookupCache cache = new PathLookupCache(Long.MAX_VALUE, 10L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final Find find = f -> {
+            count.incrementAndGet();
+            return false;
+        };
+        assertFalse(cache.find(file, find));
+        assertFalse(cache.find(file, find));
+        assertEquals(1, count.get());
+        try {
+            cache.attributes(file, f -> {
+                throw new IllegalStateException();
+            });
+            fail();
+        }
+        catch(NotfoundException e) {
+            //
+        }
+        cache.invalidate(file);
+        assertFalse(cache.find(file, find));
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testAttributes() throws Exception {
+        final PathLookupCache cache = new PathLookupCache(Long.MAX_VALUE, 10L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final AttributesFinder finder = f -> {
+            count.incrementAndGet();
+            return new PathAttributes().withVersionId("1");
+        };
+        final PathAttributes attributes = cache.attributes(file, finder);
+        assertEquals("1", attributes.getVersionId());
+        attributes.setVersionId("2");
+        assertEquals("1", cache.attributes(file, finder).getVersionId());
+        assertTrue(cache.find(file, f -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, count.get());
+        cache.clear();
+        cache.attributes(file, finder);
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testVersions() throws Exception {
+        final PathLookupCache cache = new PathLookupCache(Long.MAX_VALUE, 10L);
+        final Path latest = new Path("/f", EnumSet.of(Path.Type.file));
+        final Path version = new Path("/f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("1"));
+        final AtomicInteger count = new AtomicInteger();
+        final Find find = f -> {
+            count.incrementAndGet();
+            return f.attributes().getVersionId() != null;
+        };
+        assertFalse(cache.find(latest, find));
+        assertTrue(cache.find(version, find));
+        assertFalse(cache.find(latest, find));
+        assertTrue(cache.find(version, find));
+        assertEquals(2, count.get());
+        cache.invalidate(latest);
+        assertTrue(cache.find(version, find));
+        assertEquals(3, count.get());
+    }
+
+    @Test
+    public void testInvalidateInProgress() throws Exception {
+        final PathLookupCache cache = new PathLookupCache(Long.MAX_VALUE, 10L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final Path other = new Path("/o", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Find blocking = f -> {
+            count.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch(InterruptedException e) {
+                fail();
+            }
+            return true;
+        };
+        final Find find = f -> count.incrementAndGet() > 0;
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Boolean> first = executor.submit(() -> cache.find(file, blocking));
+            final Future<Boolean> second = executor.submit(() -> cache.find(other, blocking));
+            assertTrue(started.await(10L, TimeUnit.SECONDS));
+            // Modified while lookup is in progress
+            cache.invalidate(file);
+            release.countDown();
+            assertTrue(first.get());
+            assertTrue(second.get());
+            assertEquals(2, count.get());
+            // Result of lookup started before invalidation discarded
+            assertTrue(cache.find(file, find));
+            assertEquals(3, count.get());
+            // Unaffected by invalidation of other path
+            assertTrue(cache.find(other, find));
+            assertEquals(3, count.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        final PathLookupCache cache = new PathLookupCache(0L, 10L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final Find find = f -> count.incrementAndGet() > 0;
+        assertTrue(cache.find(file, find));
+        assertTrue(cache.find(file, find));
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        final PathLookupCache cache = new PathLookupCache(Long.MAX_VALUE, 10L);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Find find = f -> {
+            count.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch(InterruptedException e) {
+                fail();
+            }
+            return true;
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Boolean> first = executor.submit(() -> cache.find(file, find));
+            assertTrue(started.await(10L, TimeUnit.SECONDS));
+            final Future<Boolean> second = executor.submit(() -> cache.find(file, find));
+            Thread.sleep(100L);
+            release.countDown();
+            assertTrue(first.get());
+            assertTrue(second.get());
+            assertEquals(1, count.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
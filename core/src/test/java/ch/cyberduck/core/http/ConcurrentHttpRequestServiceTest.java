@@ -0,0 +1,127 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentHttpRequestServiceTest {
+
+    @Test
+    public void testSubmit() throws Exception {
+        final ConcurrentHttpRequestService service = new ConcurrentHttpRequestService(2, 4);
+        final AtomicInteger inflight = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for(int i = 0; i < 20; i++) {
+            final int value = i;
+            futures.add(service.submit(new BackgroundExceptionCallable<Integer>() {
+                @Override
+                public Integer call() {
+                    max.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+                    inflight.decrementAndGet();
+                    return value;
+                }
+            }));
+        }
+        for(int i = 0; i < 20; i++) {
+            assertEquals(i, service.await(futures.get(i)), 0);
+        }
+        assertTrue(max.get() <= 2);
+        service.shutdown();
+    }
+
+    @Test
+    public void testSubmitLimit() throws Exception {
+        final ConcurrentHttpRequestService service = new ConcurrentHttpRequestService(4, 8);
+        final Semaphore limit = new Semaphore(1);
+        final AtomicInteger inflight = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for(int i = 0; i < 20; i++) {
+            final int value = i;
+            futures.add(service.submit(new BackgroundExceptionCallable<Integer>() {
+                @Override
+                public Integer call() {
+                    max.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+                    inflight.decrementAndGet();
+                    return value;
+                }
+            }, limit));
+        }
+        for(int i = 0; i < 20; i++) {
+            assertEquals(i, service.await(futures.get(i)), 0);
+        }
+        assertEquals(1, max.get());
+        service.shutdown();
+    }
+
+    @Test(expected = NotfoundException.class)
+    public void testAwaitFailure() throws Exception {
+        final ConcurrentHttpRequestService service = new ConcurrentHttpRequestService(1, 1);
+        try {
+            service.await(service.submit(new BackgroundExceptionCallable<Void>() {
+                @Override
+                public Void call() throws BackgroundException {
+                    throw new NotfoundException("f");
+                }
+            }));
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+
+    @Test(expected = ConnectionCanceledException.class)
+    public void testShutdownCancelsPending() throws Exception {
+        final ConcurrentHttpRequestService service = new ConcurrentHttpRequestService(1, 2);
+        final CountDownLatch latch = new CountDownLatch(1);
+        service.submit(new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                try {
+                    latch.await();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                return null;
+            }
+        });
+        final Future<Void> pending = service.submit(new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        });
+        service.shutdown();
+        service.await(pending);
+    }
+}
@@ -0,0 +1,107 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.proxy.DisabledProxyFinder;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DisabledX509TrustManager;
+import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HttpConnectionPoolBuilderTest {
+
+    private static HttpConnectionPoolBuilder builder(final DisabledX509TrustManager trust, final DefaultX509KeyManager key) {
+        final Host host = new Host(new TestProtocol(), "h");
+        return new HttpConnectionPoolBuilder(host, new ThreadLocalHostnameDelegatingTrustManager(trust, host.getHostname()),
+            key, new DisabledProxyFinder());
+    }
+
+    @Test
+    public void testResize() {
+        PreferencesFactory.get().setProperty("http.connections.route", 5);
+        PreferencesFactory.get().setProperty("http.connections.total", 100);
+        PreferencesFactory.get().setProperty("http.connections.shared.route.limit", 12);
+        try {
+            final DisabledX509TrustManager trust = new DisabledX509TrustManager();
+            final DefaultX509KeyManager key = new DefaultX509KeyManager();
+            final HttpConnectionPoolBuilder.SharedConnectionManager manager = builder(trust, key).acquire();
+            assertEquals(5, manager.getPool().getDefaultMaxPerRoute());
+            assertSame(manager, builder(trust, key).acquire());
+            assertEquals(10, manager.getPool().getDefaultMaxPerRoute());
+            assertSame(manager, builder(trust, key).acquire());
+            // Bound by limit regardless of number of leases
+            assertEquals(12, manager.getPool().getDefaultMaxPerRoute());
+            assertSame(manager, builder(trust, key).acquire());
+            assertEquals(12, manager.getPool().getDefaultMaxPerRoute());
+            manager.release();
+            assertEquals(12, manager.getPool().getDefaultMaxPerRoute());
+            manager.release();
+            assertEquals(10, manager.getPool().getDefaultMaxPerRoute());
+            manager.release();
+            assertEquals(5, manager.getPool().getDefaultMaxPerRoute());
+            manager.release();
+            // Shutdown with last lease released
+            final HttpConnectionPoolBuilder.SharedConnectionManager other = builder(trust, key).acquire();
+            assertNotSame(manager, other);
+            assertEquals(5, other.getPool().getDefaultMaxPerRoute());
+            other.release();
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("http.connections.route");
+            PreferencesFactory.get().deleteProperty("http.connections.total");
+            PreferencesFactory.get().deleteProperty("http.connections.shared.route.limit");
+        }
+    }
+
+    @Test
+    public void testLimitTotal() {
+        PreferencesFactory.get().setProperty("http.connections.route", 5);
+        PreferencesFactory.get().setProperty("http.connections.total", 8);
+        PreferencesFactory.get().setProperty("http.connections.shared.route.limit", 12);
+        try {
+            final DisabledX509TrustManager trust = new DisabledX509TrustManager();
+            final DefaultX509KeyManager key = new DefaultX509KeyManager();
+            final HttpConnectionPoolBuilder.SharedConnectionManager manager = builder(trust, key).acquire();
+            assertEquals(5, manager.getPool().getDefaultMaxPerRoute());
+            builder(trust, key).acquire();
+            // Bound by total connections in pool
+            assertEquals(8, manager.getPool().getDefaultMaxPerRoute());
+            manager.release();
+            manager.release();
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("http.connections.route");
+            PreferencesFactory.get().deleteProperty("http.connections.total");
+            PreferencesFactory.get().deleteProperty("http.connections.shared.route.limit");
+        }
+    }
+
+    @Test
+    public void testNotShared() {
+        final HttpConnectionPoolBuilder.SharedConnectionManager manager = builder(new DisabledX509TrustManager(), new DefaultX509KeyManager()).acquire();
+        // Different trust and key manager instances
+        final HttpConnectionPoolBuilder.SharedConnectionManager other = builder(new DisabledX509TrustManager(), new DefaultX509KeyManager()).acquire();
+        assertNotSame(manager, other);
+        manager.release();
+        other.release();
+    }
+}
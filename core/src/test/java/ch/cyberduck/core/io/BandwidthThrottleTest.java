@@ -0,0 +1,85 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class BandwidthThrottleTest {
+
+    @Test
+    public void testUnlimited() {
+        assertEquals(1024 * 1024, new BandwidthThrottle(BandwidthThrottle.UNLIMITED).request(1024 * 1024));
+    }
+
+    @Test
+    public void testRequestLimitedToWindow() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(10000f);
+        assertEquals(1000, throttle.request(5000));
+        assertEquals(100, throttle.request(100));
+        assertEquals(0, throttle.request(0));
+    }
+
+    @Test
+    public void testRate() {
+        final BandwidthThrottle throttle = new BandwidthThrottle(100000f);
+        final long start = System.currentTimeMillis();
+        int total = 0;
+        while(total < 50000) {
+            total += throttle.request(50000 - total);
+        }
+        // First window is not delayed
+        assertTrue(System.currentTimeMillis() - start >= 350L);
+    }
+
+    @Test
+    public void testSharedParent() throws Exception {
+        final BandwidthThrottle parent = new BandwidthThrottle(100000f);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final long start = System.currentTimeMillis();
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            final BandwidthThrottle throttle = new BandwidthThrottle(BandwidthThrottle.UNLIMITED, parent);
+            futures.add(executor.submit(() -> {
+                int total = 0;
+                while(total < 12500) {
+                    total += throttle.request(12500 - total);
+                }
+                return total;
+            }));
+        }
+        for(Future<Integer> f : futures) {
+            assertEquals(12500, f.get().intValue());
+        }
+        executor.shutdown();
+        // Total of all streams limited by parent
+        assertTrue(System.currentTimeMillis() - start >= 350L);
+    }
+
+    @Test
+    public void testParentLimitsRequest() {
+        final BandwidthThrottle parent = new BandwidthThrottle(10000f);
+        final BandwidthThrottle throttle = new BandwidthThrottle(100000f, parent);
+        assertEquals(1000, throttle.request(5000));
+        assertSame(parent, throttle.getParent());
+    }
+}
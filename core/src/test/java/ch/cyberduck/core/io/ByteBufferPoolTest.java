@@ -0,0 +1,60 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void testReuse() {
+        final ByteBufferPool pool = new ByteBufferPool(1024, 1, false);
+        final ByteBuffer first = pool.borrow();
+        assertEquals(1024, first.capacity());
+        assertFalse(first.isDirect());
+        first.put((byte) 1);
+        pool.release(first);
+        final ByteBuffer second = pool.borrow();
+        assertSame(first, second);
+        assertEquals(0, second.position());
+        assertEquals(1024, second.limit());
+    }
+
+    @Test
+    public void testBounded() {
+        final ByteBufferPool pool = new ByteBufferPool(1024, 1, true);
+        final ByteBuffer first = pool.borrow();
+        final ByteBuffer second = pool.borrow();
+        assertTrue(first.isDirect());
+        assertNotSame(first, second);
+        pool.release(first);
+        pool.release(second);
+        assertSame(first, pool.borrow());
+        assertNotSame(second, pool.borrow());
+    }
+
+    @Test
+    public void testDiscardForeign() {
+        final ByteBufferPool pool = new ByteBufferPool(1024, 1, false);
+        final ByteBuffer foreign = ByteBuffer.allocate(512);
+        pool.release(foreign);
+        assertNotSame(foreign, pool.borrow());
+    }
+}
@@ -0,0 +1,69 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentChunkedOutputStreamTest {
+
+    @Test
+    public void testWrite() throws Exception {
+        final Map<Long, byte[]> chunks = new ConcurrentHashMap<>();
+        final ConcurrentChunkedOutputStream out = new ConcurrentChunkedOutputStream(new Host(new TestProtocol()), new TransferStatus(), 1024, 3) {
+            @Override
+            protected void upload(final long offset, final byte[] chunk, final int length) {
+                chunks.put(offset, Arrays.copyOf(chunk, length));
+            }
+        };
+        final byte[] content = RandomUtils.nextBytes(5000);
+        out.write(content, 0, 1500);
+        out.write(content, 1500, 3500);
+        out.close();
+        assertEquals(5, chunks.size());
+        assertEquals(5000L, out.getOffset());
+        final byte[] result = new byte[5000];
+        for(Map.Entry<Long, byte[]> chunk : chunks.entrySet()) {
+            System.arraycopy(chunk.getValue(), 0, result, chunk.getKey().intValue(), chunk.getValue().length);
+        }
+        assertArrayEquals(content, result);
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailure() throws Exception {
+        final ConcurrentChunkedOutputStream out = new ConcurrentChunkedOutputStream(new Host(new TestProtocol()), new TransferStatus(), 1024, 2) {
+            @Override
+            protected void upload(final long offset, final byte[] chunk, final int length) throws BackgroundException {
+                throw new AccessDeniedException("d");
+            }
+        };
+        out.write(RandomUtils.nextBytes(2000));
+        out.close();
+    }
+}
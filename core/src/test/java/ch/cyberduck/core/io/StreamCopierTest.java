@@ -11,7 +11,12 @@ import org.apache.commons.text.RandomStringGenerator;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -174,4 +179,37 @@ public class StreamCopierTest {
         }
         assertEquals(32768L, status.getOffset());
     }
+
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] bytes = new RandomStringGenerator.Builder().build().generate(100000).getBytes();
+        final java.nio.file.Path source = Files.createTempFile(null, null);
+        final java.nio.file.Path target = Files.createTempFile(null, null);
+        Files.write(source, bytes);
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).withOffset(1L).withLimit(99998L).transfer(
+            new ChannelInputStream(FileChannel.open(source, StandardOpenOption.READ)),
+            new ChannelOutputStream(FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)));
+        assertTrue(status.isComplete());
+        assertEquals(99998L, status.getOffset(), 0L);
+        assertArrayEquals(Arrays.copyOfRange(bytes, 1, 99999), Files.readAllBytes(target));
+        Files.delete(source);
+        Files.delete(target);
+    }
+
+    @Test
+    public void testTransferFileChannelToStream() throws Exception {
+        final byte[] bytes = new RandomStringGenerator.Builder().build().generate(39865).getBytes();
+        final java.nio.file.Path source = Files.createTempFile(null, null);
+        Files.write(source, bytes);
+        final TransferStatus status = new TransferStatus();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        new StreamCopier(status, status).transfer(new ThrottledInputStream(
+            new ChannelInputStream(FileChannel.open(source, StandardOpenOption.READ)), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)),
+            new ChannelOutputStream(Channels.newChannel(out)));
+        assertTrue(status.isComplete());
+        assertEquals(bytes.length, status.getOffset(), 0L);
+        assertArrayEquals(bytes, out.toByteArray());
+        Files.delete(source);
+    }
 }
@@ -0,0 +1,78 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class LocalSnapshotTest {
+
+    @Test
+    public void testUnchanged() throws Exception {
+        final Local snapshot = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(file);
+        final Local other = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(other);
+        {
+            final LocalSnapshot s = new LocalSnapshot(snapshot);
+            assertFalse(s.isUnchanged(file));
+            assertFalse(s.isUnchanged(other));
+            s.commit(file);
+            // Not committed
+            s.save();
+        }
+        {
+            final LocalSnapshot s = new LocalSnapshot(snapshot);
+            assertTrue(s.isUnchanged(file));
+            assertFalse(s.isUnchanged(other));
+            s.commit(file);
+            s.save();
+        }
+        try (OutputStream out = file.getOutputStream(true)) {
+            out.write(1);
+        }
+        {
+            final LocalSnapshot s = new LocalSnapshot(snapshot);
+            assertFalse(s.isUnchanged(file));
+            s.save();
+        }
+        {
+            // Dropped from snapshot when not committed
+            assertFalse(new LocalSnapshot(snapshot).isUnchanged(file));
+        }
+        file.delete();
+        other.delete();
+        snapshot.delete();
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(file);
+        final LocalSnapshot s = LocalSnapshot.empty();
+        s.commit(file);
+        s.save();
+        assertFalse(s.isUnchanged(file));
+        file.delete();
+    }
+}
@@ -1,11 +1,13 @@
 package ch.cyberduck.core.local;
 
 import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.upload.LocalPriorityComparator;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
@@ -27,6 +29,60 @@ public class LocalTest {
         }).isEmpty());
     }
 
+    @Test
+    public void testListAttributes() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        new DefaultLocalDirectoryFeature().mkdir(directory);
+        final Local d = new Local(directory, "d");
+        new DefaultLocalDirectoryFeature().mkdir(d);
+        final Local f = new Local(directory, "f");
+        new DefaultLocalTouchFeature().touch(f);
+        final AttributedList<Local> list = directory.list();
+        assertEquals(2, list.size());
+        assertTrue(list.get(d).isDirectory());
+        assertFalse(list.get(d).isFile());
+        assertTrue(list.get(f).isFile());
+        assertFalse(list.get(f).isDirectory());
+        assertEquals(1, directory.list(new NullFilter<String>() {
+            @Override
+            public boolean accept(final String file) {
+                return file.equals("f");
+            }
+        }).size());
+        f.delete();
+        d.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testListAttributesDiscarded() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        new DefaultLocalDirectoryFeature().mkdir(directory);
+        final Local f = new Local(directory, "f");
+        new DefaultLocalTouchFeature().touch(f);
+        final AttributedList<Local> list = directory.list(new LocalPriorityComparator(), new NullFilter<>());
+        assertEquals(1, list.size());
+        f.delete();
+        new DefaultLocalDirectoryFeature().mkdir(f);
+        // Type read again after sorting
+        assertTrue(list.get(f).isDirectory());
+        assertFalse(list.get(f).isFile());
+        f.delete();
+        directory.delete();
+    }
+
+    @Test(expected = LocalAccessDeniedException.class)
+    public void testListFile() throws Exception {
+        final Local f = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        new DefaultLocalTouchFeature().touch(f);
+        try {
+            f.list();
+        }
+        finally {
+            f.delete();
+        }
+    }
+
     @Test(expected = AccessDeniedException.class)
     public void testReadNoFile() throws Exception {
         final String name = UUID.randomUUID().toString();
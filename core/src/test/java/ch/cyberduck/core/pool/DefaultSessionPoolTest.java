@@ -34,12 +34,16 @@ import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.CancelCallback;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
 
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.EvictionConfig;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.junit.Test;
 
 import java.net.SocketException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -124,4 +128,99 @@ public class DefaultSessionPoolTest {
         pool.release(session, new BackgroundException("m", "d"));
         assertFalse(interrupt.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWarmup() throws Exception {
+        final AtomicInteger connected = new AtomicInteger();
+        final Host bookmark = new Host(new TestProtocol());
+        final TestLoginConnectionService connect = new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) {
+                connected.incrementAndGet();
+                return true;
+            }
+        };
+        final DefaultSessionPool pool = new DefaultSessionPool(connect,
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), PathCache.empty(), new DisabledTranscriptListener(), bookmark,
+                new GenericObjectPool<Session>(new PooledSessionFactory(connect, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                        PathCache.empty(), bookmark, new DefaultVaultRegistry(new DisabledPasswordCallback())) {
+                    @Override
+                    public Session create() {
+                        return new NullSession(bookmark);
+                    }
+                }));
+        pool.withMaxIdle(2);
+        pool.warmup(3, BackgroundActionState.running);
+        // Wait for first session to login
+        assertEquals(0, connected.get());
+        final Session<?> session = pool.borrow(BackgroundActionState.running);
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while(pool.getNumIdle() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(1, pool.getNumIdle());
+        assertEquals(1, pool.getNumActive());
+        assertEquals(2, connected.get());
+        pool.release(session, null);
+        assertEquals(2, pool.getNumIdle());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testWarmupCanceled() throws Exception {
+        final AtomicInteger connected = new AtomicInteger();
+        final Host bookmark = new Host(new TestProtocol());
+        final TestLoginConnectionService connect = new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) {
+                connected.incrementAndGet();
+                return true;
+            }
+        };
+        final DefaultSessionPool pool = new DefaultSessionPool(connect,
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), PathCache.empty(), new DisabledTranscriptListener(), bookmark,
+                new GenericObjectPool<Session>(new PooledSessionFactory(connect, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                        PathCache.empty(), bookmark, new DefaultVaultRegistry(new DisabledPasswordCallback())) {
+                    @Override
+                    public Session create() {
+                        return new NullSession(bookmark);
+                    }
+                }));
+        pool.withMaxIdle(2);
+        pool.warmup(3, new BackgroundActionState() {
+            @Override
+            public boolean isCanceled() {
+                return true;
+            }
+
+            @Override
+            public boolean isRunning() {
+                return false;
+            }
+        });
+        final Session<?> session = pool.borrow(BackgroundActionState.running);
+        Thread.sleep(100L);
+        assertEquals(0, pool.getNumIdle());
+        assertEquals(1, connected.get());
+        pool.release(session, null);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testValidateNeverConnected() {
+        final Host bookmark = new Host(new TestProtocol());
+        final PooledSessionFactory factory = new PooledSessionFactory(new TestLoginConnectionService(), new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                PathCache.empty(), bookmark, new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        final PooledObject<Session> idle = factory.wrap(new NullSession(bookmark) {
+            @Override
+            public boolean isConnected() {
+                return false;
+            }
+        });
+        assertTrue(factory.validateObject(idle));
+        assertFalse(new DefaultSessionPool.CustomPoolEvictionPolicy().evict(new EvictionConfig(0L, 0L, 0), (PooledObject) idle, 1));
+        idle.allocate();
+        idle.deallocate();
+        assertFalse(factory.validateObject(idle));
+    }
+}
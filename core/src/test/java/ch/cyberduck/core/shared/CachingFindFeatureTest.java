@@ -0,0 +1,92 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Find;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CachingFindFeatureTest {
+
+    @Test
+    public void testFindCached() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Find delegate = new Find() {
+            @Override
+            public boolean find(final Path file) {
+                count.incrementAndGet();
+                return true;
+            }
+        };
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/a", EnumSet.of(Path.Type.directory));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(new Path(directory, "b", EnumSet.of(Path.Type.file)))));
+        final CachingFindFeature feature = new CachingFindFeature(new NullSession(new Host(new TestProtocol())), delegate).withCache(cache);
+        assertTrue(feature.find(new Path(directory, "b", EnumSet.of(Path.Type.file))));
+        assertFalse(feature.find(new Path(directory, "c", EnumSet.of(Path.Type.file))));
+        assertEquals(0, count.get());
+        // Parent not cached
+        assertTrue(feature.find(new Path("/d/b", EnumSet.of(Path.Type.file))));
+        assertEquals(1, count.get());
+        cache.invalidate(directory);
+        assertTrue(feature.find(new Path(directory, "c", EnumSet.of(Path.Type.file))));
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testAttributesCached() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final AttributesFinder delegate = new AttributesFinder() {
+            @Override
+            public PathAttributes find(final Path file) {
+                count.incrementAndGet();
+                return PathAttributes.EMPTY;
+            }
+        };
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "b", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(5L);
+        cache.put(directory, new AttributedList<>(Collections.singletonList(file)));
+        final CachingAttributesFinderFeature feature = new CachingAttributesFinderFeature(new NullSession(new Host(new TestProtocol())), delegate).withCache(cache);
+        assertEquals(5L, feature.find(new Path(directory, "b", EnumSet.of(Path.Type.file))).getSize());
+        try {
+            feature.find(new Path(directory, "c", EnumSet.of(Path.Type.file)));
+            fail();
+        }
+        catch(NotfoundException e) {
+            //
+        }
+        assertEquals(0, count.get());
+        assertEquals(PathAttributes.EMPTY, feature.find(new Path("/d/b", EnumSet.of(Path.Type.file))));
+        assertEquals(1, count.get());
+    }
+}
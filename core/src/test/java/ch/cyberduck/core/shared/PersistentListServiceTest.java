@@ -0,0 +1,147 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.cache.PersistentListCache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PersistentListServiceTest {
+
+    /**
+     * Collect chunks passed to listener
+     */
+    private static final class ChunkListProgressListener extends DisabledListProgressListener {
+        private final List<AttributedList<Path>> chunks = new ArrayList<>();
+
+        @Override
+        public void chunk(final Path folder, final AttributedList<Path> list) {
+            chunks.add(list);
+        }
+    }
+
+    @Test
+    public void testRevalidate() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final AtomicInteger count = new AtomicInteger();
+        final ListService delegate = (directory, listener) -> {
+            count.incrementAndGet();
+            return new AttributedList<>(Collections.singletonList(new Path(directory, "f", EnumSet.of(Path.Type.file),
+                new PathAttributes().withVersionId(String.valueOf(count.get())))));
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        directory.attributes().setModificationDate(1000L);
+        {
+            final ListService service = new PersistentListService(session, delegate, new PersistentListCache(folder, Long.MAX_VALUE), 0L);
+            final ChunkListProgressListener listener = new ChunkListProgressListener();
+            assertEquals("1", service.list(directory, listener).get(0).attributes().getVersionId());
+            assertEquals(1, count.get());
+            assertTrue(listener.chunks.isEmpty());
+        }
+        {
+            // Load from disk in new session
+            final PersistentListCache cache = new PersistentListCache(folder, Long.MAX_VALUE);
+            final ListService service = new PersistentListService(session, delegate, cache, 0L);
+            final ChunkListProgressListener listener = new ChunkListProgressListener();
+            final AttributedList<Path> list = service.list(directory, listener);
+            // Saved listing displayed first
+            assertEquals(1, listener.chunks.size());
+            final AttributedList<Path> saved = listener.chunks.get(0);
+            assertEquals(1, saved.size());
+            assertEquals("/d/f", saved.get(0).getAbsolute());
+            assertTrue(saved.get(0).isFile());
+            assertEquals("1", saved.get(0).attributes().getVersionId());
+            // Always listed again for files modified in place not updating timestamp of directory
+            assertEquals(2, count.get());
+            assertEquals(1, list.size());
+            assertEquals("2", list.get(0).attributes().getVersionId());
+            assertFalse(cache.isRestored(directory));
+        }
+        {
+            final ListService service = new PersistentListService(session, delegate, new PersistentListCache(folder, Long.MAX_VALUE), 0L);
+            final ChunkListProgressListener listener = new ChunkListProgressListener();
+            service.list(directory, listener);
+            // Listing saved with revalidation is displayed
+            assertEquals("2", listener.chunks.get(0).get(0).attributes().getVersionId());
+            // Modified directory
+            directory.attributes().setModificationDate(2000L);
+            final ChunkListProgressListener modified = new ChunkListProgressListener();
+            assertEquals("4", service.list(directory, modified).get(0).attributes().getVersionId());
+            assertTrue(modified.chunks.isEmpty());
+            assertEquals(4, count.get());
+        }
+    }
+
+    @Test
+    public void testIgnoreETag() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final ListService delegate = (directory, listener) -> AttributedList.emptyList();
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        directory.attributes().setETag("a");
+        final ListService service = new PersistentListService(new NullSession(new Host(new TestProtocol())), delegate,
+            new PersistentListCache(folder, Long.MAX_VALUE), 0L);
+        final ChunkListProgressListener listener = new ChunkListProgressListener();
+        // No modification date
+        service.list(directory, listener);
+        service.list(directory, listener);
+        assertTrue(listener.chunks.isEmpty());
+        directory.attributes().setModificationDate(1000L);
+        service.list(directory, listener);
+        assertTrue(listener.chunks.isEmpty());
+        // Unchanged modification date with different collection ETag
+        directory.attributes().setETag("b");
+        service.list(directory, listener);
+        assertEquals(1, listener.chunks.size());
+    }
+
+    @Test
+    public void testRecentlyModified() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        final AtomicInteger count = new AtomicInteger();
+        final ListService delegate = (directory, listener) -> {
+            count.incrementAndGet();
+            return AttributedList.emptyList();
+        };
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        directory.attributes().setModificationDate(System.currentTimeMillis());
+        final ListService service = new PersistentListService(new NullSession(new Host(new TestProtocol())), delegate,
+            new PersistentListCache(folder, Long.MAX_VALUE), 60000L);
+        final ChunkListProgressListener listener = new ChunkListProgressListener();
+        service.list(directory, listener);
+        service.list(directory, listener);
+        assertEquals(2, count.get());
+        assertTrue(listener.chunks.isEmpty());
+    }
+}
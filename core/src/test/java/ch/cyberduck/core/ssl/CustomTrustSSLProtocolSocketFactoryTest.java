@@ -7,7 +7,10 @@ import ch.cyberduck.core.TestProtocol;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class CustomTrustSSLProtocolSocketFactoryTest {
 
@@ -18,4 +21,34 @@ public class CustomTrustSSLProtocolSocketFactoryTest {
             new Host(new TestProtocol()), new DisabledCertificateStore()
         )).getSSLContext());
     }
+
+    @Test
+    public void testSharedSSLContext() {
+        final DefaultX509TrustManager trust = new DefaultX509TrustManager();
+        final CertificateStoreX509KeyManager key = new CertificateStoreX509KeyManager(
+            new DisabledCertificateIdentityCallback(),
+            new Host(new TestProtocol()), new DisabledCertificateStore()
+        );
+        final CustomTrustSSLProtocolSocketFactory factory = new CustomTrustSSLProtocolSocketFactory(trust, key);
+        assertSame(factory.getSSLContext(), new CustomTrustSSLProtocolSocketFactory(trust, key, "TLSv1.2").getSSLContext());
+        assertNotSame(factory.getSSLContext(), new CustomTrustSSLProtocolSocketFactory(new DefaultX509TrustManager(), key).getSSLContext());
+    }
+
+    @Test
+    public void testSharedSSLContextDelegate() {
+        final DefaultX509TrustManager trust = new DefaultX509TrustManager();
+        final CertificateStoreX509KeyManager key = new CertificateStoreX509KeyManager(
+            new DisabledCertificateIdentityCallback(),
+            new Host(new TestProtocol()), new DisabledCertificateStore()
+        );
+        final ThreadLocalHostnameDelegatingTrustManager session1 = new ThreadLocalHostnameDelegatingTrustManager(trust, "a");
+        final ThreadLocalHostnameDelegatingTrustManager session2 = new ThreadLocalHostnameDelegatingTrustManager(trust, "a");
+        assertSame(new CustomTrustSSLProtocolSocketFactory(session1, key).getSSLContext(),
+            new CustomTrustSSLProtocolSocketFactory(session2, key).getSSLContext());
+        assertNotSame(new CustomTrustSSLProtocolSocketFactory(session1, key).getSSLContext(),
+            new CustomTrustSSLProtocolSocketFactory(new ThreadLocalHostnameDelegatingTrustManager(new DefaultX509TrustManager(), "a"), key).getSSLContext());
+        // Target set before handshake with shared context
+        session2.setTarget("b");
+        assertEquals("b", session1.getTarget());
+    }
 }
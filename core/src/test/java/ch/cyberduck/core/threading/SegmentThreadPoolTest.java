@@ -0,0 +1,152 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SegmentThreadPoolTest {
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testShutdown() {
+        final SegmentThreadPool p = new SegmentThreadPool(new SharedSegmentExecutor("test", 1), 1);
+        p.shutdown(true);
+        p.execute(() -> {
+            fail();
+            return null;
+        });
+    }
+
+    @Test
+    public void testGracefulShutdown() {
+        final SegmentThreadPool pool = new SegmentThreadPool(new SharedSegmentExecutor("test", 5), 5);
+        final AtomicInteger counter = new AtomicInteger(10);
+        for(int i = 0; i < 10; i++) {
+            pool.execute(() -> {
+                Thread.sleep(10L);
+                return counter.decrementAndGet();
+            });
+        }
+        pool.shutdown(true);
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testLimitShared() throws Exception {
+        final SharedSegmentExecutor shared = new SharedSegmentExecutor("test", 3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<SegmentThreadPool> pools = new ArrayList<>();
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for(int file = 0; file < 4; file++) {
+            final SegmentThreadPool pool = new SegmentThreadPool(shared, 2);
+            pools.add(pool);
+            for(int part = 0; part < 10; part++) {
+                futures.add(pool.execute(() -> {
+                    max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5L);
+                    return running.decrementAndGet();
+                }));
+            }
+        }
+        for(Future<Integer> f : futures) {
+            f.get();
+        }
+        for(SegmentThreadPool pool : pools) {
+            pool.shutdown(true);
+        }
+        assertTrue(max.get() <= 3);
+        assertEquals(0, running.get());
+    }
+
+    @Test
+    public void testLimitPerFile() throws Exception {
+        final SegmentThreadPool pool = new SegmentThreadPool(new SharedSegmentExecutor("test", 10), 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        for(int part = 0; part < 20; part++) {
+            pool.execute(() -> {
+                max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5L);
+                return running.decrementAndGet();
+            });
+        }
+        pool.shutdown(true);
+        assertTrue(max.get() <= 2);
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        final SharedSegmentExecutor shared = new SharedSegmentExecutor("test", 1);
+        final CountDownLatch block = new CountDownLatch(1);
+        final SegmentThreadPool first = new SegmentThreadPool(shared, 1);
+        // Occupy single slot until all segments are queued
+        first.execute(() -> {
+            block.await();
+            return null;
+        });
+        final List<String> order = new ArrayList<>();
+        for(int part = 0; part < 3; part++) {
+            first.execute(() -> {
+                synchronized(order) {
+                    order.add("first");
+                }
+                return null;
+            });
+        }
+        final SegmentThreadPool second = new SegmentThreadPool(shared, 1);
+        for(int part = 0; part < 3; part++) {
+            second.execute(() -> {
+                synchronized(order) {
+                    order.add("second");
+                }
+                return null;
+            });
+        }
+        block.countDown();
+        first.shutdown(true);
+        second.shutdown(true);
+        assertEquals(6, order.size());
+        for(int i = 1; i < order.size() - 1; i++) {
+            assertNotEquals(order.get(i), order.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final SegmentThreadPool pool = new SegmentThreadPool(new SharedSegmentExecutor("test", 1), 1);
+        final CountDownLatch block = new CountDownLatch(1);
+        final Future<Object> running = pool.execute(() -> {
+            block.await();
+            return null;
+        });
+        final Future<Object> queued = pool.execute(() -> {
+            fail();
+            return null;
+        });
+        pool.shutdown(false);
+        assertTrue(running.isCancelled());
+        assertTrue(queued.isCancelled());
+    }
+}
@@ -18,7 +18,10 @@ package ch.cyberduck.core.transfer;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.AlphanumericRandomStringService;
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ChangeSet;
+import ch.cyberduck.core.DisabledConnectionCallback;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
@@ -30,15 +33,20 @@ import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.NullTransferSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.features.ChangeFeed;
 import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.synchronization.Comparison;
 
 import org.junit.Test;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -265,4 +273,89 @@ public class SyncTransferTest {
         assertTrue(t.filter(session, null, TransferAction.upload, new DisabledProgressListener()).accept(root, directory, new TransferStatus().exists(true)));
         assertFalse(t.filter(session, null, TransferAction.upload, new DisabledProgressListener()).accept(a, local, new TransferStatus().exists(true)));
     }
+
+    @Test
+    public void testChangeFeed() throws Exception {
+        PreferencesFactory.get().setProperty("queue.sync.changes.enable", true);
+        try {
+            final Host host = new Host(new TestProtocol(), new AlphanumericRandomStringService().random());
+            final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+            final AtomicInteger count = new AtomicInteger();
+            final AtomicReference<String> since = new AtomicReference<>();
+            final ArrayDeque<ChangeSet> feed = new ArrayDeque<>();
+            final ChangeFeed changes = new ChangeFeed() {
+                @Override
+                public String cursor(final Path directory) {
+                    return "1";
+                }
+
+                @Override
+                public ChangeSet changes(final Path directory, final String cursor) {
+                    since.set(cursor);
+                    return feed.remove();
+                }
+            };
+            final NullSession session = new NullSession(host) {
+                @Override
+                public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                    if(file.isRoot()) {
+                        return new AttributedList<>(Collections.singletonList(directory));
+                    }
+                    count.incrementAndGet();
+                    return new AttributedList<>(Collections.singletonList(new Path(file, "f", EnumSet.of(Path.Type.file))));
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> T _getFeature(final Class<T> type) {
+                    if(type == ChangeFeed.class) {
+                        return (T) changes;
+                    }
+                    return super._getFeature(type);
+                }
+            };
+            final NullLocal local = new NullLocal(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+            {
+                // Initial synchronization lists all directories
+                final SyncTransfer t = new SyncTransfer(host, new TransferItem(directory, local));
+                t.start();
+                assertEquals(1, t.list(session, directory, local, new DisabledListProgressListener()).size());
+                assertEquals(1, count.get());
+                assertNull(since.get());
+                t.post(session, null, Collections.emptyMap(), new DisabledConnectionCallback());
+            }
+            {
+                // No changes restores saved listing
+                feed.add(new ChangeSet("2"));
+                final SyncTransfer t = new SyncTransfer(host, new TransferItem(directory, local));
+                t.start();
+                assertEquals(1, t.list(session, directory, local, new DisabledListProgressListener()).size());
+                assertEquals(1, count.get());
+                assertEquals("1", since.get());
+                t.post(session, null, Collections.emptyMap(), new DisabledConnectionCallback());
+            }
+            {
+                // Directory with changes is listed
+                feed.add(new ChangeSet("3").withFile(new Path(directory, "g", EnumSet.of(Path.Type.file))));
+                final SyncTransfer t = new SyncTransfer(host, new TransferItem(directory, local));
+                t.start();
+                assertEquals(1, t.list(session, directory, local, new DisabledListProgressListener()).size());
+                assertEquals(2, count.get());
+                assertEquals("2", since.get());
+                // Cursor not saved without post
+            }
+            {
+                // Incomplete changes list all directories
+                feed.add(new ChangeSet("4").withComplete(false));
+                final SyncTransfer t = new SyncTransfer(host, new TransferItem(directory, local));
+                t.start();
+                t.list(session, directory, local, new DisabledListProgressListener());
+                assertEquals(3, count.get());
+                assertEquals("2", since.get());
+            }
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.sync.changes.enable");
+        }
+    }
 }
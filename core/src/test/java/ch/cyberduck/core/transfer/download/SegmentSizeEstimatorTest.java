@@ -0,0 +1,56 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class SegmentSizeEstimatorTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    public void testUnknownThroughput() {
+        final SegmentSizeEstimator estimator = new SegmentSizeEstimator(5 * MB, 1024 * MB, 10L, 5);
+        assertEquals(5 * MB, estimator.getSize(50 * MB));
+        assertEquals(10 * MB, estimator.getSize(100 * MB));
+        assertEquals(1024 * MB, estimator.getSize(100 * 1024 * MB));
+    }
+
+    @Test
+    public void testWiden() {
+        final SegmentSizeEstimator estimator = new SegmentSizeEstimator(5 * MB, 1024 * MB, 10L, 5);
+        estimator.record(10 * MB, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(10 * MB, estimator.getThroughput());
+        // Limited to keep all connections busy
+        assertEquals(20 * MB, estimator.getSize(100 * MB));
+        assertEquals(100 * MB, estimator.getSize(500 * MB));
+        assertEquals(204 * MB, estimator.getSize(2040 * MB));
+    }
+
+    @Test
+    public void testMovingAverage() {
+        final SegmentSizeEstimator estimator = new SegmentSizeEstimator(5 * MB, 1024 * MB, 10L, 5);
+        estimator.record(8 * MB, TimeUnit.SECONDS.toNanos(1));
+        estimator.record(4 * MB, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(7 * MB, estimator.getThroughput());
+        estimator.record(0L, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(7 * MB, estimator.getThroughput());
+    }
+}
@@ -23,16 +23,24 @@ import ch.cyberduck.core.Local;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.local.DefaultLocalTouchFeature;
+import ch.cyberduck.core.local.LocalSnapshot;
 import ch.cyberduck.core.synchronization.Comparison;
 import ch.cyberduck.core.synchronization.ComparisonServiceFilter;
+import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledUploadSymlinkResolver;
 
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -77,4 +85,49 @@ public class CompareFilterTest {
                         },
                         new TransferStatus().exists(true)));
     }
+
+    @Test
+    public void testSnapshotEqual() throws Exception {
+        final Local snapshot = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new DefaultLocalDirectoryFeature().mkdir(directory);
+        final Local local = new Local(directory, "f");
+        new DefaultLocalTouchFeature().touch(local);
+        final Path folder = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(folder, "f", EnumSet.of(Path.Type.file));
+        final AtomicInteger comparisons = new AtomicInteger();
+        final AtomicInteger lookups = new AtomicInteger();
+        for(int i = 0; i < 2; i++) {
+            final LocalSnapshot s = new LocalSnapshot(snapshot);
+            final AbstractUploadFilter filter = new CompareFilter(new DisabledUploadSymlinkResolver(),
+                new NullSession(new Host(new TestProtocol())), new UploadFilterOptions(),
+                new ComparisonServiceFilter(new NullSession(new Host(new TestProtocol())), null, new DisabledProgressListener()) {
+                    @Override
+                    public Comparison compare(final Path file, final Local local) {
+                        comparisons.incrementAndGet();
+                        return Comparison.equal;
+                    }
+                }).withSnapshot(s).withFinder(f -> {
+                lookups.incrementAndGet();
+                return f.isDirectory();
+            }).withAttributes(f -> {
+                lookups.incrementAndGet();
+                return PathAttributes.EMPTY;
+            });
+            final TransferStatus parent = new TransferStatus().exists(true);
+            assertTrue(filter.accept(folder, directory, parent));
+            final TransferStatus status = filter.prepare(folder, directory, parent, new DisabledProgressListener());
+            assertTrue(status.isExists());
+            assertFalse(filter.accept(file, local, status));
+            filter.complete(folder, directory, new TransferOptions(), status.complete(), new DisabledProgressListener());
+            s.save();
+        }
+        // Compared directory and file in first run only
+        assertEquals(2, comparisons.get());
+        // Lookup of directory in first run only
+        assertEquals(2, lookups.get());
+        local.delete();
+        directory.delete();
+        snapshot.delete();
+    }
 }
@@ -22,30 +22,30 @@ import ch.cyberduck.core.VersionId;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
 import ch.cyberduck.core.http.HttpRange;
+import ch.cyberduck.core.io.ConcurrentChunkedOutputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
-import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.DefaultRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpResponseException;
-import org.apache.http.client.entity.EntityBuilder;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicReference;
 
-public class MultipartUploadTokenOutputStream extends OutputStream {
+/**
+ * Chunks are uploaded in parallel with their range as the upload is completed separately
+ */
+public class MultipartUploadTokenOutputStream extends ConcurrentChunkedOutputStream {
     private static final Logger log = Logger.getLogger(MultipartUploadTokenOutputStream.class);
 
     private final SDSSession session;
@@ -54,10 +54,16 @@ public class MultipartUploadTokenOutputStream extends OutputStream {
     private final String uploadToken;
     private final AtomicReference<BackgroundException> canceled = new AtomicReference<>();
 
-    private Long offset = 0L;
     private final Long length;
 
     public MultipartUploadTokenOutputStream(final SDSSession session, final Path file, final TransferStatus status, final String uploadToken) {
+        this(session, file, status, uploadToken, PreferencesFactory.get().getInteger("sds.upload.multipart.chunksize"),
+            PreferencesFactory.get().getInteger("sds.upload.multipart.concurrency"));
+    }
+
+    public MultipartUploadTokenOutputStream(final SDSSession session, final Path file, final TransferStatus status, final String uploadToken,
+                                            final int chunksize, final int concurrency) {
+        super(session.getHost(), status, chunksize, concurrency);
         this.session = session;
         this.file = file;
         this.uploadToken = uploadToken;
@@ -66,73 +72,54 @@ public class MultipartUploadTokenOutputStream extends OutputStream {
     }
 
     @Override
-    public void write(final int value) throws IOException {
-        throw new IOException(new UnsupportedOperationException());
-    }
-
-    @Override
-    public void write(final byte[] b, final int off, final int len) throws IOException {
+    protected void upload(final long offset, final byte[] content, final int len) throws BackgroundException {
+        if(null != canceled.get()) {
+            throw canceled.get();
+        }
+        final SDSApiClient client = session.getClient();
         try {
-            if(null != canceled.get()) {
-                throw canceled.get();
+            final HttpPost request = new HttpPost(String.format("%s/v4/uploads/%s", client.getBasePath(), uploadToken));
+            request.setEntity(new ByteArrayEntity(content, 0, len));
+            request.setHeader(HttpHeaders.CONTENT_TYPE, MimeTypeService.DEFAULT_CONTENT_TYPE);
+            request.setHeader(SDSSession.SDS_AUTH_TOKEN_HEADER, StringUtils.EMPTY);
+            if(0L != overall.getLength() && 0 != len) {
+                final HttpRange range = HttpRange.byLength(offset, len);
+                final String header;
+                if(overall.getLength() == -1L) {
+                    header = String.format("%d-%d/*", range.getStart(), range.getEnd());
+                }
+                else {
+                    header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), length);
+                }
+                request.addHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %s", header));
             }
-            final byte[] content = Arrays.copyOfRange(b, off, len);
-            final HttpEntity entity = EntityBuilder.create().setBinary(content).build();
-            new DefaultRetryCallable<>(session.getHost(), new BackgroundExceptionCallable<Void>() {
-                @Override
-                public Void call() throws BackgroundException {
-                    final SDSApiClient client = session.getClient();
-                    try {
-                        final HttpPost request = new HttpPost(String.format("%s/v4/uploads/%s", client.getBasePath(), uploadToken));
-                        request.setEntity(entity);
-                        request.setHeader(HttpHeaders.CONTENT_TYPE, MimeTypeService.DEFAULT_CONTENT_TYPE);
-                        request.setHeader(SDSSession.SDS_AUTH_TOKEN_HEADER, StringUtils.EMPTY);
-                        if(0L != overall.getLength() && 0 != content.length) {
-                            final HttpRange range = HttpRange.byLength(offset, content.length);
-                            final String header;
-                            if(overall.getLength() == -1L) {
-                                header = String.format("%d-%d/*", range.getStart(), range.getEnd());
-                            }
-                            else {
-                                header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), length);
-                            }
-                            request.addHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %s", header));
-                        }
-                        final HttpResponse response = client.getClient().execute(request);
-                        try {
-                            // Validate response
-                            switch(response.getStatusLine().getStatusCode()) {
-                                case HttpStatus.SC_CREATED:
-                                    // Upload complete
-                                    offset += content.length;
-                                    break;
-                                default:
-                                    EntityUtils.updateEntity(response, new BufferedHttpEntity(response.getEntity()));
-                                    throw new SDSExceptionMappingService().map(
-                                        new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(), Collections.emptyMap(),
-                                            EntityUtils.toString(response.getEntity())));
-                            }
-                        }
-                        catch(BackgroundException e) {
-                            canceled.set(e);
-                            throw e;
-                        }
-                        finally {
-                            EntityUtils.consume(response.getEntity());
-                        }
-                    }
-                    catch(HttpResponseException e) {
-                        throw new DefaultHttpResponseExceptionMappingService().map(e);
-                    }
-                    catch(IOException e) {
-                        throw new DefaultIOExceptionMappingService().map(e);
-                    }
-                    return null; //Void
+            final HttpResponse response = client.getClient().execute(request);
+            try {
+                // Validate response
+                switch(response.getStatusLine().getStatusCode()) {
+                    case HttpStatus.SC_CREATED:
+                        // Upload complete
+                        break;
+                    default:
+                        EntityUtils.updateEntity(response, new BufferedHttpEntity(response.getEntity()));
+                        throw new SDSExceptionMappingService().map(
+                            new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(), Collections.emptyMap(),
+                                EntityUtils.toString(response.getEntity())));
                 }
-            }, overall).call();
+            }
+            catch(BackgroundException e) {
+                canceled.set(e);
+                throw e;
+            }
+            finally {
+                EntityUtils.consume(response.getEntity());
+            }
+        }
+        catch(HttpResponseException e) {
+            throw new DefaultHttpResponseExceptionMappingService().map(e);
         }
-        catch(BackgroundException e) {
-            throw new IOException(e.getMessage(), e);
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
         }
     }
 
@@ -141,7 +128,7 @@ public class MultipartUploadTokenOutputStream extends OutputStream {
         final StringBuilder sb = new StringBuilder("MultipartUploadTokenOutputStream{");
         sb.append("uploadToken='").append(uploadToken).append('\'');
         sb.append(", file=").append(file);
-        sb.append(", offset=").append(offset);
+        sb.append(", offset=").append(this.getOffset());
         sb.append(", length=").append(length);
         sb.append('}');
         return sb.toString();
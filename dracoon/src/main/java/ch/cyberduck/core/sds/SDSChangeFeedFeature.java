@@ -0,0 +1,196 @@
+package ch.cyberduck.core.sds;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ChangeSet;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChangeFeed;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.sds.io.swagger.client.ApiException;
+import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
+import ch.cyberduck.core.sds.io.swagger.client.model.DeletedNodeSummary;
+import ch.cyberduck.core.sds.io.swagger.client.model.DeletedNodeSummaryList;
+import ch.cyberduck.core.sds.io.swagger.client.model.Node;
+import ch.cyberduck.core.sds.io.swagger.client.model.NodeList;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
+import org.apache.log4j.Logger;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * No change feed is provided by the server. Changes are determined by searching for nodes created or updated since
+ * the timestamp used as cursor and nodes deleted to the recycle bin of rooms containing the directory. Changes are
+ * incomplete unless every room has a recycle bin keeping deleted nodes since the cursor.
+ */
+public class SDSChangeFeedFeature implements ChangeFeed {
+    private static final Logger log = Logger.getLogger(SDSChangeFeedFeature.class);
+
+    /**
+     * Allowed clock skew between client and server
+     */
+    private static final long MARGIN = TimeUnit.MINUTES.toMillis(10L);
+
+    private final SDSSession session;
+    private final SDSNodeIdProvider nodeid;
+
+    public SDSChangeFeedFeature(final SDSSession session, final SDSNodeIdProvider nodeid) {
+        this.session = session;
+        this.nodeid = nodeid;
+    }
+
+    @Override
+    public String cursor(final Path directory) {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    @Override
+    public ChangeSet changes(final Path directory, final String cursor) throws BackgroundException {
+        final long since;
+        try {
+            since = Long.parseLong(cursor) - MARGIN;
+        }
+        catch(NumberFormatException e) {
+            log.warn(String.format("Invalid cursor %s for %s", cursor, directory));
+            return new ChangeSet(this.cursor(directory)).withComplete(false);
+        }
+        // Timestamp before searching to not miss concurrent changes
+        final ChangeSet changes = new ChangeSet(this.cursor(directory));
+        try {
+            final Long parent = Long.valueOf(nodeid.getFileid(directory, new DisabledListProgressListener()));
+            // Filter only supports dates
+            final String date = DateTimeFormat.forPattern("yyyy-MM-dd").print(new DateTime(since, DateTimeZone.UTC).minusDays(1));
+            final Set<Long> rooms = new LinkedHashSet<>();
+            for(Path f = directory; !f.isRoot(); f = f.getParent()) {
+                if(f.getType().contains(Path.Type.volume)) {
+                    // Innermost room containing directory
+                    rooms.add(Long.valueOf(nodeid.getFileid(f, new DisabledListProgressListener())));
+                    break;
+                }
+            }
+            for(Node node : this.search(parent, "type:eq:room")) {
+                rooms.add(node.getId());
+            }
+            for(Long room : rooms) {
+                // Deleted nodes are only found in the recycle bin while kept for the retention period of the room
+                final Integer retention = new NodesApi(session.getClient()).requestNode(room, StringUtils.EMPTY, null).getRecycleBinRetentionPeriod();
+                if(null == retention || retention == 0) {
+                    log.warn(String.format("No recycle bin for room %d", room));
+                    return changes.withComplete(false);
+                }
+                if(System.currentTimeMillis() - since > TimeUnit.DAYS.toMillis(retention)) {
+                    log.warn(String.format("Recycle bin of room %d retained for %d days only", room, retention));
+                    return changes.withComplete(false);
+                }
+            }
+            for(String filter : new String[]{String.format("createdAt:ge:%s", date), String.format("updatedAt:ge:%s", date)}) {
+                for(Node node : this.search(parent, filter)) {
+                    if(!this.isModifiedSince(node.getCreatedAt(), since) && !this.isModifiedSince(node.getUpdatedAt(), since)) {
+                        continue;
+                    }
+                    // Previous location unknown for moved nodes
+                    changes.withId(String.valueOf(node.getId()));
+                    final Path file = this.toPath(directory, node.getParentPath(), node.getName(),
+                        node.getType() == Node.TypeEnum.FILE ? EnumSet.of(Path.Type.file) : EnumSet.of(Path.Type.directory),
+                        String.valueOf(node.getId()));
+                    if(file != null) {
+                        changes.withFile(file);
+                    }
+                }
+            }
+            for(Long room : rooms) {
+                final int chunksize = PreferencesFactory.get().getInteger("sds.listing.chunksize");
+                int offset = 0;
+                DeletedNodeSummaryList deleted;
+                do {
+                    try {
+                        deleted = new NodesApi(session.getClient()).requestDeletedNodesSummary(room,
+                            StringUtils.EMPTY, null, null, offset, chunksize, StringUtils.EMPTY);
+                    }
+                    catch(ApiException e) {
+                        if(e.getCode() == HttpStatus.SC_FORBIDDEN) {
+                            log.warn(String.format("Missing permission to read recycle bin of room %d. %s", room, e.getMessage()));
+                            return changes.withComplete(false);
+                        }
+                        throw e;
+                    }
+                    for(DeletedNodeSummary summary : deleted.getItems()) {
+                        if(!this.isModifiedSince(summary.getLastDeletedAt(), since)) {
+                            continue;
+                        }
+                        if(summary.getLastDeletedNodeId() != null) {
+                            changes.withId(String.valueOf(summary.getLastDeletedNodeId()));
+                        }
+                        final Path file = this.toPath(directory, summary.getParentPath(), summary.getName(),
+                            summary.getType() == DeletedNodeSummary.TypeEnum.FILE ? EnumSet.of(Path.Type.file) : EnumSet.of(Path.Type.directory),
+                            null);
+                        if(file != null) {
+                            changes.withFile(file);
+                        }
+                    }
+                    offset += chunksize;
+                }
+                while(deleted.getItems().size() == chunksize);
+            }
+            return changes;
+        }
+        catch(ApiException e) {
+            throw new SDSExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    private List<Node> search(final Long parent, final String filter) throws ApiException {
+        final int chunksize = PreferencesFactory.get().getInteger("sds.listing.chunksize");
+        final List<Node> result = new ArrayList<>();
+        int offset = 0;
+        NodeList nodes;
+        do {
+            nodes = new NodesApi(session.getClient()).searchNodes("*", StringUtils.EMPTY, -1, parent,
+                filter, null, offset, chunksize, StringUtils.EMPTY);
+            result.addAll(nodes.getItems());
+            offset += chunksize;
+        }
+        while(nodes.getItems().size() == chunksize);
+        return result;
+    }
+
+    private boolean isModifiedSince(final DateTime timestamp, final long since) {
+        return timestamp != null && timestamp.getMillis() >= since;
+    }
+
+    /**
+     * @return Null if not contained in directory
+     */
+    private Path toPath(final Path directory, final String parent, final String name, final EnumSet<Path.Type> type, final String id) {
+        final String absolute = String.format("%s%s", parent, name);
+        if(!directory.isRoot() && !StringUtils.startsWith(absolute, directory.getAbsolute() + Path.DELIMITER)) {
+            return null;
+        }
+        return new Path(absolute, type, new PathAttributes().withVersionId(id));
+    }
+}
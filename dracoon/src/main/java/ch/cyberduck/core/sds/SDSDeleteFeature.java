@@ -19,6 +19,7 @@ import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -47,16 +48,22 @@ public class SDSDeleteFeature implements Delete {
 
     @Override
     public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        for(Path file : files.keySet()) {
-            callback.delete(file);
-            try {
-                new NodesApi(session.getClient()).removeNode(
-                    Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener())), StringUtils.EMPTY);
-            }
-            catch(ApiException e) {
-                throw new SDSExceptionMappingService().map("Cannot delete {0}", e, file);
+        try {
+            for(Path file : files.keySet()) {
+                callback.delete(file);
+                try {
+                    new NodesApi(session.getClient()).removeNode(
+                        Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener())), StringUtils.EMPTY);
+                }
+                catch(ApiException e) {
+                    throw new SDSExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
             }
         }
+        finally {
+            // Identifiers of deleted directories are no longer valid
+            FileidCache.get(session.getHost()).remove(files.keySet());
+        }
     }
 
     @Override
@@ -17,22 +17,35 @@ package ch.cyberduck.core.sds;
 
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.VersionId;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
+import ch.cyberduck.core.sds.io.swagger.client.model.FileKey;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptUnlockedKey;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferItem;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class SDSEncryptionBulkFeature implements Bulk<Void> {
     private static final Logger log = Logger.getLogger(SDSEncryptionBulkFeature.class);
@@ -48,8 +61,23 @@ public class SDSEncryptionBulkFeature implements Bulk<Void> {
     @Override
     public Void pre(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         switch(type) {
-            case download:
+            case download: {
+                final Map<Path, Boolean> rooms = this.getRoomEncryptionStatus(files);
+                final Map<Path, TransferStatus> encrypted = new HashMap<>();
+                for(Map.Entry<TransferItem, TransferStatus> entry : files.entrySet()) {
+                    final Path file = entry.getKey().remote;
+                    if(file.isDirectory()) {
+                        continue;
+                    }
+                    if(rooms.get(new PathContainerService().getContainer(file))) {
+                        encrypted.put(file, entry.getValue());
+                    }
+                }
+                if(!encrypted.isEmpty()) {
+                    this.prefetch(encrypted, callback);
+                }
                 break;
+            }
             default: {
                 final Map<Path, Boolean> rooms = this.getRoomEncryptionStatus(files);
                 for(Map.Entry<TransferItem, TransferStatus> entry : files.entrySet()) {
@@ -64,6 +92,49 @@ public class SDSEncryptionBulkFeature implements Bulk<Void> {
         return null;
     }
 
+    /**
+     * Request user file keys concurrently and decrypt with private key unlocked once for all files. Files with
+     * failures are skipped to request the file key again when read.
+     *
+     * @param files Files in encrypted rooms to download
+     */
+    private void prefetch(final Map<Path, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
+        // Prompt for passphrase once before requesting file keys
+        final TripleCryptUnlockedKey key = session.unlockedKey(callback);
+        final ThreadPool pool = ThreadPoolFactory.get("filekeys", PreferencesFactory.get().getInteger("sds.encryption.keys.concurrency"));
+        try {
+            final List<Future<Void>> keys = new ArrayList<>();
+            for(Map.Entry<Path, TransferStatus> entry : files.entrySet()) {
+                final Path file = entry.getKey();
+                final TransferStatus status = entry.getValue();
+                keys.add(pool.execute(() -> {
+                    final FileKey encrypted = new NodesApi(session.getClient()).requestUserFileKey(
+                        Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener())), StringUtils.EMPTY);
+                    status.setFilekey(nodeid.toBuffer(TripleCryptConverter.toSwaggerFileKey(
+                        key.decrypt(TripleCryptConverter.toCryptoEncryptedFileKey(encrypted)))));
+                    return null;
+                }));
+            }
+            for(Future<Void> future : keys) {
+                try {
+                    future.get();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Failure retrieving file key. %s", e.getCause().getMessage()));
+                }
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Retrieved file keys for %d files", files.size()));
+            }
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
     private Map<Path, Boolean> getRoomEncryptionStatus(final Map<TransferItem, TransferStatus> files) {
         final Map<Path, Boolean> rooms = new HashMap<>();
         for(Map.Entry<TransferItem, TransferStatus> entry : files.entrySet()) {
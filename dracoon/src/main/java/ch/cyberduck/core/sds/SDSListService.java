@@ -23,8 +23,10 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
@@ -94,7 +96,12 @@ public class SDSListService implements ListService {
             while(nodes.getItems().size() == chunksize);
         }
         catch(ApiException e) {
-            throw new SDSExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            final BackgroundException failure = new SDSExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            if(failure instanceof NotfoundException) {
+                // Cached identifier of directory may be stale
+                FileidCache.get(session.getHost()).remove(directory);
+            }
+            throw failure;
         }
         return children;
     }
@@ -15,12 +15,12 @@ package ch.cyberduck.core.sds;
  * GNU General Public License for more details.
  */
 
-import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.IdProvider;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
@@ -30,20 +30,24 @@ import ch.cyberduck.core.sds.io.swagger.client.model.MissingKeysResponse;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetBatchRequest;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetRequest;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserIdFileIdItem;
-import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserUserPublicKey;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptExceptionMappingService;
-import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPair;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptUnlockedKey;
 import ch.cyberduck.core.shared.AbstractSchedulerFeature;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -51,8 +55,6 @@ import com.dracoon.sdk.crypto.Crypto;
 import com.dracoon.sdk.crypto.CryptoException;
 import com.dracoon.sdk.crypto.model.EncryptedFileKey;
 import com.dracoon.sdk.crypto.model.PlainFileKey;
-import com.dracoon.sdk.crypto.model.UserKeyPair;
-import com.dracoon.sdk.crypto.model.UserPrivateKey;
 
 public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature<List<UserFileKeySetRequest>, SDSApiClient> {
     private static final Logger log = Logger.getLogger(SDSMissingFileKeysSchedulerFeature.class);
@@ -74,13 +76,7 @@ public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature
                 return Collections.emptyList();
             }
             final List<UserFileKeySetRequest> processed = new ArrayList<>();
-            final UserPrivateKey privateKey = new UserPrivateKey();
-            final UserKeyPairContainer keyPairContainer = ((SDSSession) session).keyPair();
-            privateKey.setPrivateKey(keyPairContainer.getPrivateKeyContainer().getPrivateKey());
-            privateKey.setVersion(keyPairContainer.getPrivateKeyContainer().getVersion());
-            final UserKeyPair userKeyPair = new UserKeyPair();
-            userKeyPair.setUserPrivateKey(privateKey);
-            final Credentials passphrase = new TripleCryptKeyPair().unlock(callback, session.getHost(), userKeyPair);
+            final TripleCryptUnlockedKey key = ((SDSSession) session).unlockedKey(callback);
             final IdProvider node = session.getFeature(IdProvider.class);
             final Long fileId = file != null ? Long.parseLong(node.getFileid(file, new DisabledListProgressListener())) : null;
             UserFileKeySetBatchRequest request;
@@ -95,23 +91,53 @@ public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature
                 final Map<Long, FileFileKeys> files =
                     missingKeys.getFiles().stream().collect(Collectors.toMap(FileFileKeys::getId, Function.identity()));
                 request = new UserFileKeySetBatchRequest();
-                for(UserIdFileIdItem item : missingKeys.getItems()) {
-                    final UserUserPublicKey publicKey = publicKeys.get(item.getUserId());
-                    final FileFileKeys fileKeys = files.get(item.getFileId());
-                    final UserFileKeySetRequest keySetRequest = new UserFileKeySetRequest()
-                        .fileId(item.getFileId())
-                        .userId(item.getUserId());
-                    processed.add(keySetRequest);
-                    final PlainFileKey plainFileKey = Crypto.decryptFileKey(
-                        TripleCryptConverter.toCryptoEncryptedFileKey(fileKeys.getFileKeyContainer()), privateKey, passphrase.getPassword());
-                    final EncryptedFileKey encryptFileKey = Crypto.encryptFileKey(
-                        plainFileKey, TripleCryptConverter.toCryptoUserPublicKey(publicKey.getPublicKeyContainer())
-                    );
-                    keySetRequest.setFileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey));
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Missing file key for file with id %d processed", item.getFileId()));
+                final ThreadPool pool = ThreadPoolFactory.get("missingkeys", PreferencesFactory.get().getInteger("sds.encryption.keys.concurrency"));
+                try {
+                    // Decrypt file key once for all users missing the key
+                    final Map<Long, Future<PlainFileKey>> plainFileKeys = new HashMap<>();
+                    for(FileFileKeys fileKeys : files.values()) {
+                        plainFileKeys.put(fileKeys.getId(), pool.execute(() ->
+                            key.decrypt(TripleCryptConverter.toCryptoEncryptedFileKey(fileKeys.getFileKeyContainer()))));
+                    }
+                    final List<Future<UserFileKeySetRequest>> encrypted = new ArrayList<>();
+                    for(UserIdFileIdItem item : missingKeys.getItems()) {
+                        final UserUserPublicKey publicKey = publicKeys.get(item.getUserId());
+                        final Future<PlainFileKey> plainFileKey = plainFileKeys.get(item.getFileId());
+                        encrypted.add(pool.execute(() -> {
+                            final EncryptedFileKey encryptFileKey = Crypto.encryptFileKey(
+                                plainFileKey.get(), TripleCryptConverter.toCryptoUserPublicKey(publicKey.getPublicKeyContainer())
+                            );
+                            if(log.isDebugEnabled()) {
+                                log.debug(String.format("Missing file key for file with id %d processed", item.getFileId()));
+                            }
+                            return new UserFileKeySetRequest()
+                                .fileId(item.getFileId())
+                                .userId(item.getUserId())
+                                .fileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey));
+                        }));
+                    }
+                    for(Future<UserFileKeySetRequest> future : encrypted) {
+                        final UserFileKeySetRequest keySetRequest = future.get();
+                        processed.add(keySetRequest);
+                        request.addItemsItem(keySetRequest);
+                    }
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    while(cause instanceof ExecutionException) {
+                        // Failure decrypting file key
+                        cause = cause.getCause();
                     }
-                    request.addItemsItem(keySetRequest);
+                    if(cause instanceof CryptoException) {
+                        throw (CryptoException) cause;
+                    }
+                    throw new BackgroundException(cause);
+                }
+                finally {
+                    pool.shutdown(false);
                 }
                 if(!request.getItems().isEmpty()) {
                     if(log.isDebugEnabled()) {
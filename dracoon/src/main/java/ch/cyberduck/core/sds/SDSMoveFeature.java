@@ -22,6 +22,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
@@ -35,6 +36,7 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 public class SDSMoveFeature implements Move {
@@ -54,35 +56,41 @@ public class SDSMoveFeature implements Move {
     @Override
     public Path move(final Path file, final Path renamed, final TransferStatus status, final Delete.Callback callback, final ConnectionCallback connectionCallback) throws BackgroundException {
         try {
-            final long nodeId = Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener()));
-            if(containerService.isContainer(file)) {
-                return new Path(renamed.getParent(), renamed.getName(), renamed.getType(), new SDSAttributesFinderFeature(session, nodeid).toAttributes(
-                    new NodesApi(session.getClient()).updateRoom(
-                        new UpdateRoomRequest().name(renamed.getName()), nodeId, StringUtils.EMPTY, null)
-                ));
-            }
-            else {
-                if(status.isExists()) {
-                    // Handle case insensitive. Find feature will have reported target to exist if same name with different case
-                    if(!new CaseInsensitivePathPredicate(file).test(renamed)) {
-                        log.warn(String.format("Delete existing file %s", renamed));
-                        new SDSDeleteFeature(session, nodeid).delete(Collections.singletonMap(renamed, status), connectionCallback, callback);
+            try {
+                final long nodeId = Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener()));
+                if(containerService.isContainer(file)) {
+                    return new Path(renamed.getParent(), renamed.getName(), renamed.getType(), new SDSAttributesFinderFeature(session, nodeid).toAttributes(
+                        new NodesApi(session.getClient()).updateRoom(
+                            new UpdateRoomRequest().name(renamed.getName()), nodeId, StringUtils.EMPTY, null)
+                    ));
+                }
+                else {
+                    if(status.isExists()) {
+                        // Handle case insensitive. Find feature will have reported target to exist if same name with different case
+                        if(!new CaseInsensitivePathPredicate(file).test(renamed)) {
+                            log.warn(String.format("Delete existing file %s", renamed));
+                            new SDSDeleteFeature(session, nodeid).delete(Collections.singletonMap(renamed, status), connectionCallback, callback);
+                        }
                     }
+                    new NodesApi(session.getClient()).moveNodes(
+                        new MoveNodesRequest()
+                            .resolutionStrategy(MoveNodesRequest.ResolutionStrategyEnum.OVERWRITE)
+                            .addItemsItem(new MoveNode().id(nodeId).name(renamed.getName()))
+                            .addNodeIdsItem(nodeId),
+                        Long.parseLong(nodeid.getFileid(renamed.getParent(), new DisabledListProgressListener())),
+                        StringUtils.EMPTY, null);
+                    // Copy original file attributes
+                    return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
+                        new PathAttributes(renamed.attributes()).withVersionId(file.attributes().getVersionId()));
                 }
-                new NodesApi(session.getClient()).moveNodes(
-                    new MoveNodesRequest()
-                        .resolutionStrategy(MoveNodesRequest.ResolutionStrategyEnum.OVERWRITE)
-                        .addItemsItem(new MoveNode().id(nodeId).name(renamed.getName()))
-                        .addNodeIdsItem(nodeId),
-                    Long.parseLong(nodeid.getFileid(renamed.getParent(), new DisabledListProgressListener())),
-                    StringUtils.EMPTY, null);
-                // Copy original file attributes
-                return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
-                    new PathAttributes(renamed.attributes()).withVersionId(file.attributes().getVersionId()));
+            }
+            catch(ApiException e) {
+                throw new SDSExceptionMappingService().map("Cannot rename {0}", e, file);
             }
         }
-        catch(ApiException e) {
-            throw new SDSExceptionMappingService().map("Cannot rename {0}", e, file);
+        finally {
+            // Identifiers of moved directories are no longer valid
+            FileidCache.get(session.getHost()).remove(Arrays.asList(file, renamed));
         }
     }
 
@@ -24,6 +24,7 @@ import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.URIEncoder;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
@@ -55,10 +56,13 @@ public class SDSNodeIdProvider implements IdProvider {
 
     private final SDSSession session;
 
+    private final FileidCache fileids;
+
     private Cache<Path> cache = PathCache.empty();
 
     public SDSNodeIdProvider(final SDSSession session) {
         this.session = session;
+        this.fileids = FileidCache.get(session.getHost());
     }
 
     @Override
@@ -85,6 +89,11 @@ public class SDSNodeIdProvider implements IdProvider {
                 }
             }
         }
+        final String cached = fileids.get(file);
+        if(null != cached) {
+            file.attributes().setVersionId(cached);
+            return cached;
+        }
         try {
             final String type;
             if(file.isDirectory()) {
@@ -123,6 +132,7 @@ public class SDSNodeIdProvider implements IdProvider {
 
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        fileids.put(file, id);
         return id;
     }
 
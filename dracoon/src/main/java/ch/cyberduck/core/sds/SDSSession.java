@@ -16,6 +16,7 @@ package ch.cyberduck.core.sds;
  */
 
 import ch.cyberduck.core.*;
+import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.LoginCanceledException;
@@ -41,6 +42,7 @@ import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
 import ch.cyberduck.core.sds.provider.HttpComponentsProvider;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptExceptionMappingService;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPair;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptUnlockedKey;
 import ch.cyberduck.core.shared.DefaultUploadFeature;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
@@ -95,6 +97,10 @@ public class SDSSession extends HttpSession<SDSApiClient> {
 
     protected SDSErrorResponseInterceptor retryHandler;
     protected OAuth2RequestInterceptor authorizationService;
+    /**
+     * HTTP client for requests to token server
+     */
+    private CloseableHttpClient authorizationClient;
 
     private final ExpiringObjectHolder<UserAccountWrapper> userAccount
         = new ExpiringObjectHolder<>(PreferencesFactory.get().getLong("sds.useracount.ttl"));
@@ -102,6 +108,12 @@ public class SDSSession extends HttpSession<SDSApiClient> {
     private final ExpiringObjectHolder<UserKeyPairContainer> keyPair
         = new ExpiringObjectHolder<>(PreferencesFactory.get().getLong("sds.encryption.keys.ttl"));
 
+    /**
+     * Private key decrypted with passphrase
+     */
+    private final ExpiringObjectHolder<TripleCryptUnlockedKey> unlockedKey
+        = new ExpiringObjectHolder<>(PreferencesFactory.get().getLong("sds.encryption.keys.ttl"));
+
     private final ExpiringObjectHolder<SoftwareVersionData> softwareVersion
         = new ExpiringObjectHolder<>(PreferencesFactory.get().getLong("sds.useracount.ttl"));
 
@@ -143,14 +155,17 @@ public class SDSSession extends HttpSession<SDSApiClient> {
                         // Search for installed connection profile using OAuth authorization method
                         for(Protocol oauth : ProtocolFactory.get().find(new OAuthFinderPredicate(host.getProtocol().getIdentifier()))) {
                             // Run password flow to attempt to migrate to OAuth
-                            final TokenResponse response = new PasswordTokenRequest(new ApacheHttpTransport(builder.build(proxy, this, prompt).build()),
-                                new JacksonFactory(), new GenericUrl(Scheme.isURL(oauth.getOAuthTokenUrl()) ? oauth.getOAuthTokenUrl() : new HostUrlProvider().withUsername(false).withPath(true).get(
-                                oauth.getScheme(), host.getPort(), null, host.getHostname(), oauth.getOAuthTokenUrl())),
-                                host.getCredentials().getUsername(), host.getCredentials().getPassword()
-                            )
-                                .setClientAuthentication(new BasicAuthentication(oauth.getOAuthClientId(), oauth.getOAuthClientSecret()))
-                                .setRequestInitializer(new UserAgentHttpRequestInitializer(new PreferencesUseragentProvider()))
-                                .execute();
+                            final TokenResponse response;
+                            try (CloseableHttpClient migration = builder.build(proxy, this, prompt).build()) {
+                                response = new PasswordTokenRequest(new ApacheHttpTransport(migration),
+                                    new JacksonFactory(), new GenericUrl(Scheme.isURL(oauth.getOAuthTokenUrl()) ? oauth.getOAuthTokenUrl() : new HostUrlProvider().withUsername(false).withPath(true).get(
+                                    oauth.getScheme(), host.getPort(), null, host.getHostname(), oauth.getOAuthTokenUrl())),
+                                    host.getCredentials().getUsername(), host.getCredentials().getPassword()
+                                )
+                                    .setClientAuthentication(new BasicAuthentication(oauth.getOAuthClientId(), oauth.getOAuthClientSecret()))
+                                    .setRequestInitializer(new UserAgentHttpRequestInitializer(new PreferencesUseragentProvider()))
+                                    .execute();
+                            }
                             final long expiryInMilliseconds = System.currentTimeMillis() + response.getExpiresInSeconds() * 1000;
                             credentials.setOauth(new OAuthTokens(response.getAccessToken(), response.getRefreshToken(), expiryInMilliseconds));
                             credentials.setSaved(true);
@@ -167,7 +182,7 @@ public class SDSSession extends HttpSession<SDSApiClient> {
         }
         switch(SDSProtocol.Authorization.valueOf(host.getProtocol().getAuthorization())) {
             case oauth:
-                authorizationService = new OAuth2RequestInterceptor(builder.build(proxy, this, prompt).addInterceptorLast(new HttpRequestInterceptor() {
+                authorizationClient = builder.build(proxy, this, prompt).addInterceptorLast(new HttpRequestInterceptor() {
                     @Override
                     public void process(final HttpRequest request, final HttpContext context) {
                         if(StringUtils.equals(((HttpRequestWrapper) request).getTarget().getHostName(), host.getHostname())) {
@@ -175,7 +190,8 @@ public class SDSSession extends HttpSession<SDSApiClient> {
                                 String.format("Basic %s", Base64.encodeToString(String.format("%s:%s", host.getProtocol().getOAuthClientId(), host.getProtocol().getOAuthClientSecret()).getBytes(StandardCharsets.UTF_8), false)));
                         }
                     }
-                }).build(), host) {
+                }).build();
+                authorizationService = new OAuth2RequestInterceptor(authorizationClient, host) {
                     @Override
                     public void process(final HttpRequest request, final HttpContext context) throws HttpException, IOException {
                         if(StringUtils.equals(((HttpRequestWrapper) request).getTarget().getHostName(), host.getHostname())) {
@@ -306,7 +322,8 @@ public class SDSSession extends HttpSession<SDSApiClient> {
                 log.debug(String.format("Attempt to unlock private key %s", privateKey));
             }
             try {
-                new TripleCryptKeyPair().unlock(controller, host, userKeyPair);
+                final Credentials passphrase = new TripleCryptKeyPair().unlock(controller, host, userKeyPair);
+                unlockedKey.set(TripleCryptUnlockedKey.unlock(privateKey, passphrase.getPassword()));
             }
             catch(LoginCanceledException e) {
                 log.warn("Ignore cancel unlocking triple crypt private key pair");
@@ -376,6 +393,35 @@ public class SDSSession extends HttpSession<SDSApiClient> {
         return keyPair.get();
     }
 
+    /**
+     * @param callback Prompt for passphrase if not found in keychain
+     * @return Private key of user unlocked once for all file keys to decrypt
+     */
+    public synchronized TripleCryptUnlockedKey unlockedKey(final PasswordCallback callback) throws BackgroundException {
+        if(unlockedKey.get() == null) {
+            final UserKeyPairContainer keyPairContainer = this.keyPair();
+            final UserPrivateKey privateKey = new UserPrivateKey();
+            privateKey.setPrivateKey(keyPairContainer.getPrivateKeyContainer().getPrivateKey());
+            privateKey.setVersion(keyPairContainer.getPrivateKeyContainer().getVersion());
+            final UserKeyPair userKeyPair = new UserKeyPair();
+            userKeyPair.setUserPrivateKey(privateKey);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Attempt to unlock private key %s", privateKey));
+            }
+            try {
+                final Credentials passphrase = new TripleCryptKeyPair().unlock(callback, host, userKeyPair);
+                unlockedKey.set(TripleCryptUnlockedKey.unlock(privateKey, passphrase.getPassword()));
+            }
+            catch(LoginCanceledException e) {
+                throw new AccessDeniedException(LocaleFactory.localizedString("Decryption password required", "SDS"), e);
+            }
+            catch(CryptoException e) {
+                throw new TripleCryptExceptionMappingService().map(e);
+            }
+        }
+        return unlockedKey.get();
+    }
+
     public SoftwareVersionData softwareVersion() throws BackgroundException {
         if(softwareVersion.get() == null) {
             try {
@@ -394,8 +440,23 @@ public class SDSSession extends HttpSession<SDSApiClient> {
     }
 
     @Override
-    protected void logout() {
+    protected void logout() throws BackgroundException {
+        if(authorizationService != null) {
+            authorizationService.shutdown();
+        }
         client.getHttpClient().close();
+        if(authorizationClient != null) {
+            try {
+                // Release lease on shared connection pool
+                authorizationClient.close();
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map(e);
+            }
+            finally {
+                authorizationClient = null;
+            }
+        }
     }
 
     @Override
@@ -436,6 +497,9 @@ public class SDSSession extends HttpSession<SDSApiClient> {
         if(type == AttributesFinder.class) {
             return (T) new SDSAttributesFinderFeature(this, nodeid);
         }
+        if(type == ChangeFeed.class) {
+            return (T) new SDSChangeFeedFeature(this, nodeid);
+        }
         if(type == Timestamp.class) {
             return (T) new SDSTimestampFeature(this, nodeid);
         }
@@ -16,13 +16,10 @@ package ch.cyberduck.core.sds.triplecrypt;
  */
 
 import ch.cyberduck.core.ConnectionCallback;
-import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.DisabledListProgressListener;
-import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
-import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.exception.LoginCanceledException;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.sds.SDSExceptionMappingService;
 import ch.cyberduck.core.sds.SDSNodeIdProvider;
@@ -31,20 +28,19 @@ import ch.cyberduck.core.sds.SDSSession;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
 import ch.cyberduck.core.sds.io.swagger.client.model.FileKey;
-import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 import com.dracoon.sdk.crypto.Crypto;
 import com.dracoon.sdk.crypto.CryptoException;
 import com.dracoon.sdk.crypto.CryptoUtils;
 import com.dracoon.sdk.crypto.model.PlainFileKey;
-import com.dracoon.sdk.crypto.model.UserKeyPair;
-import com.dracoon.sdk.crypto.model.UserPrivateKey;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 public class TripleCryptReadFeature implements Read {
     private static final Logger log = Logger.getLogger(TripleCryptReadFeature.class);
@@ -62,25 +58,17 @@ public class TripleCryptReadFeature implements Read {
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
-            final FileKey key = new NodesApi(session.getClient()).requestUserFileKey(
-                Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener())), StringUtils.EMPTY);
-            final UserPrivateKey privateKey = new UserPrivateKey();
-            final UserKeyPairContainer keyPairContainer = session.keyPair();
-            privateKey.setPrivateKey(keyPairContainer.getPrivateKeyContainer().getPrivateKey());
-            privateKey.setVersion(keyPairContainer.getPrivateKeyContainer().getVersion());
-            final UserKeyPair userKeyPair = new UserKeyPair();
-            userKeyPair.setUserPrivateKey(privateKey);
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Attempt to unlock private key %s", privateKey));
+            final PlainFileKey plainFileKey;
+            if(null != status.getFilekey()) {
+                // File key decrypted in bulk feature
+                final ObjectReader reader = session.getClient().getJSON().getContext(null).readerFor(FileKey.class);
+                plainFileKey = TripleCryptConverter.toCryptoPlainFileKey(reader.readValue(status.getFilekey().array()));
             }
-            final Credentials passphrase;
-            try {
-                passphrase = new TripleCryptKeyPair().unlock(callback, session.getHost(), userKeyPair);
+            else {
+                final FileKey key = new NodesApi(session.getClient()).requestUserFileKey(
+                    Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener())), StringUtils.EMPTY);
+                plainFileKey = session.unlockedKey(callback).decrypt(TripleCryptConverter.toCryptoEncryptedFileKey(key));
             }
-            catch(LoginCanceledException e) {
-                throw new AccessDeniedException(LocaleFactory.localizedString("Decryption password required", "SDS"), e);
-            }
-            final PlainFileKey plainFileKey = Crypto.decryptFileKey(TripleCryptConverter.toCryptoEncryptedFileKey(key), privateKey, passphrase.getPassword());
             return new TripleCryptInputStream(proxy.read(file, status, callback),
                 Crypto.createFileDecryptionCipher(plainFileKey), CryptoUtils.stringToByteArray(plainFileKey.getTag()));
         }
@@ -90,6 +78,9 @@ public class TripleCryptReadFeature implements Read {
         catch(CryptoException e) {
             throw new TripleCryptExceptionMappingService().map("Download {0} failed", e, file);
         }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Download {0} failed", e, file);
+        }
     }
 
     @Override
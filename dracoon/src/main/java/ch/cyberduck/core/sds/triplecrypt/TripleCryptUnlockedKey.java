@@ -0,0 +1,148 @@
+package ch.cyberduck.core.sds.triplecrypt;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+import org.bouncycastle.openssl.jcajce.JceOpenSSLPKCS8DecryptorProviderBuilder;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.pkcs.PKCS8EncryptedPrivateKeyInfo;
+import org.bouncycastle.pkcs.PKCSException;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.spec.MGF1ParameterSpec;
+
+import com.dracoon.sdk.crypto.CryptoException;
+import com.dracoon.sdk.crypto.CryptoSystemException;
+import com.dracoon.sdk.crypto.CryptoUtils;
+import com.dracoon.sdk.crypto.InvalidFileKeyException;
+import com.dracoon.sdk.crypto.InvalidKeyPairException;
+import com.dracoon.sdk.crypto.InvalidPasswordException;
+import com.dracoon.sdk.crypto.model.EncryptedFileKey;
+import com.dracoon.sdk.crypto.model.PlainFileKey;
+import com.dracoon.sdk.crypto.model.UserPrivateKey;
+
+/**
+ * Private key of user decrypted once with the passphrase and kept in memory to unwrap file keys without deriving the
+ * key from the passphrase for every file. Uses the same algorithms as <code>Crypto#decryptFileKey</code>. Safe for
+ * use by multiple threads.
+ */
+public final class TripleCryptUnlockedKey {
+    private static final Logger log = Logger.getLogger(TripleCryptUnlockedKey.class);
+
+    static {
+        if(null == Security.getProvider(BouncyCastleProvider.PROVIDER_NAME)) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    /**
+     * @param key        Encrypted private key of user
+     * @param passphrase Decryption password
+     * @return Unlocked private key
+     * @throws InvalidPasswordException Passphrase does not match
+     */
+    public static TripleCryptUnlockedKey unlock(final UserPrivateKey key, final String passphrase) throws CryptoException {
+        final Object parsed;
+        try(PEMParser parser = new PEMParser(new StringReader(key.getPrivateKey()))) {
+            parsed = parser.readObject();
+        }
+        catch(IOException e) {
+            throw new InvalidKeyPairException("Could not decrypt private key. PEM decoding failed.", e);
+        }
+        if(!(parsed instanceof PKCS8EncryptedPrivateKeyInfo)) {
+            throw new InvalidKeyPairException("Could not decrypt private key. Provided key is not a PKCS8 encrypted private key.");
+        }
+        try {
+            final PrivateKey decrypted = new JcaPEMKeyConverter().setProvider(BouncyCastleProvider.PROVIDER_NAME).getPrivateKey(
+                ((PKCS8EncryptedPrivateKeyInfo) parsed).decryptPrivateKeyInfo(
+                    new JceOpenSSLPKCS8DecryptorProviderBuilder().setProvider(BouncyCastleProvider.PROVIDER_NAME).build(passphrase.toCharArray())));
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Unlocked private key with version %s", key.getVersion()));
+            }
+            return new TripleCryptUnlockedKey(decrypted, key.getVersion());
+        }
+        catch(OperatorCreationException e) {
+            throw new CryptoSystemException("Could not decrypt private key. Creation of PKCS8 decryptor failed.", e);
+        }
+        catch(PKCSException e) {
+            throw new InvalidPasswordException("Could not decrypt private key. Invalid private key password.", e);
+        }
+        catch(IOException e) {
+            throw new InvalidKeyPairException("Could not decrypt private key. Invalid private key.", e);
+        }
+    }
+
+    private final PrivateKey key;
+    private final String version;
+
+    private TripleCryptUnlockedKey(final PrivateKey key, final String version) {
+        this.key = key;
+        this.version = version;
+    }
+
+    /**
+     * @param encrypted File key encrypted with public key of user
+     * @return Plain file key
+     */
+    public PlainFileKey decrypt(final EncryptedFileKey encrypted) throws CryptoException {
+        final byte[] decrypted;
+        try {
+            // Cipher instances are not thread safe
+            final Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPWITHSHA-256ANDMGF1PADDING");
+            cipher.init(Cipher.DECRYPT_MODE, key,
+                new OAEPParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA1, PSource.PSpecified.DEFAULT));
+            decrypted = cipher.doFinal(CryptoUtils.stringToByteArray(encrypted.getKey()));
+        }
+        catch(NoSuchAlgorithmException | NoSuchPaddingException | InvalidAlgorithmParameterException e) {
+            throw new CryptoSystemException("Could not decrypt file key. Creation of cipher failed.", e);
+        }
+        catch(InvalidKeyException e) {
+            throw new InvalidKeyPairException("Could not decrypt file key. Invalid private key.", e);
+        }
+        catch(IllegalBlockSizeException | BadPaddingException e) {
+            throw new InvalidFileKeyException("Could not decrypt file key. Decryption failed.", e);
+        }
+        final PlainFileKey plain = new PlainFileKey();
+        plain.setKey(CryptoUtils.byteArrayToString(decrypted));
+        plain.setIv(encrypted.getIv());
+        plain.setTag(encrypted.getTag());
+        plain.setVersion(encrypted.getVersion());
+        return plain;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TripleCryptUnlockedKey{");
+        sb.append("version='").append(version).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package ch.cyberduck.core.sds.triplecrypt;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import com.dracoon.sdk.crypto.Crypto;
+import com.dracoon.sdk.crypto.InvalidPasswordException;
+import com.dracoon.sdk.crypto.model.EncryptedFileKey;
+import com.dracoon.sdk.crypto.model.PlainFileKey;
+import com.dracoon.sdk.crypto.model.UserKeyPair;
+
+import static org.junit.Assert.assertEquals;
+
+public class TripleCryptUnlockedKeyTest {
+
+    @Test
+    public void testDecrypt() throws Exception {
+        final UserKeyPair pair = Crypto.generateUserKeyPair("eth[oh8uv4Eesij");
+        final PlainFileKey plain = Crypto.generateFileKey();
+        plain.setTag("BAxnEu2OBZbIHrSSNzEbkw==");
+        final EncryptedFileKey encrypted = Crypto.encryptFileKey(plain, pair.getUserPublicKey());
+        final PlainFileKey decrypted = TripleCryptUnlockedKey.unlock(pair.getUserPrivateKey(), "eth[oh8uv4Eesij").decrypt(encrypted);
+        assertEquals(plain.getKey(), decrypted.getKey());
+        assertEquals(plain.getIv(), decrypted.getIv());
+        assertEquals(plain.getTag(), decrypted.getTag());
+        assertEquals(plain.getVersion(), decrypted.getVersion());
+        assertEquals(Crypto.decryptFileKey(encrypted, pair.getUserPrivateKey(), "eth[oh8uv4Eesij").getKey(), decrypted.getKey());
+    }
+
+    @Test(expected = InvalidPasswordException.class)
+    public void testUnlockInvalidPassword() throws Exception {
+        final UserKeyPair pair = Crypto.generateUserKeyPair("eth[oh8uv4Eesij");
+        TripleCryptUnlockedKey.unlock(pair.getUserPrivateKey(), "invalid");
+    }
+}
@@ -0,0 +1,93 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Bulk;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.Transfer;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mark uploads of transfers with concurrent connections to commit their upload sessions in batch
+ */
+public class DropboxBulkFeature implements Bulk<Void> {
+    private static final Logger log = Logger.getLogger(DropboxBulkFeature.class);
+
+    private final DropboxSession session;
+
+    public DropboxBulkFeature(final DropboxSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public Void pre(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
+        switch(type) {
+            case upload:
+                final Host.TransferType transfer = Host.TransferType.unknown.equals(session.getHost().getTransferType()) ?
+                    Host.TransferType.valueOf(PreferencesFactory.get().getProperty("queue.transfer.type")) : session.getHost().getTransferType();
+                if(transfer != Host.TransferType.concurrent) {
+                    // Nothing to wait for with single connection
+                    return null;
+                }
+                int count = 0;
+                for(TransferItem item : files.keySet()) {
+                    if(item.remote.isFile()) {
+                        count++;
+                    }
+                }
+                // Do not wait for more uploads than files in transfer
+                final int connections = Math.min(count, PreferencesFactory.get().getInteger("queue.connections.limit"));
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Commit uploads of %d files with %d connections in batch", count, connections));
+                }
+                for(Map.Entry<TransferItem, TransferStatus> item : files.entrySet()) {
+                    if(item.getKey().remote.isFile()) {
+                        final TransferStatus status = item.getValue();
+                        final Map<String, String> parameters = new HashMap<>(status.getParameters());
+                        parameters.put(DropboxUploadBatch.REQUEST_PARAMETER_BATCH_CONCURRENCY, String.valueOf(connections));
+                        status.withParameters(parameters);
+                    }
+                }
+        }
+        return null;
+    }
+
+    @Override
+    public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
+        // Upload sessions are committed when closed
+    }
+
+    @Override
+    public Bulk<Void> withDelete(final Delete delete) {
+        return this;
+    }
+
+    @Override
+    public Bulk<Void> withCache(final Cache<Path> cache) {
+        return this;
+    }
+}
@@ -0,0 +1,114 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ChangeSet;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChangeFeed;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
+import com.dropbox.core.v2.files.FileMetadata;
+import com.dropbox.core.v2.files.ListFolderContinueErrorException;
+import com.dropbox.core.v2.files.ListFolderResult;
+import com.dropbox.core.v2.files.Metadata;
+
+/**
+ * Changes retrieved with <code>list_folder/continue</code> for a recursive cursor of the directory. Moved files are
+ * reported as deleted at their previous location.
+ */
+public class DropboxChangeFeedFeature implements ChangeFeed {
+    private static final Logger log = Logger.getLogger(DropboxChangeFeedFeature.class);
+
+    private final DropboxSession session;
+
+    private final DropboxPathContainerService containerService
+        = new DropboxPathContainerService();
+
+    public DropboxChangeFeedFeature(final DropboxSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        try {
+            return new DbxUserFilesRequests(session.getClient(directory)).listFolderGetLatestCursorBuilder(containerService.getKey(directory))
+                .withRecursive(true).withIncludeDeleted(true).start().getCursor();
+        }
+        catch(DbxException e) {
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    @Override
+    public ChangeSet changes(final Path directory, final String cursor) throws BackgroundException {
+        try {
+            final DbxUserFilesRequests requests = new DbxUserFilesRequests(session.getClient(directory));
+            final String key = containerService.getKey(directory);
+            ListFolderResult result;
+            String next = cursor;
+            final List<Path> files = new ArrayList<>();
+            do {
+                try {
+                    result = requests.listFolderContinue(next);
+                }
+                catch(ListFolderContinueErrorException e) {
+                    if(e.errorValue.isReset()) {
+                        log.warn(String.format("Cursor %s for %s reset", cursor, directory));
+                        // Start over with full synchronization
+                        return new ChangeSet(this.cursor(directory)).withComplete(false);
+                    }
+                    throw e;
+                }
+                for(Metadata metadata : result.getEntries()) {
+                    if(null == metadata.getPathLower() || null == metadata.getPathDisplay()) {
+                        continue;
+                    }
+                    if(!StringUtils.startsWith(metadata.getPathLower(), StringUtils.lowerCase(key, Locale.ROOT) + Path.DELIMITER)) {
+                        continue;
+                    }
+                    // Path relative to the directory. Only the last path component of the display path is
+                    // guaranteed to have the correct case.
+                    final String relative = StringUtils.substring(metadata.getPathDisplay(), key.length() + 1);
+                    files.add(new Path(PathNormalizer.normalize(directory.getAbsolute() + Path.DELIMITER + relative),
+                        metadata instanceof FileMetadata ? EnumSet.of(Path.Type.file) : EnumSet.of(Path.Type.directory)));
+                }
+                next = result.getCursor();
+            }
+            while(result.getHasMore());
+            // Paths are case insensitive
+            final ChangeSet changes = new ChangeSet(next).withCaseSensitivity(Protocol.Case.insensitive);
+            for(Path file : files) {
+                changes.withFile(file);
+            }
+            return changes;
+        }
+        catch(DbxException e) {
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+}
@@ -102,6 +102,7 @@ public class DropboxSession extends HttpSession<CustomDbxRawClientV2> {
 
     @Override
     protected void logout() throws BackgroundException {
+        authorizationService.shutdown();
         try {
             ((DropboxCommonsHttpRequestExecutor) client.getRequestConfig().getHttpRequestor()).close();
         }
@@ -129,6 +130,9 @@ public class DropboxSession extends HttpSession<CustomDbxRawClientV2> {
         if(type == Upload.class) {
             return (T) new DropboxUploadFeature(new DropboxWriteFeature(this));
         }
+        if(type == Bulk.class) {
+            return (T) new DropboxBulkFeature(this);
+        }
         if(type == Directory.class) {
             return (T) new DropboxDirectoryFeature(this);
         }
@@ -153,6 +157,9 @@ public class DropboxSession extends HttpSession<CustomDbxRawClientV2> {
         if(type == AttributesFinder.class) {
             return (T) new DropboxAttributesFinderFeature(this);
         }
+        if(type == ChangeFeed.class) {
+            return (T) new DropboxChangeFeedFeature(this);
+        }
         if(type == Quota.class) {
             return (T) new DropboxQuotaFeature(this);
         }
@@ -0,0 +1,348 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.log4j.Logger;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.common.PathRoot;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
+import com.dropbox.core.v2.files.FileMetadata;
+import com.dropbox.core.v2.files.UploadSessionFinishArg;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchJobStatus;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchLaunch;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResult;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResultEntry;
+
+/**
+ * Group commit of closed upload sessions of concurrent uploads to the same account with a single request instead of
+ * one request per file. Each upload waits for the commit of its own session to report failures for the file. Sessions
+ * are committed as soon as no other upload is in progress, when the expected number of concurrent uploads have closed
+ * their session or after a delay at the latest. Namespaces are committed separately as the path root is set per
+ * request.
+ */
+public class DropboxUploadBatch {
+    private static final Logger log = Logger.getLogger(DropboxUploadBatch.class);
+
+    /**
+     * Transfer status parameter with number of concurrent uploads to commit in batch
+     */
+    public static final String REQUEST_PARAMETER_BATCH_CONCURRENCY = "batch";
+
+    private static final Map<String, DropboxUploadBatch> batches = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Batch shared by all connections to the same host with the same username
+     */
+    public static DropboxUploadBatch get(final Host host) {
+        return batches.computeIfAbsent(new HostUrlProvider(true).get(host), key -> new DropboxUploadBatch());
+    }
+
+    /**
+     * @param status Transfer status with parameters set in bulk feature
+     * @return Number of concurrent uploads or zero if upload is not committed in batch
+     */
+    public static int getConcurrency(final TransferStatus status) {
+        return NumberUtils.toInt(status.getParameters().get(REQUEST_PARAMETER_BATCH_CONCURRENCY), 0);
+    }
+
+    /**
+     * Maximum number of entries in a single request
+     */
+    private final int limit;
+    /**
+     * Maximum time in milliseconds to wait for concurrent uploads to join batch
+     */
+    private final long delay;
+    /**
+     * Interval in milliseconds to check status of asynchronous commit
+     */
+    private final long interval;
+
+    private final Map<PathRoot, List<Entry>> pending = new HashMap<>();
+    /**
+     * Number of uploads in progress not yet closed by namespace. Guarded by pending.
+     */
+    private final Map<PathRoot, Integer> uploads = new HashMap<>();
+
+    public DropboxUploadBatch() {
+        this(PreferencesFactory.get().getInteger("dropbox.upload.batch.size"),
+            PreferencesFactory.get().getLong("dropbox.upload.batch.delay"),
+            PreferencesFactory.get().getLong("dropbox.upload.batch.poll.interval"));
+    }
+
+    public DropboxUploadBatch(final int limit, final long delay, final long interval) {
+        this.limit = limit;
+        this.delay = delay;
+        this.interval = interval;
+    }
+
+    /**
+     * Register upload in progress to be committed with #finish or discarded with #cancel
+     *
+     * @param root Namespace of file
+     */
+    public void open(final PathRoot root) {
+        synchronized(pending) {
+            uploads.merge(root, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Discard upload registered with #open never committed. Commits sessions waiting only for this upload.
+     *
+     * @param session Connection used to commit pending sessions
+     * @param root    Namespace of file
+     */
+    public void cancel(final DropboxSession session, final PathRoot root) {
+        final List<Entry> entries;
+        synchronized(pending) {
+            if(this.close(root) > 0 || pending.getOrDefault(root, Collections.emptyList()).isEmpty()) {
+                return;
+            }
+            entries = pending.remove(root);
+        }
+        this.commit(session, root, entries);
+    }
+
+    /**
+     * @return Number of uploads still in progress
+     */
+    private int close(final PathRoot root) {
+        final Integer count = uploads.computeIfPresent(root, (key, value) -> value > 1 ? value - 1 : null);
+        return null == count ? 0 : count;
+    }
+
+    /**
+     * Commit closed upload session together with sessions of concurrent uploads. Blocks until the session is
+     * committed. Upload must have been registered with #open before.
+     *
+     * @param session     Connection used when this upload commits the batch
+     * @param root        Namespace of file
+     * @param commit      Cursor of closed upload session with commit info
+     * @param concurrency Number of concurrent uploads expected to join the batch
+     * @return Metadata of committed file
+     * @throws BackgroundException Failure committing the upload session of this file
+     */
+    public FileMetadata finish(final DropboxSession session, final PathRoot root, final UploadSessionFinishArg commit,
+                               final int concurrency) throws BackgroundException {
+        final Entry entry = new Entry(commit);
+        List<Entry> entries = null;
+        synchronized(pending) {
+            final List<Entry> list = pending.computeIfAbsent(root, key -> new ArrayList<>());
+            list.add(entry);
+            // Nothing to wait for when no other upload is in progress
+            if(this.close(root) == 0 || list.size() >= Math.min(concurrency, limit)) {
+                entries = pending.remove(root);
+            }
+        }
+        if(null == entries) {
+            final boolean completed;
+            try {
+                completed = entry.await(delay);
+            }
+            catch(ConnectionCanceledException e) {
+                // Discard session not yet taken for commit
+                synchronized(pending) {
+                    pending.getOrDefault(root, new ArrayList<>()).remove(entry);
+                }
+                throw e;
+            }
+            if(!completed) {
+                // Commit entries pending so far unless already taken by concurrent upload
+                synchronized(pending) {
+                    if(pending.getOrDefault(root, Collections.emptyList()).contains(entry)) {
+                        entries = pending.remove(root);
+                    }
+                }
+            }
+        }
+        if(entries != null) {
+            this.commit(session, root, entries);
+        }
+        return entry.get();
+    }
+
+    /**
+     * Completes all entries with either the result or a failure
+     */
+    private void commit(final DropboxSession session, final PathRoot root, final List<Entry> entries) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Commit %d upload sessions in batch %s", entries.size(), this));
+        }
+        final List<UploadSessionFinishArg> arguments = new ArrayList<>();
+        for(Entry entry : entries) {
+            arguments.add(entry.commit);
+        }
+        try {
+            final UploadSessionFinishBatchResult result = this.finish(session, root, arguments);
+            for(int i = 0; i < result.getEntries().size() && i < entries.size(); i++) {
+                final UploadSessionFinishBatchResultEntry response = result.getEntries().get(i);
+                final Entry entry = entries.get(i);
+                if(response.isFailure()) {
+                    final String path = entry.commit.getCommit().getPath();
+                    log.warn(String.format("Failure %s committing upload session for %s", response.getFailureValue(), path));
+                    entry.failure(new InteroperabilityException(MessageFormat.format(LocaleFactory.localizedString("Upload {0} failed", "Error"),
+                        PathNormalizer.name(path)), response.getFailureValue().toString()));
+                }
+                else {
+                    entry.success(response.getSuccessValue());
+                }
+            }
+        }
+        catch(DbxException e) {
+            final BackgroundException failure = new DropboxExceptionMappingService().map("Upload failed.", e);
+            for(Entry entry : entries) {
+                entry.failure(failure);
+            }
+        }
+        catch(BackgroundException e) {
+            for(Entry entry : entries) {
+                entry.failure(e);
+            }
+        }
+        finally {
+            for(Entry entry : entries) {
+                // Missing in response
+                entry.failure(new InteroperabilityException(MessageFormat.format(LocaleFactory.localizedString("Upload {0} failed", "Error"),
+                    PathNormalizer.name(entry.commit.getCommit().getPath()))));
+            }
+        }
+    }
+
+    /**
+     * Run batch request for closed upload sessions
+     */
+    protected UploadSessionFinishBatchResult finish(final DropboxSession session, final PathRoot root,
+                                                    final List<UploadSessionFinishArg> arguments) throws DbxException, BackgroundException {
+        final DbxUserFilesRequests files = new DbxUserFilesRequests(session.getClient(root));
+        final UploadSessionFinishBatchLaunch launch = files.uploadSessionFinishBatch(arguments);
+        if(launch.isComplete()) {
+            return launch.getCompleteValue();
+        }
+        if(launch.isAsyncJobId()) {
+            return this.poll(files, launch.getAsyncJobIdValue());
+        }
+        throw new InteroperabilityException(launch.toString());
+    }
+
+    private UploadSessionFinishBatchResult poll(final DbxUserFilesRequests files, final String job) throws DbxException, BackgroundException {
+        while(true) {
+            final UploadSessionFinishBatchJobStatus status = files.uploadSessionFinishBatchCheck(job);
+            if(status.isComplete()) {
+                return status.getCompleteValue();
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Wait %dms for batch job %s", interval, job));
+            }
+            try {
+                Thread.sleep(interval);
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DropboxUploadBatch{");
+        sb.append("limit=").append(limit);
+        sb.append(", delay=").append(delay);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static final class Entry {
+        private final UploadSessionFinishArg commit;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private FileMetadata metadata;
+        private BackgroundException failure;
+
+        private Entry(final UploadSessionFinishArg commit) {
+            this.commit = commit;
+        }
+
+        private synchronized void success(final FileMetadata metadata) {
+            if(done.getCount() == 0) {
+                return;
+            }
+            this.metadata = metadata;
+            done.countDown();
+        }
+
+        /**
+         * Ignored if already completed
+         */
+        private synchronized void failure(final BackgroundException failure) {
+            if(done.getCount() == 0) {
+                return;
+            }
+            this.failure = failure;
+            done.countDown();
+        }
+
+        /**
+         * @return False if not completed within timeout
+         */
+        private boolean await(final long timeout) throws ConnectionCanceledException {
+            try {
+                return done.await(timeout, TimeUnit.MILLISECONDS);
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+        }
+
+        private FileMetadata get() throws BackgroundException {
+            try {
+                done.await();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            synchronized(this) {
+                if(failure != null) {
+                    throw failure;
+                }
+                return metadata;
+            }
+        }
+    }
+}
@@ -19,7 +19,6 @@ import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
-import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
@@ -38,11 +37,13 @@ import java.io.IOException;
 import java.util.Date;
 
 import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.common.PathRoot;
 import com.dropbox.core.v2.files.CommitInfo;
 import com.dropbox.core.v2.files.DbxUserFilesRequests;
 import com.dropbox.core.v2.files.FileMetadata;
 import com.dropbox.core.v2.files.UploadSessionAppendV2Uploader;
 import com.dropbox.core.v2.files.UploadSessionCursor;
+import com.dropbox.core.v2.files.UploadSessionFinishArg;
 import com.dropbox.core.v2.files.UploadSessionFinishUploader;
 import com.dropbox.core.v2.files.UploadSessionStartUploader;
 import com.dropbox.core.v2.files.WriteMode;
@@ -55,7 +56,7 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
     private final AttributesFinder attributes;
     private final Long chunksize;
 
-    private final PathContainerService containerService
+    private final DropboxPathContainerService containerService
         = new DropboxPathContainerService();
 
     public DropboxWriteFeature(final DropboxSession session) {
@@ -87,6 +88,11 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
     public HttpResponseOutputStream<String> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
             final DbxUserFilesRequests files = new DbxUserFilesRequests(session.getClient(file));
+            final int concurrency = DropboxUploadBatch.getConcurrency(status);
+            if(concurrency > 1 && status.getLength() >= 0L && status.getLength() <= chunksize) {
+                // Upload contents with the request starting the session and close it to commit in batch
+                return new BatchedUploadProxyOutputStream(file, status, files.uploadSessionStart(true), concurrency);
+            }
             final UploadSessionStartUploader start = files.uploadSessionStart();
             new DefaultStreamCloser().close(start.getOutputStream());
             final String sessionId = start.finish().getSessionId();
@@ -177,11 +183,7 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
             try {
                 DropboxWriteFeature.this.close(uploader);
                 final UploadSessionFinishUploader finish = client.uploadSessionFinish(new UploadSessionCursor(sessionId, written),
-                    CommitInfo.newBuilder(containerService.getKey(file))
-                        .withClientModified(status.getTimestamp() != null ? new Date(status.getTimestamp()) : null)
-                        .withMode(WriteMode.OVERWRITE)
-                        .build()
-                );
+                    commit(file, status));
                 finish.getOutputStream().close();
                 final FileMetadata metadtata = finish.finish();
                 fileId = metadtata.getId();
@@ -198,6 +200,93 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
         }
     }
 
+    /**
+     * Upload session closed with the initial request for files not exceeding the chunk size. The session is committed
+     * together with sessions of concurrent uploads when the stream is closed.
+     */
+    private final class BatchedUploadProxyOutputStream extends HttpResponseOutputStream<String> {
+
+        private final Path file;
+        private final TransferStatus status;
+        private final UploadSessionStartUploader uploader;
+        private final int concurrency;
+
+        private final DropboxUploadBatch batch;
+        private final PathRoot root;
+
+        private Long written = 0L;
+        private String sessionId;
+        private String fileId;
+        /**
+         * Registered as upload in progress with batch
+         */
+        private boolean open;
+
+        public BatchedUploadProxyOutputStream(final Path file, final TransferStatus status,
+                                              final UploadSessionStartUploader uploader, final int concurrency) {
+            super(uploader.getOutputStream());
+            this.file = file;
+            this.status = status;
+            this.uploader = uploader;
+            this.concurrency = concurrency;
+            this.batch = DropboxUploadBatch.get(session.getHost());
+            this.root = containerService.getNamespace(file);
+            this.batch.open(root);
+            this.open = true;
+        }
+
+        @Override
+        protected void afterWrite(final int n) {
+            written += n;
+        }
+
+        @Override
+        public String getStatus() {
+            return fileId;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if(null == sessionId) {
+                    uploader.getOutputStream().close();
+                    sessionId = uploader.finish().getSessionId();
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Commit closed upload session %s for %s in batch", sessionId, file));
+                    }
+                    open = false;
+                    final FileMetadata metadata = batch.finish(session, root,
+                        new UploadSessionFinishArg(new UploadSessionCursor(sessionId, written), commit(file, status)), concurrency);
+                    fileId = metadata.getId();
+                }
+            }
+            catch(IllegalStateException e) {
+                // Already closed
+            }
+            catch(DbxException e) {
+                throw new IOException("Upload failed.", new DropboxExceptionMappingService().map(e));
+            }
+            catch(BackgroundException e) {
+                throw new IOException("Upload failed.", e);
+            }
+            finally {
+                if(open) {
+                    // Not joining batch
+                    open = false;
+                    batch.cancel(session, root);
+                }
+                super.close();
+            }
+        }
+    }
+
+    private CommitInfo commit(final Path file, final TransferStatus status) {
+        return CommitInfo.newBuilder(containerService.getKey(file))
+            .withClientModified(status.getTimestamp() != null ? new Date(status.getTimestamp()) : null)
+            .withMode(WriteMode.OVERWRITE)
+            .build();
+    }
+
     private UploadSessionAppendV2Uploader open(final DbxUserFilesRequests files, final String sessionId, final Long offset) throws DbxException {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Open next segment for upload session %s", sessionId));
@@ -0,0 +1,164 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dropbox.core.v2.common.PathRoot;
+import com.dropbox.core.v2.files.CommitInfo;
+import com.dropbox.core.v2.files.FileMetadata;
+import com.dropbox.core.v2.files.UploadSessionCursor;
+import com.dropbox.core.v2.files.UploadSessionFinishArg;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResult;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResultEntry;
+
+import static org.junit.Assert.*;
+
+public class DropboxUploadBatchTest {
+
+    private static UploadSessionFinishArg arg(final String name) {
+        return new UploadSessionFinishArg(new UploadSessionCursor(name, 0L), new CommitInfo(String.format("/%s", name)));
+    }
+
+    /**
+     * Commit entries with metadata named after the upload session
+     */
+    private static final class CountingUploadBatch extends DropboxUploadBatch {
+        private final AtomicInteger requests = new AtomicInteger();
+        private final List<Integer> sizes = new ArrayList<>();
+
+        public CountingUploadBatch(final long delay) {
+            super(1000, delay, 10L);
+        }
+
+        @Override
+        protected UploadSessionFinishBatchResult finish(final DropboxSession session, final PathRoot root,
+                                                        final List<UploadSessionFinishArg> arguments) throws BackgroundException {
+            requests.incrementAndGet();
+            synchronized(sizes) {
+                sizes.add(arguments.size());
+            }
+            final List<UploadSessionFinishBatchResultEntry> entries = new ArrayList<>();
+            for(UploadSessionFinishArg argument : arguments) {
+                entries.add(UploadSessionFinishBatchResultEntry.success(new FileMetadata(argument.getCursor().getSessionId(),
+                    String.format("id:%s", argument.getCursor().getSessionId()), new Date(), new Date(), "123456789", 0L)));
+            }
+            return new UploadSessionFinishBatchResult(entries);
+        }
+    }
+
+    @Test
+    public void testNoOtherUploadInProgress() throws Exception {
+        final CountingUploadBatch batch = new CountingUploadBatch(TimeUnit.MINUTES.toMillis(1L));
+        batch.open(PathRoot.HOME);
+        final long start = System.currentTimeMillis();
+        assertEquals("id:a", batch.finish(null, PathRoot.HOME, arg("a"), 4).getId());
+        // Not waiting for concurrent uploads
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(30L));
+        assertEquals(1, batch.requests.get());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        final CountingUploadBatch batch = new CountingUploadBatch(TimeUnit.MINUTES.toMillis(1L));
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            batch.open(PathRoot.HOME);
+            batch.open(PathRoot.HOME);
+            final Future<FileMetadata> a = executor.submit(() -> batch.finish(null, PathRoot.HOME, arg("a"), 2));
+            final Future<FileMetadata> b = executor.submit(() -> batch.finish(null, PathRoot.HOME, arg("b"), 2));
+            assertEquals("id:a", a.get(30L, TimeUnit.SECONDS).getId());
+            assertEquals("id:b", b.get(30L, TimeUnit.SECONDS).getId());
+            assertEquals(1, batch.requests.get());
+            assertEquals(2, batch.sizes.get(0), 0);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        final CountingUploadBatch batch = new CountingUploadBatch(100L);
+        batch.open(PathRoot.HOME);
+        // Other upload in progress never closed
+        batch.open(PathRoot.HOME);
+        assertEquals("id:a", batch.finish(null, PathRoot.HOME, arg("a"), 4).getId());
+        assertEquals(1, batch.requests.get());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final CountingUploadBatch batch = new CountingUploadBatch(TimeUnit.MINUTES.toMillis(1L));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            batch.open(PathRoot.HOME);
+            batch.open(PathRoot.HOME);
+            final Future<FileMetadata> a = executor.submit(() -> batch.finish(null, PathRoot.HOME, arg("a"), 2));
+            // Other upload failed before closing its session. Pending session is committed without waiting for delay.
+            batch.cancel(null, PathRoot.HOME);
+            assertEquals("id:a", a.get(30L, TimeUnit.SECONDS).getId());
+            assertEquals(1, batch.requests.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = InteroperabilityException.class)
+    public void testCommitFailure() throws Exception {
+        final DropboxUploadBatch batch = new DropboxUploadBatch(1000, TimeUnit.MINUTES.toMillis(1L), 10L) {
+            @Override
+            protected UploadSessionFinishBatchResult finish(final DropboxSession session, final PathRoot root,
+                                                            final List<UploadSessionFinishArg> arguments) throws BackgroundException {
+                throw new InteroperabilityException("f");
+            }
+        };
+        batch.open(PathRoot.HOME);
+        batch.finish(null, PathRoot.HOME, arg("a"), 2);
+    }
+
+    @Test
+    public void testMissingInResponse() throws Exception {
+        final DropboxUploadBatch batch = new DropboxUploadBatch(1000, TimeUnit.MINUTES.toMillis(1L), 10L) {
+            @Override
+            protected UploadSessionFinishBatchResult finish(final DropboxSession session, final PathRoot root,
+                                                            final List<UploadSessionFinishArg> arguments) {
+                return new UploadSessionFinishBatchResult(new ArrayList<>());
+            }
+        };
+        batch.open(PathRoot.HOME);
+        try {
+            batch.finish(null, PathRoot.HOME, arg("a"), 2);
+            fail();
+        }
+        catch(InteroperabilityException e) {
+            //
+        }
+    }
+}
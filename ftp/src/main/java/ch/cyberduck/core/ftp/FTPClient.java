@@ -43,6 +43,7 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -51,10 +52,16 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class FTPClient extends FTPSClient {
     private static final Logger log = Logger.getLogger(FTPClient.class);
 
+    /**
+     * Set to false when SSL session cache of JSSE is not accessible
+     */
+    private static final AtomicBoolean reuse = new AtomicBoolean(true);
+
     private final SSLSocketFactory sslSocketFactory;
 
     private Protocol protocol;
@@ -89,30 +96,42 @@ public class FTPClient extends FTPSClient {
     @Override
     protected void _prepareDataSocket_(final Socket socket) {
         if(preferences.getBoolean("ftp.tls.session.requirereuse")) {
-            if(socket instanceof SSLSocket) {
+            if(socket instanceof SSLSocket && reuse.get()) {
                 // Control socket is SSL
                 final SSLSession session = ((SSLSocket) _socket_).getSession();
                 if(session.isValid()) {
+                    // Data socket is created from the same SSL context as the control socket. Register the session
+                    // of the control connection for the address of the data connection to resume it in the handshake
                     final SSLSessionContext context = session.getSessionContext();
-                    context.setSessionCacheSize(preferences.getInteger("ftp.ssl.session.cache.size"));
                     try {
                         final Field sessionHostPortCache = context.getClass().getDeclaredField("sessionHostPortCache");
                         sessionHostPortCache.setAccessible(true);
                         final Object cache = sessionHostPortCache.get(context);
                         final Method method = cache.getClass().getDeclaredMethod("put", Object.class, Object.class);
                         method.setAccessible(true);
-                        method.invoke(cache, String.format("%s:%s", socket.getInetAddress().getHostName(),
-                                String.valueOf(socket.getPort())).toLowerCase(Locale.ROOT), session);
-                        method.invoke(cache, String.format("%s:%s", socket.getInetAddress().getHostAddress(),
-                                String.valueOf(socket.getPort())).toLowerCase(Locale.ROOT), session);
+                        // Avoid reverse lookup of hostname for passive address
+                        final Set<String> hostnames = new HashSet<>();
+                        if(socket.getRemoteSocketAddress() instanceof InetSocketAddress) {
+                            hostnames.add(((InetSocketAddress) socket.getRemoteSocketAddress()).getHostString());
+                        }
+                        hostnames.add(socket.getInetAddress().getHostAddress());
+                        for(String hostname : hostnames) {
+                            method.invoke(cache, String.format("%s:%s", hostname,
+                                    String.valueOf(socket.getPort())).toLowerCase(Locale.ROOT), session);
+                        }
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Reuse SSL session %s for data connection to %s", session, hostnames));
+                        }
                     }
                     catch(NoSuchFieldException e) {
                         // Not running in expected JRE
                         log.warn("No field sessionHostPortCache in SSLSessionContext", e);
+                        reuse.set(false);
                     }
                     catch(Exception e) {
-                        // Not running in expected JRE
-                        log.warn(e.getMessage());
+                        // Not running in expected JRE or no access to internal API
+                        log.warn(String.format("Disable reuse of SSL session for data connections. %s", e.getMessage()));
+                        reuse.set(false);
                     }
                 }
                 else {
@@ -36,6 +36,7 @@ import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Home;
 import ch.cyberduck.core.features.Move;
+import ch.cyberduck.core.features.Probe;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Symlink;
 import ch.cyberduck.core.features.Timestamp;
@@ -344,6 +345,9 @@ public class FTPSession extends SSLSession<FTPClient> {
         if(type == Copy.class) {
             return (T) new DefaultCopyFeature(this);
         }
+        if(type == Probe.class) {
+            return (T) new FTPProbeFeature(this);
+        }
         return super._getFeature(type);
     }
 }
@@ -22,7 +22,9 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.webloc.UrlFileWriter;
 import ch.cyberduck.core.webloc.UrlFileWriterFactory;
@@ -118,7 +120,12 @@ public abstract class AbstractDriveListService implements ListService {
             return children;
         }
         catch(IOException e) {
-            throw new DriveExceptionMappingService().map("Listing directory failed", e, directory);
+            final BackgroundException failure = new DriveExceptionMappingService().map("Listing directory failed", e, directory);
+            if(failure instanceof NotfoundException) {
+                // Cached identifier of directory may be stale
+                FileidCache.get(session.getHost()).remove(directory);
+            }
+            throw failure;
         }
     }
 
@@ -18,24 +18,17 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
-import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
-import org.apache.http.client.HttpResponseException;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
-import com.google.api.client.googleapis.batch.BatchRequest;
-import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
-import com.google.api.client.googleapis.json.GoogleJsonError;
-import com.google.api.client.http.HttpHeaders;
 import com.google.api.services.drive.model.File;
 
 public class DriveBatchDeleteFeature implements Delete {
@@ -51,43 +44,38 @@ public class DriveBatchDeleteFeature implements Delete {
 
     @Override
     public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        final BatchRequest batch = session.getClient().batch();
-        final List<BackgroundException> failures = new ArrayList<>();
-        for(Path file : files.keySet()) {
-            try {
-                if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
-                    session.getClient().teamdrives().delete(fileid.getFileid(file, new DisabledListProgressListener()))
-                        .queue(batch, new DeleteBatchCallback<Void>(file, failures, callback));
-                }
-                else {
-                    if(PreferencesFactory.get().getBoolean("googledrive.delete.trash")) {
-                        final File properties = new File();
-                        properties.setTrashed(true);
-                        session.getClient().files().update(fileid.getFileid(file, new DisabledListProgressListener()), properties)
-                            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                            .queue(batch, new DeleteBatchCallback<File>(file, failures, callback));
+        try {
+            final DriveBatchExecutor executor = new DriveBatchExecutor(session);
+            for(Path file : files.keySet()) {
+                try {
+                    if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
+                        executor.queue(session.getClient().teamdrives().delete(fileid.getFileid(file, new DisabledListProgressListener())),
+                            file, "Cannot delete {0}", (f, response) -> callback.delete(f));
                     }
                     else {
-                        session.getClient().files().delete(fileid.getFileid(file, new DisabledListProgressListener()))
-                            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                            .queue(batch, new DeleteBatchCallback<Void>(file, failures, callback));
+                        if(PreferencesFactory.get().getBoolean("googledrive.delete.trash")) {
+                            final File properties = new File();
+                            properties.setTrashed(true);
+                            executor.queue(session.getClient().files().update(fileid.getFileid(file, new DisabledListProgressListener()), properties)
+                                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")),
+                                file, "Cannot delete {0}", (f, response) -> callback.delete(f));
+                        }
+                        else {
+                            executor.queue(session.getClient().files().delete(fileid.getFileid(file, new DisabledListProgressListener()))
+                                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")),
+                                file, "Cannot delete {0}", (f, response) -> callback.delete(f));
+                        }
                     }
                 }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
             }
-            catch(IOException e) {
-                throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
-            }
+            executor.execute();
         }
-        if(!files.isEmpty()) {
-            try {
-                batch.execute();
-            }
-            catch(IOException e) {
-                throw new DriveExceptionMappingService().map(e);
-            }
-            for(BackgroundException e : failures) {
-                throw e;
-            }
+        finally {
+            // Identifiers of deleted directories are no longer valid
+            FileidCache.get(session.getHost()).remove(files.keySet());
         }
     }
 
@@ -95,28 +83,4 @@ public class DriveBatchDeleteFeature implements Delete {
     public boolean isRecursive() {
         return false;
     }
-
-    private static class DeleteBatchCallback<V> extends JsonBatchCallback<V> {
-        private final Path file;
-        private final List<BackgroundException> failures;
-        private final Callback callback;
-
-        public DeleteBatchCallback(final Path file, final List<BackgroundException> failures, final Callback callback) {
-            this.file = file;
-            this.failures = failures;
-            this.callback = callback;
-        }
-
-        @Override
-        public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) {
-            log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
-            failures.add(new DefaultHttpResponseExceptionMappingService().map(
-                new HttpResponseException(e.getCode(), e.getMessage())));
-        }
-
-        @Override
-        public void onSuccess(final V aVoid, final HttpHeaders responseHeaders) {
-            callback.delete(file);
-        }
-    }
 }
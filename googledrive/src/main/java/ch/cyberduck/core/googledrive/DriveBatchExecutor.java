@@ -0,0 +1,135 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.http.client.HttpResponseException;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClientRequest;
+import com.google.api.client.http.HttpHeaders;
+
+/**
+ * Collect requests to execute them with the batch endpoint. Requests are sent when the maximum number of calls allowed
+ * in a single batch is reached or when executed explicitly. Failures of individual requests are collected and thrown
+ * when executed.
+ */
+public class DriveBatchExecutor {
+    private static final Logger log = Logger.getLogger(DriveBatchExecutor.class);
+
+    private final DriveSession session;
+    /**
+     * Maximum number of calls in a single batch request
+     */
+    private final int size;
+
+    private final List<BackgroundException> failures = new ArrayList<>();
+
+    private BatchRequest batch;
+
+    public DriveBatchExecutor(final DriveSession session) {
+        this(session, PreferencesFactory.get().getInteger("googledrive.batch.size"));
+    }
+
+    public DriveBatchExecutor(final DriveSession session, final int size) {
+        this.session = session;
+        this.size = size;
+    }
+
+    /**
+     * Add request to batch. Sends pending requests first when batch is full.
+     *
+     * @param request  Request not yet executed
+     * @param file     File operated on
+     * @param message  Error message for failure
+     * @param callback Notified with response of request
+     */
+    public <T> void queue(final AbstractGoogleJsonClientRequest<T> request, final Path file, final String message,
+                          final Callback<T> callback) throws BackgroundException {
+        if(null == batch) {
+            batch = session.getClient().batch();
+        }
+        if(batch.size() == size) {
+            this.flush();
+        }
+        try {
+            request.queue(batch, new JsonBatchCallback<T>() {
+                @Override
+                public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) {
+                    log.warn(String.format("Failure for %s in batch. %s", file, e.getMessage()));
+                    failures.add(new DefaultHttpResponseExceptionMappingService().map(message,
+                        new HttpResponseException(e.getCode(), e.getMessage()), file));
+                }
+
+                @Override
+                public void onSuccess(final T response, final HttpHeaders responseHeaders) {
+                    callback.success(file, response);
+                }
+            });
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService().map(message, e, file);
+        }
+    }
+
+    /**
+     * Send pending requests
+     *
+     * @throws BackgroundException First failure of any request queued since last execution
+     */
+    public void execute() throws BackgroundException {
+        this.flush();
+        if(!failures.isEmpty()) {
+            final BackgroundException failure = failures.get(0);
+            failures.clear();
+            throw failure;
+        }
+    }
+
+    private void flush() throws BackgroundException {
+        if(null == batch) {
+            return;
+        }
+        if(0 == batch.size()) {
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Execute batch with %d requests", batch.size()));
+        }
+        try {
+            // Batch is empty after execution and can be reused
+            batch.execute();
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService().map(e);
+        }
+    }
+
+    public interface Callback<T> {
+        void success(Path file, T response);
+    }
+}
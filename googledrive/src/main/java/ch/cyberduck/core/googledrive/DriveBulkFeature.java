@@ -0,0 +1,152 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Bulk;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.Transfer;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.model.File;
+
+/**
+ * Create missing folders of upload prior transfer using batch requests. Parents are created before children level by
+ * level to have their identifier available.
+ */
+public class DriveBulkFeature implements Bulk<Void> {
+    private static final Logger log = Logger.getLogger(DriveBulkFeature.class);
+
+    private final DriveSession session;
+    private final DriveFileidProvider fileid;
+
+    private Cache<Path> cache = PathCache.empty();
+
+    public DriveBulkFeature(final DriveSession session, final DriveFileidProvider fileid) {
+        this.session = session;
+        this.fileid = fileid;
+    }
+
+    @Override
+    public Void pre(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
+        switch(type) {
+            case upload:
+                // Folders to create grouped by depth
+                final Map<Integer, List<Map.Entry<TransferItem, TransferStatus>>> levels = new TreeMap<>();
+                for(Map.Entry<TransferItem, TransferStatus> item : files.entrySet()) {
+                    final Path file = item.getKey().remote;
+                    if(!file.isDirectory()) {
+                        continue;
+                    }
+                    if(item.getValue().isExists()) {
+                        continue;
+                    }
+                    if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
+                        // Created with directory feature when transferred
+                        continue;
+                    }
+                    levels.computeIfAbsent(StringUtils.countMatches(file.getAbsolute(), Path.DELIMITER),
+                        depth -> new ArrayList<>()).add(item);
+                }
+                for(List<Map.Entry<TransferItem, TransferStatus>> level : levels.values()) {
+                    this.mkdir(level);
+                }
+        }
+        return null;
+    }
+
+    private void mkdir(final List<Map.Entry<TransferItem, TransferStatus>> folders) throws BackgroundException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Create %d folders in batch", folders.size()));
+        }
+        final DriveBatchExecutor executor = new DriveBatchExecutor(session);
+        for(Map.Entry<TransferItem, TransferStatus> item : folders) {
+            final Path folder = item.getKey().remote;
+            final TransferStatus status = item.getValue();
+            final String parent;
+            try {
+                parent = fileid.withCache(cache).getFileid(folder.getParent(), new DisabledListProgressListener());
+            }
+            catch(NotfoundException e) {
+                log.warn(String.format("Skip %s with missing parent. %s", folder, e));
+                continue;
+            }
+            final File properties = new File()
+                .setName(folder.getName())
+                .setMimeType("application/vnd.google-apps.folder")
+                .setParents(Collections.singletonList(parent));
+            if(status.getTimestamp() != null) {
+                properties.setModifiedTime(new DateTime(status.getTimestamp()));
+            }
+            try {
+                executor.queue(session.getClient().files().create(properties)
+                        .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")),
+                    folder, "Cannot create folder {0}", (file, response) -> {
+                        // Identifier available to children in next level
+                        fileid.set(file, response.getId());
+                        // Skip when transferred
+                        status.setExists(true);
+                        status.setComplete();
+                    });
+            }
+            catch(IOException e) {
+                throw new DriveExceptionMappingService().map("Cannot create folder {0}", e, folder);
+            }
+        }
+        try {
+            executor.execute();
+        }
+        catch(BackgroundException e) {
+            // Folders not created are retried with directory feature when transferred
+            log.warn(String.format("Failure creating folders in batch. %s", e));
+        }
+    }
+
+    @Override
+    public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
+        //
+    }
+
+    @Override
+    public Bulk<Void> withDelete(final Delete delete) {
+        return this;
+    }
+
+    @Override
+    public Bulk<Void> withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        return this;
+    }
+}
@@ -0,0 +1,193 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ChangeSet;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.UnsupportedException;
+import ch.cyberduck.core.features.ChangeFeed;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.http.HttpStatus;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+
+/**
+ * Changes retrieved with <code>changes.list</code> for files in My Drive or a shared drive. Locations of changed files
+ * are resolved by following their parents up to the root directory.
+ */
+public class DriveChangeFeedFeature implements ChangeFeed {
+    private static final Logger log = Logger.getLogger(DriveChangeFeedFeature.class);
+
+    private static final String FOLDER_MIMETYPE = "application/vnd.google-apps.folder";
+
+    private final DriveSession session;
+    private final DriveFileidProvider fileid;
+
+    public DriveChangeFeedFeature(final DriveSession session, final DriveFileidProvider fileid) {
+        this.session = session;
+        this.fileid = fileid;
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        try {
+            final Drive.Changes.GetStartPageToken request = session.getClient().changes().getStartPageToken()
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"));
+            final String teamdrive = this.getTeamDriveId(directory);
+            if(teamdrive != null) {
+                request.setTeamDriveId(teamdrive);
+            }
+            return request.execute().getStartPageToken();
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    @Override
+    public ChangeSet changes(final Path directory, final String cursor) throws BackgroundException {
+        final String teamdrive = this.getTeamDriveId(directory);
+        try {
+            // Resolve alias of root folder to identifier found in parents of files
+            final String root = session.getClient().files().get(fileid.getFileid(directory, new DisabledListProgressListener()))
+                .setFields("id")
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute().getId();
+            final Map<String, Path> folders = new HashMap<>();
+            folders.put(root, directory);
+            final Set<String> outside = new HashSet<>();
+            final List<Path> files = new ArrayList<>();
+            final Set<String> ids = new HashSet<>();
+            String page = cursor;
+            while(true) {
+                final Drive.Changes.List request = session.getClient().changes().list(page)
+                    .setPageSize(PreferencesFactory.get().getInteger("googledrive.list.limit"))
+                    .setIncludeRemoved(true)
+                    .setFields("nextPageToken,newStartPageToken,changes(fileId,removed,file(id,name,mimeType,parents))")
+                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
+                    .setIncludeTeamDriveItems(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"));
+                if(teamdrive != null) {
+                    request.setTeamDriveId(teamdrive);
+                }
+                final ChangeList list;
+                try {
+                    list = request.execute();
+                }
+                catch(GoogleJsonResponseException e) {
+                    switch(e.getStatusCode()) {
+                        case HttpStatus.SC_BAD_REQUEST:
+                        case HttpStatus.SC_NOT_FOUND:
+                            log.warn(String.format("Failure retrieving changes with cursor %s. %s", page, e.getMessage()));
+                            // Start over with full synchronization
+                            return new ChangeSet(this.cursor(directory)).withComplete(false);
+                    }
+                    throw e;
+                }
+                for(Change change : list.getChanges()) {
+                    if(null == change.getFileId()) {
+                        // Change to shared drive
+                        continue;
+                    }
+                    // Previous location unknown for moved or deleted files
+                    ids.add(change.getFileId());
+                    final File f = change.getFile();
+                    if(null == f || null == f.getParents() || f.getParents().isEmpty()) {
+                        continue;
+                    }
+                    final Path parent = this.resolve(f.getParents().get(0), folders, outside);
+                    if(null == parent) {
+                        continue;
+                    }
+                    files.add(new Path(parent, f.getName(),
+                        FOLDER_MIMETYPE.equals(f.getMimeType()) ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
+                        new PathAttributes().withVersionId(f.getId())));
+                }
+                if(null == list.getNextPageToken()) {
+                    final ChangeSet changes = new ChangeSet(list.getNewStartPageToken());
+                    for(Path file : files) {
+                        changes.withFile(file);
+                    }
+                    for(String id : ids) {
+                        changes.withId(id);
+                    }
+                    return changes;
+                }
+                page = list.getNextPageToken();
+            }
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    /**
+     * @param id       Folder identifier
+     * @param folders  Resolved folders below root directory
+     * @param outside  Folders not contained in root directory
+     * @return Null if folder is not contained in root directory
+     */
+    private Path resolve(final String id, final Map<String, Path> folders, final Set<String> outside) throws IOException {
+        if(folders.containsKey(id)) {
+            return folders.get(id);
+        }
+        if(outside.contains(id)) {
+            return null;
+        }
+        final File f = session.getClient().files().get(id).setFields("id,name,parents")
+            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+        final Path parent = null == f.getParents() || f.getParents().isEmpty() ? null : this.resolve(f.getParents().get(0), folders, outside);
+        if(null == parent) {
+            outside.add(id);
+            return null;
+        }
+        final Path folder = new Path(parent, f.getName(), EnumSet.of(Path.Type.directory), new PathAttributes().withVersionId(f.getId()));
+        folders.put(id, folder);
+        return folder;
+    }
+
+    /**
+     * @return Identifier of shared drive or null for My Drive
+     */
+    private String getTeamDriveId(final Path directory) throws BackgroundException {
+        for(Path f = directory; !f.isRoot(); f = f.getParent()) {
+            if(new SimplePathPredicate(DriveHomeFinderService.MYDRIVE_FOLDER).test(f)) {
+                return null;
+            }
+            if(new SimplePathPredicate(DriveHomeFinderService.TEAM_DRIVES_NAME).test(f.getParent())) {
+                return fileid.getFileid(f, new DisabledListProgressListener());
+            }
+        }
+        throw new UnsupportedException(String.format("No changes available for %s", directory.getAbsolute()));
+    }
+}
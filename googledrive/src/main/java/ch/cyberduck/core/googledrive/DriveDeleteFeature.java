@@ -18,6 +18,7 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -40,31 +41,37 @@ public class DriveDeleteFeature implements Delete {
 
     @Override
     public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        for(Path file : files.keySet()) {
-            if(file.getType().contains(Path.Type.placeholder)) {
-                continue;
-            }
-            callback.delete(file);
-            try {
-                if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
-                    session.getClient().teamdrives().delete(fileid.getFileid(file, new DisabledListProgressListener())).execute();
+        try {
+            for(Path file : files.keySet()) {
+                if(file.getType().contains(Path.Type.placeholder)) {
+                    continue;
                 }
-                else {
-                    if(PreferencesFactory.get().getBoolean("googledrive.delete.trash")) {
-                        final File properties = new File();
-                        properties.setTrashed(true);
-                        session.getClient().files().update(fileid.getFileid(file, new DisabledListProgressListener()), properties)
-                            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+                callback.delete(file);
+                try {
+                    if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
+                        session.getClient().teamdrives().delete(fileid.getFileid(file, new DisabledListProgressListener())).execute();
                     }
                     else {
-                        session.getClient().files().delete(fileid.getFileid(file, new DisabledListProgressListener()))
-                            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+                        if(PreferencesFactory.get().getBoolean("googledrive.delete.trash")) {
+                            final File properties = new File();
+                            properties.setTrashed(true);
+                            session.getClient().files().update(fileid.getFileid(file, new DisabledListProgressListener()), properties)
+                                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+                        }
+                        else {
+                            session.getClient().files().delete(fileid.getFileid(file, new DisabledListProgressListener()))
+                                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+                        }
                     }
                 }
+                catch(IOException e) {
+                    throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
             }
-            catch(IOException e) {
-                throw new DriveExceptionMappingService().map("Cannot delete {0}", e, file);
-            }
+        }
+        finally {
+            // Identifiers of deleted directories are no longer valid
+            FileidCache.get(session.getHost()).remove(files.keySet());
         }
     }
 
@@ -22,6 +22,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
@@ -33,10 +34,13 @@ public class DriveFileidProvider implements IdProvider {
 
     private final DriveSession session;
 
+    private final FileidCache fileids;
+
     private Cache<Path> cache = PathCache.empty();
 
     public DriveFileidProvider(final DriveSession session) {
         this.session = session;
+        this.fileids = FileidCache.get(session.getHost());
     }
 
     @Override
@@ -59,6 +63,11 @@ public class DriveFileidProvider implements IdProvider {
                 }
             }
         }
+        final String cached = fileids.get(file);
+        if(null != cached) {
+            file.attributes().setVersionId(cached);
+            return cached;
+        }
         if(DriveHomeFinderService.TEAM_DRIVES_NAME.equals(file.getParent())) {
             final Path found = new DriveTeamDrivesListService(session).withCache(cache).list(file.getParent(), listener).find(
                 new SimplePathPredicate(file)
@@ -75,7 +84,16 @@ public class DriveFileidProvider implements IdProvider {
         else {
             query = file;
         }
-        final AttributedList<Path> list = new FileidDriveListService(session, this, query).list(file.getParent(), new DisabledListProgressListener());
+        final AttributedList<Path> list;
+        try {
+            list = new FileidDriveListService(session, this, query).list(file.getParent(), new DisabledListProgressListener());
+        }
+        catch(NotfoundException e) {
+            // Cached identifier of parent may be stale
+            fileids.remove(file.getParent());
+            throw e;
+        }
+        fileids.put(list);
         final Path found = list.find(new IgnoreTrashedPathPredicate(file));
         if(null == found) {
             throw new NotfoundException(file.getAbsolute());
@@ -85,6 +103,7 @@ public class DriveFileidProvider implements IdProvider {
 
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        fileids.put(file, id);
         return id;
     }
 
@@ -18,6 +18,7 @@ package ch.cyberduck.core.googledrive;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
@@ -27,6 +28,7 @@ import ch.cyberduck.core.transfer.TransferStatus;
 import org.apache.commons.codec.binary.StringUtils;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 
 import com.google.api.services.drive.model.File;
@@ -47,40 +49,46 @@ public class DriveMoveFeature implements Move {
     @Override
     public Path move(final Path file, final Path renamed, final TransferStatus status, final Delete.Callback callback, final ConnectionCallback connectionCallback) throws BackgroundException {
         try {
-            if(status.isExists()) {
-                delete.delete(Collections.singletonMap(renamed, status), connectionCallback, callback);
+            try {
+                if(status.isExists()) {
+                    delete.delete(Collections.singletonMap(renamed, status), connectionCallback, callback);
+                }
+                final String id = fileid.getFileid(file, new DisabledListProgressListener());
+                if(!StringUtils.equals(file.getName(), renamed.getName())) {
+                    // Rename title
+                    final File properties = new File();
+                    properties.setName(renamed.getName());
+                    properties.setMimeType(status.getMime());
+                    session.getClient().files().update(id, properties).
+                        setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+                }
+                // Retrieve the existing parents to remove
+                final StringBuilder previousParents = new StringBuilder();
+                final File reference = session.getClient().files().get(id)
+                    .setFields("parents")
+                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
+                    .execute();
+                for(String parent : reference.getParents()) {
+                    previousParents.append(parent);
+                    previousParents.append(',');
+                }
+                // Move the file to the new folder
+                session.getClient().files().update(id, null)
+                    .setAddParents(fileid.getFileid(renamed.getParent(), new DisabledListProgressListener()))
+                    .setRemoveParents(previousParents.toString())
+                    .setFields("id, parents")
+                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
+                    .execute();
+                return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
+                    new DriveAttributesFinderFeature(session, fileid).find(renamed));
             }
-            final String id = fileid.getFileid(file, new DisabledListProgressListener());
-            if(!StringUtils.equals(file.getName(), renamed.getName())) {
-                // Rename title
-                final File properties = new File();
-                properties.setName(renamed.getName());
-                properties.setMimeType(status.getMime());
-                session.getClient().files().update(id, properties).
-                    setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+            catch(IOException e) {
+                throw new DriveExceptionMappingService().map("Cannot rename {0}", e, file);
             }
-            // Retrieve the existing parents to remove
-            final StringBuilder previousParents = new StringBuilder();
-            final File reference = session.getClient().files().get(id)
-                .setFields("parents")
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                .execute();
-            for(String parent : reference.getParents()) {
-                previousParents.append(parent);
-                previousParents.append(',');
-            }
-            // Move the file to the new folder
-            session.getClient().files().update(id, null)
-                .setAddParents(fileid.getFileid(renamed.getParent(), new DisabledListProgressListener()))
-                .setRemoveParents(previousParents.toString())
-                .setFields("id, parents")
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                .execute();
-            return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
-                new DriveAttributesFinderFeature(session, fileid).find(renamed));
         }
-        catch(IOException e) {
-            throw new DriveExceptionMappingService().map("Cannot rename {0}", e, file);
+        finally {
+            // Identifiers of moved directories are no longer valid
+            FileidCache.get(session.getHost()).remove(Arrays.asList(file, renamed));
         }
     }
 
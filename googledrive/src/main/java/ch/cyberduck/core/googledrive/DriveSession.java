@@ -116,6 +116,7 @@ public class DriveSession extends HttpSession<Drive> {
 
     @Override
     protected void logout() throws BackgroundException {
+        authorizationService.shutdown();
         try {
             transport.shutdown();
         }
@@ -143,6 +144,9 @@ public class DriveSession extends HttpSession<Drive> {
         if(type == Upload.class) {
             return (T) new DriveUploadFeature(new DriveWriteFeature(this, fileid));
         }
+        if(type == Bulk.class) {
+            return (T) new DriveBulkFeature(this, fileid);
+        }
         if(type == Directory.class) {
             return (T) new DriveDirectoryFeature(this, fileid);
         }
@@ -188,6 +192,9 @@ public class DriveSession extends HttpSession<Drive> {
         if(type == AttributesFinder.class) {
             return (T) new DriveAttributesFinderFeature(this, fileid);
         }
+        if(type == ChangeFeed.class) {
+            return (T) new DriveChangeFeedFeature(this, fileid);
+        }
         return super._getFeature(type);
     }
 
@@ -75,6 +75,7 @@ public class GoogleStorageSession extends HttpSession<Storage> {
 
     @Override
     protected void logout() throws BackgroundException {
+        authorizationService.shutdown();
         try {
             transport.shutdown();
         }
@@ -75,6 +75,12 @@ public class HubicSession extends SwiftSession {
         }
     }
 
+    @Override
+    protected void logout() throws BackgroundException {
+        authorizationService.shutdown();
+        super.logout();
+    }
+
     @Override
     public <T> T _getFeature(final Class<T> type) {
         if(type == DistributionConfiguration.class) {
@@ -17,6 +17,7 @@ package ch.cyberduck.core.irods;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.Host;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -29,10 +30,32 @@ public class DefaultTransferOptionsConfigurer {
     public TransferOptions configure(final TransferOptions options) {
         options.setPutOption(TransferOptions.PutOptions.NORMAL);
         options.setForceOption(TransferOptions.ForceOption.ASK_CALLBACK_LISTENER);
-        options.setMaxThreads(preferences.getInteger("queue.connections.limit"));
+        // Upper bound of streams requested with number of threads negotiated with server
+        options.setMaxThreads(preferences.getInteger("irods.parallel.threads"));
         // Enable progress callbacks
         options.setIntraFileStatusCallbacks(true);
         options.setIntraFileStatusCallbacksNumberCallsInterval(1);
         return options;
     }
+
+    /**
+     * Enable parallel transfer for concurrent transfer type of bookmark
+     *
+     * @param host    Bookmark
+     * @param options Transfer options
+     * @param streams Number of streams reserved for transfer
+     * @return Options with parallel transfer enabled if more than a single stream is available
+     */
+    public TransferOptions configure(final Host host, final TransferOptions options, final int streams) {
+        final boolean concurrent;
+        if(Host.TransferType.unknown.equals(host.getTransferType())) {
+            concurrent = Host.TransferType.valueOf(preferences.getProperty("queue.transfer.type")).equals(Host.TransferType.concurrent);
+        }
+        else {
+            concurrent = host.getTransferType().equals(Host.TransferType.concurrent);
+        }
+        options.setUseParallelTransfer(concurrent && streams > 1);
+        options.setMaxThreads(Math.max(1, streams));
+        return options;
+    }
 }
@@ -40,19 +40,22 @@ public class DefaultTransferStatusCallbackListener implements TransferStatusCall
     }
 
     @Override
-    public FileStatusCallbackResponse statusCallback(final org.irods.jargon.core.transfer.TransferStatus t) {
+    public synchronized FileStatusCallbackResponse statusCallback(final org.irods.jargon.core.transfer.TransferStatus t) {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Progress with %s", t));
         }
-        final long bytes = t.getBytesTransfered() - status.getOffset();
-        status.progress(bytes);
-        switch(t.getTransferType()) {
-            case GET:
-                listener.recv(bytes);
-                break;
-            case PUT:
-                listener.sent(bytes);
-                break;
+        // Reports from parallel streams with total of bytes transferred may arrive out of order
+        final long bytes = Math.max(0L, t.getBytesTransfered() - status.getOffset());
+        if(bytes > 0L) {
+            status.progress(bytes);
+            switch(t.getTransferType()) {
+                case GET:
+                    listener.recv(bytes);
+                    break;
+                case PUT:
+                    listener.sent(bytes);
+                    break;
+            }
         }
         try {
             status.validate();
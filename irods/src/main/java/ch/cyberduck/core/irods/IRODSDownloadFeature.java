@@ -18,7 +18,6 @@ package ch.cyberduck.core.irods;
  */
 
 import ch.cyberduck.core.ConnectionCallback;
-import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
@@ -29,9 +28,11 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultDownloadFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.packinstr.TransferOptions;
 import org.irods.jargon.core.pub.DataTransferOperations;
@@ -43,11 +44,17 @@ import org.irods.jargon.core.transfer.TransferControlBlock;
 import java.io.File;
 
 public class IRODSDownloadFeature implements Download {
+    private static final Logger log = Logger.getLogger(IRODSDownloadFeature.class);
 
     private final IRODSSession session;
 
     private final Preferences preferences = PreferencesFactory.get();
 
+    /**
+     * Stream based download when set
+     */
+    private Read reader;
+
     public IRODSDownloadFeature(final IRODSSession session) {
         this.session = session;
     }
@@ -56,6 +63,14 @@ public class IRODSDownloadFeature implements Download {
     public void download(final Path file, final Local local, final BandwidthThrottle throttle,
                          final StreamListener listener, final TransferStatus status,
                          final ConnectionCallback callback) throws BackgroundException {
+        if(null != reader || status.isAppend() || BandwidthThrottle.UNLIMITED != throttle.getRate()) {
+            // Data transfer operations of client library do not support custom reader, resume or bandwidth limit
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Use stream based download for %s", file));
+            }
+            new DefaultDownloadFeature(null == reader ? new IRODSReadFeature(session) : reader).download(file, local, throttle, listener, status, callback);
+            return;
+        }
         try {
             final IRODSFileSystemAO fs = session.getClient();
             final IRODSFile f = fs.getIRODSFileFactory().instanceIRODSFile(file.getAbsolute());
@@ -63,18 +78,20 @@ public class IRODSDownloadFeature implements Download {
                 final TransferControlBlock block = DefaultTransferControlBlock.instance(StringUtils.EMPTY,
                         preferences.getInteger("connection.retry"));
                 final TransferOptions options = new DefaultTransferOptionsConfigurer().configure(new TransferOptions());
-                if(Host.TransferType.unknown.equals(session.getHost().getTransferType())) {
-                    options.setUseParallelTransfer(Host.TransferType.valueOf(PreferencesFactory.get().getProperty("queue.transfer.type")).equals(Host.TransferType.concurrent));
+                // Share streams with concurrent transfers
+                final IRODSTransferThreads threads = IRODSTransferThreads.get(session.getHost());
+                final int streams = threads.acquire(options.getMaxThreads());
+                try {
+                    block.setTransferOptions(new DefaultTransferOptionsConfigurer().configure(session.getHost(), options, streams));
+                    final DataTransferOperations transfer = fs.getIRODSAccessObjectFactory()
+                            .getDataTransferOperations(fs.getIRODSAccount());
+                    transfer.getOperation(f, new File(local.getAbsolute()),
+                            new DefaultTransferStatusCallbackListener(status, listener, block),
+                            block);
                 }
-                else {
-                    options.setUseParallelTransfer(session.getHost().getTransferType().equals(Host.TransferType.concurrent));
+                finally {
+                    threads.release(streams);
                 }
-                block.setTransferOptions(options);
-                final DataTransferOperations transfer = fs.getIRODSAccessObjectFactory()
-                        .getDataTransferOperations(fs.getIRODSAccount());
-                transfer.getOperation(f, new File(local.getAbsolute()),
-                        new DefaultTransferStatusCallbackListener(status, listener, block),
-                        block);
             }
             else {
                 throw new NotfoundException(file.getAbsolute());
@@ -86,12 +103,13 @@ public class IRODSDownloadFeature implements Download {
     }
 
     @Override
-    public boolean offset(final Path file) {
-        return false;
+    public boolean offset(final Path file) throws BackgroundException {
+        return (null == reader ? new IRODSReadFeature(session) : reader).offset(file);
     }
 
     @Override
     public Download withReader(final Read reader) {
+        this.reader = reader;
         return this;
     }
 }
@@ -30,11 +30,13 @@ import ch.cyberduck.core.exception.LoginFailureException;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Directory;
+import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Home;
 import ch.cyberduck.core.features.Move;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Touch;
+import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -104,6 +106,10 @@ public class IRODSSession extends SSLSession<IRODSFileSystemAO> {
         properties.setIrodsParallelSocketTimeout(timeout);
         properties.setGetBufferSize(PreferencesFactory.get().getInteger("connection.chunksize"));
         properties.setPutBufferSize(PreferencesFactory.get().getInteger("connection.chunksize"));
+        // Reuse threads of parallel transfers
+        properties.setUseTransferThreadsPool(true);
+        properties.setTransferThreadPoolMaxSimultaneousTransfers(preferences.getInteger("irods.parallel.threads.limit"));
+        properties.setMaxParallelThreads(preferences.getInteger("irods.parallel.threads"));
         if(log.isDebugEnabled()) {
             log.debug(String.format("Configure client %s with properties %s", client, properties));
         }
@@ -181,6 +187,12 @@ public class IRODSSession extends SSLSession<IRODSFileSystemAO> {
         if(type == Write.class) {
             return (T) new IRODSWriteFeature(this);
         }
+        if(type == Upload.class) {
+            return (T) new IRODSUploadFeature(this);
+        }
+        if(type == Download.class) {
+            return (T) new IRODSDownloadFeature(this);
+        }
         if(type == Touch.class) {
             return (T) new IRODSTouchFeature(this);
         }
@@ -0,0 +1,83 @@
+package ch.cyberduck.core.irods;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limit of parallel streams shared by all concurrent transfers to the same host. Each transfer requests at most the
+ * number of streams not in use by other transfers from the server to not oversubscribe the resource server.
+ */
+public final class IRODSTransferThreads {
+    private static final Logger log = Logger.getLogger(IRODSTransferThreads.class);
+
+    private static final Map<String, IRODSTransferThreads> registry = new ConcurrentHashMap<>();
+
+    /**
+     * @param host Bookmark
+     * @return Streams shared by all transfers to the same host
+     */
+    public static IRODSTransferThreads get(final Host host) {
+        return registry.computeIfAbsent(new HostUrlProvider(false).get(host),
+            key -> new IRODSTransferThreads(PreferencesFactory.get().getInteger("irods.parallel.threads.limit")));
+    }
+
+    private final Semaphore permits;
+
+    public IRODSTransferThreads(final int limit) {
+        this.permits = new Semaphore(limit);
+    }
+
+    /**
+     * Reserve streams without blocking
+     *
+     * @param preferred Maximum number of streams for transfer
+     * @return Number of streams reserved. Zero if all streams are in use.
+     */
+    public int acquire(final int preferred) {
+        int acquired = 0;
+        while(acquired < preferred && permits.tryAcquire()) {
+            acquired++;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Reserved %d of %d streams with %d remaining", acquired, preferred, permits.availablePermits()));
+        }
+        return acquired;
+    }
+
+    /**
+     * @param streams Number of streams reserved for completed transfer
+     */
+    public void release(final int streams) {
+        permits.release(streams);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IRODSTransferThreads{");
+        sb.append("available=").append(permits.availablePermits());
+        sb.append('}');
+        return sb.toString();
+    }
+}
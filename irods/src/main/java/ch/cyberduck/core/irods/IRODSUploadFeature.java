@@ -19,7 +19,6 @@ package ch.cyberduck.core.irods;
 
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
-import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
@@ -33,7 +32,7 @@ import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
-import ch.cyberduck.core.shared.DefaultFindFeature;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
@@ -58,6 +57,11 @@ public class IRODSUploadFeature implements Upload<Checksum> {
 
     private final Preferences preferences = PreferencesFactory.get();
 
+    /**
+     * Stream based upload when set
+     */
+    private Write<?> writer;
+
     public IRODSUploadFeature(final IRODSSession session) {
         this.session = session;
     }
@@ -66,24 +70,34 @@ public class IRODSUploadFeature implements Upload<Checksum> {
     public Checksum upload(final Path file, final Local local, final BandwidthThrottle throttle,
                            final StreamListener listener, final TransferStatus status,
                            final ConnectionCallback callback) throws BackgroundException {
+        if(null != writer || status.isAppend() || BandwidthThrottle.UNLIMITED != throttle.getRate()) {
+            // Data transfer operations of client library do not support custom writer, resume or bandwidth limit
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Use stream based upload for %s", file));
+            }
+            final Write<?> stream = null == writer ? new IRODSWriteFeature(session) : writer;
+            new DefaultUploadFeature<>(stream).upload(file, local, throttle, listener, status, callback);
+            return null;
+        }
         try {
             final IRODSFileSystemAO fs = session.getClient();
             final IRODSFile f = fs.getIRODSFileFactory().instanceIRODSFile(file.getAbsolute());
             final TransferControlBlock block = DefaultTransferControlBlock.instance(StringUtils.EMPTY,
                 preferences.getInteger("connection.retry"));
             final TransferOptions options = new DefaultTransferOptionsConfigurer().configure(new TransferOptions());
-            if(Host.TransferType.unknown.equals(session.getHost().getTransferType())) {
-                options.setUseParallelTransfer(Host.TransferType.valueOf(PreferencesFactory.get().getProperty("queue.transfer.type")).equals(Host.TransferType.concurrent));
+            // Share streams with concurrent transfers
+            final IRODSTransferThreads threads = IRODSTransferThreads.get(session.getHost());
+            final int streams = threads.acquire(options.getMaxThreads());
+            try {
+                block.setTransferOptions(new DefaultTransferOptionsConfigurer().configure(session.getHost(), options, streams));
+                final DataTransferOperations transfer = fs.getIRODSAccessObjectFactory().getDataTransferOperations(fs.getIRODSAccount());
+                transfer.putOperation(new File(local.getAbsolute()), f, new DefaultTransferStatusCallbackListener(
+                    status, listener, block
+                ), block);
             }
-            else {
-                options.setUseParallelTransfer(session.getHost().getTransferType().equals(Host.TransferType.concurrent));
+            finally {
+                threads.release(streams);
             }
-            block.setTransferOptions(options);
-            final TransferStatus copy = new TransferStatus(status);
-            final DataTransferOperations transfer = fs.getIRODSAccessObjectFactory().getDataTransferOperations(fs.getIRODSAccount());
-            transfer.putOperation(new File(local.getAbsolute()), f, new DefaultTransferStatusCallbackListener(
-                status, listener, block
-            ), block);
             if(status.isComplete()) {
                 final DataObjectChecksumUtilitiesAO checksum = fs
                     .getIRODSAccessObjectFactory()
@@ -98,7 +112,7 @@ public class IRODSUploadFeature implements Upload<Checksum> {
                         log.warn(String.format("Skip checksum verification for %s with client side encryption enabled", file));
                     }
                     else {
-                        final Checksum expected = ChecksumComputeFactory.get(fingerprint.algorithm).compute(local.getInputStream(), copy);
+                        final Checksum expected = ChecksumComputeFactory.get(fingerprint.algorithm).compute(local.getInputStream(), new TransferStatus().length(status.getLength()));
                         if(!expected.equals(fingerprint)) {
                             throw new ChecksumException(MessageFormat.format(LocaleFactory.localizedString("Upload {0} failed", "Error"), file.getName()),
                                 MessageFormat.format("Mismatch between {0} hash {1} of uploaded data and ETag {2} returned by the server",
@@ -117,14 +131,12 @@ public class IRODSUploadFeature implements Upload<Checksum> {
 
     @Override
     public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
-        if(new DefaultFindFeature(session).withCache(cache).find(file)) {
-            return Write.override;
-        }
-        return Write.notfound;
+        return (null == writer ? new IRODSWriteFeature(session) : writer).append(file, length, cache);
     }
 
     @Override
     public Upload<Checksum> withWriter(final Write<Checksum> writer) {
+        this.writer = writer;
         return this;
     }
 }
@@ -0,0 +1,35 @@
+package ch.cyberduck.core.irods;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IRODSTransferThreadsTest {
+
+    @Test
+    public void testAcquire() {
+        final IRODSTransferThreads threads = new IRODSTransferThreads(6);
+        assertEquals(4, threads.acquire(4));
+        assertEquals(2, threads.acquire(4));
+        assertEquals(0, threads.acquire(4));
+        threads.release(4);
+        assertEquals(4, threads.acquire(8));
+        threads.release(2);
+        assertEquals(2, threads.acquire(4));
+    }
+}
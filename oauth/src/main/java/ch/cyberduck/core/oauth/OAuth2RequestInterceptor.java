@@ -17,10 +17,13 @@ package ch.cyberduck.core.oauth;
 
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.OAuthTokens;
 import ch.cyberduck.core.Protocol;
 import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.CancelCallback;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpException;
@@ -46,6 +49,11 @@ public class OAuth2RequestInterceptor extends OAuth2AuthorizationService impleme
      */
     private OAuthTokens tokens = OAuthTokens.EMPTY;
 
+    /**
+     * Tokens shared with other sessions of bookmark once authorized
+     */
+    private OAuth2TokenManager manager;
+
     public OAuth2RequestInterceptor(final HttpClient client, final Protocol protocol) {
         this(client, protocol.getOAuthTokenUrl(), protocol.getOAuthAuthorizationUrl(), protocol.getOAuthClientId(), protocol.getOAuthClientSecret(), protocol.getOAuthScopes());
     }
@@ -69,19 +77,55 @@ public class OAuth2RequestInterceptor extends OAuth2AuthorizationService impleme
         super(transport, tokenServerUrl, authorizationServerUrl, clientid, clientsecret, scopes);
     }
 
+    /**
+     * Reuse tokens of other sessions of the same bookmark
+     */
+    @Override
+    public OAuthTokens authorize(final Host bookmark, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
+        manager = OAuth2TokenManager.get(bookmark);
+        return manager.authorize(tokens, this, new BackgroundExceptionCallable<OAuthTokens>() {
+            @Override
+            public OAuthTokens call() throws BackgroundException {
+                return OAuth2RequestInterceptor.super.authorize(bookmark, prompt, cancel);
+            }
+        });
+    }
+
+    /**
+     * Stop refreshing shared tokens with this service after disconnect
+     */
+    public void shutdown() {
+        if(manager != null) {
+            manager.release(this);
+        }
+    }
+
     public void setTokens(final OAuthTokens tokens) {
         this.tokens = tokens;
+        if(manager != null) {
+            if(!StringUtils.equals(manager.get().getAccessToken(), tokens.getAccessToken())) {
+                manager.set(tokens, this);
+            }
+        }
     }
 
     public OAuthTokens refresh() throws BackgroundException {
+        if(manager != null) {
+            // Collapse with concurrent refresh of other sessions
+            return manager.refresh(tokens, this);
+        }
         return super.refresh(tokens);
     }
 
     @Override
     public void process(final HttpRequest request, final HttpContext context) throws HttpException, IOException {
+        if(manager != null) {
+            // Tokens possibly refreshed by other session
+            tokens = manager.get();
+        }
         if(tokens.isExpired()) {
             try {
-                tokens = this.refresh(tokens);
+                tokens = this.refresh();
             }
             catch(BackgroundException e) {
                 log.warn(String.format("Failure refreshing OAuth 2 tokens %s. %s", tokens, e));
@@ -0,0 +1,222 @@
+package ch.cyberduck.core.oauth;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.OAuthTokens;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens shared by all sessions of the same bookmark. Concurrent attempts to refresh the same expired tokens are
+ * collapsed into a single request to the token server. Tokens in use are refreshed in the background shortly before
+ * they expire to not interrupt requests of pooled sessions.
+ */
+public final class OAuth2TokenManager {
+    private static final Logger log = Logger.getLogger(OAuth2TokenManager.class);
+
+    private static final Map<String, OAuth2TokenManager> registry = new ConcurrentHashMap<>();
+
+    /**
+     * @param bookmark Bookmark
+     * @return Tokens shared by all sessions of the bookmark
+     */
+    public static OAuth2TokenManager get(final Host bookmark) {
+        return registry.computeIfAbsent(bookmark.getUuid(), key -> new OAuth2TokenManager(
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("oauth.refresh.margin.seconds"))));
+    }
+
+    /**
+     * Refresh tokens in background this many milliseconds before expiry
+     */
+    private final Long margin;
+
+    /**
+     * Lock for requests to token server
+     */
+    private final Object refresh = new Object();
+    /**
+     * Lock held by session running the authorization flow
+     */
+    private final Object authorization = new Object();
+
+    private volatile OAuthTokens tokens = OAuthTokens.EMPTY;
+    /**
+     * Service to refresh tokens in background
+     */
+    private volatile OAuth2AuthorizationService service;
+    /**
+     * Tokens requested by session since last update
+     */
+    private volatile boolean accessed;
+
+    private ScheduledThreadPool scheduler;
+    private ScheduledFuture timer;
+
+    public OAuth2TokenManager(final Long margin) {
+        this.margin = margin;
+    }
+
+    /**
+     * @return Currently valid tokens
+     */
+    public OAuthTokens get() {
+        accessed = true;
+        return tokens;
+    }
+
+    /**
+     * @param tokens  Tokens obtained from authorization
+     * @param service Service to refresh tokens
+     */
+    public void set(final OAuthTokens tokens, final OAuth2AuthorizationService service) {
+        this.service = service;
+        this.update(tokens);
+    }
+
+    /**
+     * Run the authorization flow unless valid tokens have been obtained by another session. Only one session at a time
+     * runs the authorization flow without blocking updates of the tokens by other sessions while waiting for user input.
+     *
+     * @param current Tokens last used by session
+     * @param service Service to refresh tokens
+     * @param flow    Authorization flow possibly prompting for user input
+     * @return Tokens shared with other sessions or obtained from authorization
+     */
+    public OAuthTokens authorize(final OAuthTokens current, final OAuth2AuthorizationService service,
+                                 final BackgroundExceptionCallable<OAuthTokens> flow) throws BackgroundException {
+        synchronized(authorization) {
+            final OAuthTokens shared = this.get();
+            if(shared.validate() && !shared.isExpired()) {
+                if(!StringUtils.equals(shared.getAccessToken(), current.getAccessToken())) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Use tokens %s shared with other sessions", shared));
+                    }
+                    return shared;
+                }
+            }
+            final OAuthTokens authorized = flow.call();
+            this.set(authorized, service);
+            return authorized;
+        }
+    }
+
+    /**
+     * Stop using service to refresh tokens in background
+     *
+     * @param service Service of disconnected session
+     */
+    public synchronized void release(final OAuth2AuthorizationService service) {
+        if(this.service == service) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Release service %s for background refresh", service));
+            }
+            this.service = null;
+        }
+    }
+
+    /**
+     * Refresh tokens unless already refreshed by another session
+     *
+     * @param stale   Tokens last used by session
+     * @param service Service to request new tokens from token server
+     * @return Tokens refreshed by this or another session
+     */
+    public OAuthTokens refresh(final OAuthTokens stale, final OAuth2AuthorizationService service) throws BackgroundException {
+        synchronized(refresh) {
+            final OAuthTokens current = tokens;
+            if(!StringUtils.equals(current.getAccessToken(), stale.getAccessToken())) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Return tokens %s already refreshed", current));
+                }
+                return current;
+            }
+            final OAuthTokens refreshed = service.refresh(current);
+            this.service = service;
+            this.update(refreshed);
+            return refreshed;
+        }
+    }
+
+    private synchronized void update(final OAuthTokens tokens) {
+        this.tokens = tokens;
+        this.accessed = false;
+        if(timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        if(StringUtils.isBlank(tokens.getRefreshToken()) || Long.MAX_VALUE == tokens.getExpiryInMilliseconds()) {
+            return;
+        }
+        if(null == scheduler) {
+            scheduler = new ScheduledThreadPool();
+        }
+        final long delay = Math.max(0L, tokens.getExpiryInMilliseconds() - margin - System.currentTimeMillis());
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Schedule refresh of tokens %s in %dms", tokens, delay));
+        }
+        timer = scheduler.schedule(() -> this.expire(tokens), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refresh tokens in background when in use by any session
+     *
+     * @param expiring Tokens about to expire
+     */
+    private void expire(final OAuthTokens expiring) {
+        final OAuth2AuthorizationService background = service;
+        if(!accessed || null == background) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip refresh of unused tokens %s", expiring));
+            }
+            this.shutdown();
+            return;
+        }
+        try {
+            this.refresh(expiring, background);
+        }
+        catch(BackgroundException e) {
+            // Sessions will retry when tokens have expired
+            log.warn(String.format("Failure refreshing OAuth tokens %s in background. %s", expiring, e));
+        }
+    }
+
+    private synchronized void shutdown() {
+        if(scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        timer = null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("OAuth2TokenManager{");
+        sb.append("tokens=").append(tokens);
+        sb.append('}');
+        return sb.toString();
+    }
+}
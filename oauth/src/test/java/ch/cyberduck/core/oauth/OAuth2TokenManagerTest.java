@@ -0,0 +1,143 @@
+package ch.cyberduck.core.oauth;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.OAuthTokens;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.api.client.http.HttpTransport;
+
+import static org.junit.Assert.*;
+
+public class OAuth2TokenManagerTest {
+
+    @Test
+    public void testSingleRefresh() throws Exception {
+        final OAuth2TokenManager manager = new OAuth2TokenManager(0L);
+        final OAuthTokens expired = new OAuthTokens("a", "r", System.currentTimeMillis() - 1000L);
+        final CountingAuthorizationService service = new CountingAuthorizationService(100L);
+        manager.set(expired, service);
+        final int sessions = 5;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(sessions);
+        final List<Future<OAuthTokens>> results = new ArrayList<>();
+        for(int i = 0; i < sessions; i++) {
+            results.add(pool.submit(new Callable<OAuthTokens>() {
+                @Override
+                public OAuthTokens call() throws Exception {
+                    start.await();
+                    return manager.refresh(expired, service);
+                }
+            }));
+        }
+        start.countDown();
+        for(Future<OAuthTokens> result : results) {
+            assertEquals("a1", result.get().getAccessToken());
+        }
+        pool.shutdown();
+        assertEquals(1, service.count.get());
+        assertEquals("a1", manager.get().getAccessToken());
+    }
+
+    @Test
+    public void testRefreshInBackground() throws Exception {
+        final OAuth2TokenManager manager = new OAuth2TokenManager(60000L);
+        final CountingAuthorizationService service = new CountingAuthorizationService(0L);
+        manager.set(new OAuthTokens("a", "r", System.currentTimeMillis() + 60100L), service);
+        // Mark tokens in use
+        assertEquals("a", manager.get().getAccessToken());
+        assertTrue(service.refreshed.await(10L, TimeUnit.SECONDS));
+        assertEquals(1, service.count.get());
+    }
+
+    @Test
+    public void testSkipRefreshUnused() throws Exception {
+        final OAuth2TokenManager manager = new OAuth2TokenManager(60000L);
+        final CountingAuthorizationService service = new CountingAuthorizationService(0L);
+        manager.set(new OAuthTokens("a", "r", System.currentTimeMillis() + 60100L), service);
+        assertFalse(service.refreshed.await(1L, TimeUnit.SECONDS));
+        assertEquals(0, service.count.get());
+    }
+
+    @Test
+    public void testSkipRefreshReleased() throws Exception {
+        final OAuth2TokenManager manager = new OAuth2TokenManager(60000L);
+        final CountingAuthorizationService service = new CountingAuthorizationService(0L);
+        manager.set(new OAuthTokens("a", "r", System.currentTimeMillis() + 60100L), service);
+        assertEquals("a", manager.get().getAccessToken());
+        manager.release(service);
+        assertFalse(service.refreshed.await(1L, TimeUnit.SECONDS));
+        assertEquals(0, service.count.get());
+    }
+
+    @Test
+    public void testAuthorizeShared() throws Exception {
+        final OAuth2TokenManager manager = new OAuth2TokenManager(0L);
+        final CountingAuthorizationService service = new CountingAuthorizationService(0L);
+        final AtomicInteger flows = new AtomicInteger();
+        final BackgroundExceptionCallable<OAuthTokens> flow = new BackgroundExceptionCallable<OAuthTokens>() {
+            @Override
+            public OAuthTokens call() {
+                return new OAuthTokens(String.format("a%d", flows.incrementAndGet()), "r", Long.MAX_VALUE);
+            }
+        };
+        assertEquals("a1", manager.authorize(OAuthTokens.EMPTY, service, flow).getAccessToken());
+        // Reuse tokens of other session
+        assertEquals("a1", manager.authorize(OAuthTokens.EMPTY, service, flow).getAccessToken());
+        assertEquals(1, flows.get());
+        // Authorize again when shared tokens are rejected
+        assertEquals("a2", manager.authorize(manager.get(), service, flow).getAccessToken());
+        assertEquals(2, flows.get());
+    }
+
+    private static final class CountingAuthorizationService extends OAuth2AuthorizationService {
+        private final AtomicInteger count = new AtomicInteger();
+        private final CountDownLatch refreshed = new CountDownLatch(1);
+        private final long delay;
+
+        public CountingAuthorizationService(final long delay) {
+            super((HttpTransport) null, null, null, null, null, Collections.emptyList());
+            this.delay = delay;
+        }
+
+        @Override
+        public OAuthTokens refresh(final OAuthTokens tokens) throws BackgroundException {
+            try {
+                Thread.sleep(delay);
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final OAuthTokens next = new OAuthTokens(String.format("a%d", count.incrementAndGet()), "r", Long.MAX_VALUE);
+            refreshed.countDown();
+            return next;
+        }
+    }
+}
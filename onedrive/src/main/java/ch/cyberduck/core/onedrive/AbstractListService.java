@@ -30,7 +30,7 @@ public abstract class AbstractListService<T> implements ListService {
     private static final Logger log = Logger.getLogger(AbstractListService.class);
 
     @Override
-    public final AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         final AttributedList<Path> children = new AttributedList<>();
         final Iterator<T> iterator = getIterator(directory);
 
@@ -15,10 +15,14 @@ package ch.cyberduck.core.onedrive;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.onedrive.features.GraphAttributesFinderFeature;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.webloc.UrlFileWriter;
@@ -43,6 +47,18 @@ public class GraphItemListService extends AbstractItemListService {
         this.attributes = new GraphAttributesFinderFeature(session);
     }
 
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        try {
+            return super.list(directory, listener);
+        }
+        catch(NotfoundException e) {
+            // Cached identifier of directory may be stale
+            FileidCache.get(session.getHost()).remove(directory);
+            throw e;
+        }
+    }
+
     @Override
     protected Iterator<OneDriveItem.Metadata> getIterator(final Path directory) throws BackgroundException {
         final OneDriveFolder folder = session.toFolder(directory);
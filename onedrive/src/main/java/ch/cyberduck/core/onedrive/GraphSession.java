@@ -23,6 +23,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.ChangeFeed;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Directory;
@@ -41,6 +42,7 @@ import ch.cyberduck.core.oauth.OAuth2ErrorResponseInterceptor;
 import ch.cyberduck.core.oauth.OAuth2RequestInterceptor;
 import ch.cyberduck.core.onedrive.features.GraphAttributesFinderFeature;
 import ch.cyberduck.core.onedrive.features.GraphBufferWriteFeature;
+import ch.cyberduck.core.onedrive.features.GraphChangeFeedFeature;
 import ch.cyberduck.core.onedrive.features.GraphCopyFeature;
 import ch.cyberduck.core.onedrive.features.GraphDeleteFeature;
 import ch.cyberduck.core.onedrive.features.GraphDirectoryFeature;
@@ -201,6 +203,7 @@ public abstract class GraphSession extends HttpSession<OneDriveAPI> {
 
     @Override
     protected void logout() throws BackgroundException {
+        authorizationService.shutdown();
         try {
             client.getExecutor().close();
         }
@@ -218,6 +221,9 @@ public abstract class GraphSession extends HttpSession<OneDriveAPI> {
         if(type == AttributesFinder.class) {
             return (T) new GraphAttributesFinderFeature(this);
         }
+        if(type == ChangeFeed.class) {
+            return (T) new GraphChangeFeedFeature(this);
+        }
         if(type == Directory.class) {
             return (T) new GraphDirectoryFeature(this);
         }
@@ -25,19 +25,13 @@ import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.MultipartWrite;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
-import ch.cyberduck.core.io.BufferInputStream;
-import ch.cyberduck.core.io.BufferOutputStream;
-import ch.cyberduck.core.io.FileBuffer;
 import ch.cyberduck.core.onedrive.GraphSession;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 
-import java.io.IOException;
-
 public class GraphBufferWriteFeature implements MultipartWrite<Void> {
     private static final Logger log = Logger.getLogger(GraphBufferWriteFeature.class);
 
@@ -55,43 +49,13 @@ public class GraphBufferWriteFeature implements MultipartWrite<Void> {
         this.attributes = attributes;
     }
 
+    /**
+     * Stream to upload session without staging contents in temporary file. The total size is only sent with the
+     * last fragment when not known in advance.
+     */
     @Override
-    public HttpResponseOutputStream<Void> write(final Path file, final TransferStatus status, final ConnectionCallback callback) {
-        final FileBuffer buffer = new FileBuffer();
-        return new HttpResponseOutputStream<Void>(new BufferOutputStream(buffer) {
-            @Override
-            public void flush() {
-                //
-            }
-
-            @Override
-            public void close() throws IOException {
-                try {
-                    // Reset offset in transfer status because data was already streamed
-                    // through StreamCopier when writing to buffer
-                    final TransferStatus range = new TransferStatus(status).length(buffer.length()).append(false);
-                    if(0L == buffer.length()) {
-                        new GraphTouchFeature(session).touch(file, new TransferStatus());
-                    }
-                    else {
-                        final HttpResponseOutputStream<Void> out = new GraphWriteFeature(session).write(file,
-                            range, callback);
-                        IOUtils.copy(new BufferInputStream(buffer), out);
-                        out.close();
-                        log.info(String.format("Completed upload for %s with status %s", file, range));
-                    }
-                    super.close();
-                }
-                catch(BackgroundException e) {
-                    throw new IOException(e);
-                }
-            }
-        }) {
-            @Override
-            public Void getStatus() {
-                return null;
-            }
-        };
+    public HttpResponseOutputStream<Void> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        return new GraphWriteFeature(session, finder, attributes).write(file, status, callback);
     }
 
     @Override
@@ -105,7 +69,7 @@ public class GraphBufferWriteFeature implements MultipartWrite<Void> {
 
     @Override
     public boolean temporary() {
-        return true;
+        return false;
     }
 
     @Override
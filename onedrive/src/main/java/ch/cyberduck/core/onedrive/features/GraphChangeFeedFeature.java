@@ -0,0 +1,245 @@
+package ch.cyberduck.core.onedrive.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ChangeSet;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.ChangeFeed;
+import ch.cyberduck.core.features.IdProvider;
+import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
+import ch.cyberduck.core.onedrive.GraphCommonsHttpRequestExecutor;
+import ch.cyberduck.core.onedrive.GraphSession;
+import ch.cyberduck.core.onedrive.OneDriveListService;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.AbstractResponseHandler;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Changes retrieved from the <code>delta</code> function of the drive containing the directory. The delta link
+ * returned is used as cursor. Locations of changed items are resolved by following their parent references up to the
+ * directory.
+ */
+public class GraphChangeFeedFeature implements ChangeFeed {
+    private static final Logger log = Logger.getLogger(GraphChangeFeedFeature.class);
+
+    private final GraphSession session;
+
+    public GraphChangeFeedFeature(final GraphSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        final Item root = this.toItem(directory);
+        try {
+            return this.delta(String.format("%s/drives/%s/root/delta?token=latest", session.getClient().getBaseURL(), root.drive), null);
+        }
+        catch(HttpResponseException e) {
+            throw new DefaultHttpResponseExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    @Override
+    public ChangeSet changes(final Path directory, final String cursor) throws BackgroundException {
+        final Item root = this.toItem(directory);
+        try {
+            final List<JsonObject> items = new ArrayList<>();
+            final String next;
+            try {
+                next = this.delta(cursor, items);
+            }
+            catch(HttpResponseException e) {
+                if(e.getStatusCode() == HttpStatus.SC_GONE) {
+                    log.warn(String.format("Cursor for %s expired. %s", directory, e.getMessage()));
+                    // Start over with full synchronization
+                    return new ChangeSet(this.cursor(directory)).withComplete(false);
+                }
+                throw e;
+            }
+            final Map<String, Path> folders = new HashMap<>();
+            folders.put(root.id, directory);
+            final Set<String> outside = new HashSet<>();
+            final ChangeSet changes = new ChangeSet(next);
+            for(JsonObject item : items) {
+                final String id = this.toString(item, "id");
+                if(null == id) {
+                    continue;
+                }
+                // Previous location unknown for moved or deleted items
+                changes.withId(String.join(String.valueOf(Path.DELIMITER), root.drive, id));
+                final String name = this.toString(item, "name");
+                final String parent = this.toString(item.getAsJsonObject("parentReference"), "id");
+                if(null == name || null == parent) {
+                    continue;
+                }
+                final Path folder = this.resolve(root.drive, parent, folders, outside);
+                if(null == folder) {
+                    continue;
+                }
+                changes.withFile(new Path(folder, name,
+                    item.has("folder") ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file),
+                    new PathAttributes().withVersionId(String.join(String.valueOf(Path.DELIMITER), root.drive, id))));
+            }
+            return changes;
+        }
+        catch(HttpResponseException e) {
+            throw new DefaultHttpResponseExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    /**
+     * Follow next links until delta link is returned
+     *
+     * @param url   Initial request
+     * @param items Changed items or null to skip
+     * @return Delta link to retrieve subsequent changes
+     */
+    private String delta(final String url, final List<JsonObject> items) throws IOException {
+        String next = url;
+        while(true) {
+            final JsonObject page = this.get(next);
+            if(items != null && page.has("value")) {
+                for(JsonElement element : page.getAsJsonArray("value")) {
+                    items.add(element.getAsJsonObject());
+                }
+            }
+            if(page.has("@odata.deltaLink")) {
+                return page.get("@odata.deltaLink").getAsString();
+            }
+            if(!page.has("@odata.nextLink")) {
+                throw new IOException(String.format("Missing delta link in response for %s", next));
+            }
+            next = page.get("@odata.nextLink").getAsString();
+        }
+    }
+
+    /**
+     * @param drive   Drive identifier
+     * @param id      Folder identifier
+     * @param folders Resolved folders below root directory
+     * @param outside Folders not contained in root directory
+     * @return Null if folder is not contained in root directory
+     */
+    private Path resolve(final String drive, final String id, final Map<String, Path> folders, final Set<String> outside) throws IOException {
+        if(folders.containsKey(id)) {
+            return folders.get(id);
+        }
+        if(outside.contains(id)) {
+            return null;
+        }
+        final JsonObject item = this.get(String.format("%s/drives/%s/items/%s?$select=id,name,parentReference",
+            session.getClient().getBaseURL(), drive, id));
+        final String parent = item.has("parentReference") ? this.toString(item.getAsJsonObject("parentReference"), "id") : null;
+        final Path folder = null == parent ? null : this.resolve(drive, parent, folders, outside);
+        if(null == folder) {
+            outside.add(id);
+            return null;
+        }
+        final Path resolved = new Path(folder, this.toString(item, "name"), EnumSet.of(Path.Type.directory),
+            new PathAttributes().withVersionId(String.join(String.valueOf(Path.DELIMITER), drive, id)));
+        folders.put(id, resolved);
+        return resolved;
+    }
+
+    private JsonObject get(final String url) throws IOException {
+        final HttpGet request = new HttpGet(url);
+        // Placeholder replaced by authorization interceptor
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer");
+        return ((GraphCommonsHttpRequestExecutor) session.getClient().getExecutor()).getClient().execute(request,
+            new AbstractResponseHandler<JsonObject>() {
+                @Override
+                public JsonObject handleEntity(final HttpEntity entity) throws IOException {
+                    return JsonParser.parseReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)).getAsJsonObject();
+                }
+            });
+    }
+
+    /**
+     * @return Drive and item identifier of directory
+     */
+    private Item toItem(final Path directory) throws BackgroundException {
+        if(directory.equals(OneDriveListService.MYFILES_NAME)) {
+            try {
+                final JsonObject root = this.get(String.format("%s/me/drive/root?$select=id,parentReference", session.getClient().getBaseURL()));
+                return new Item(this.toString(root.getAsJsonObject("parentReference"), "driveId"), this.toString(root, "id"));
+            }
+            catch(HttpResponseException e) {
+                throw new DefaultHttpResponseExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map("Listing directory {0} failed", e, directory);
+            }
+        }
+        final String[] parts = session.getFeature(IdProvider.class).getFileid(directory, new DisabledListProgressListener())
+            .split(String.valueOf(Path.DELIMITER));
+        switch(parts.length) {
+            case 2:
+                return new Item(parts[0], parts[1]);
+            case 4:
+                // Remote item
+                return new Item(parts[2], parts[3]);
+        }
+        throw new NotfoundException(directory.getAbsolute());
+    }
+
+    private String toString(final JsonObject json, final String member) {
+        if(null == json || !json.has(member) || json.get(member).isJsonNull()) {
+            return null;
+        }
+        return json.get(member).getAsString();
+    }
+
+    private static final class Item {
+        private final String drive;
+        private final String id;
+
+        private Item(final String drive, final String id) {
+            this.drive = drive;
+            this.id = id;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package ch.cyberduck.core.onedrive.features;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
@@ -43,22 +44,28 @@ public class GraphDeleteFeature implements Delete {
 
     @Override
     public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        for(Path file : files.keySet()) {
-            callback.delete(file);
-            try {
-                final OneDriveItem item = session.toItem(file);
-                item.delete();
-            }
-            catch(NotfoundException e) {
-                logger.warn(String.format("Cannot delete %s. Not found.", file));
-            }
-            catch(OneDriveAPIException e) {
-                throw new GraphExceptionMappingService().map("Cannot delete {0}", e, file);
-            }
-            catch(IOException e) {
-                throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, file);
+        try {
+            for(Path file : files.keySet()) {
+                callback.delete(file);
+                try {
+                    final OneDriveItem item = session.toItem(file);
+                    item.delete();
+                }
+                catch(NotfoundException e) {
+                    logger.warn(String.format("Cannot delete %s. Not found.", file));
+                }
+                catch(OneDriveAPIException e) {
+                    throw new GraphExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
             }
         }
+        finally {
+            // Identifiers of deleted directories are no longer valid
+            FileidCache.get(session.getHost()).remove(files.keySet());
+        }
     }
 
     @Override
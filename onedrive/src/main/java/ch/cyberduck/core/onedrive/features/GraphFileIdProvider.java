@@ -22,6 +22,7 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.IdProvider;
@@ -32,10 +33,13 @@ import org.apache.commons.lang3.StringUtils;
 public class GraphFileIdProvider implements IdProvider {
 
     private final GraphSession session;
+    private final FileidCache fileids;
+
     private Cache<Path> cache = PathCache.empty();
 
     public GraphFileIdProvider(final GraphSession session) {
         this.session = session;
+        this.fileids = FileidCache.get(session.getHost());
     }
 
     @Override
@@ -52,7 +56,21 @@ public class GraphFileIdProvider implements IdProvider {
                 }
             }
         }
-        final AttributedList<Path> list = session._getFeature(ListService.class).list(file.getParent(), listener);
+        final String cached = fileids.get(file);
+        if(null != cached) {
+            file.attributes().setVersionId(cached);
+            return cached;
+        }
+        final AttributedList<Path> list;
+        try {
+            list = session._getFeature(ListService.class).list(file.getParent(), listener);
+        }
+        catch(NotfoundException e) {
+            // Cached identifier of parent may be stale
+            fileids.remove(file.getParent());
+            throw e;
+        }
+        fileids.put(list);
         final Path found = list.find(new SimplePathPredicate(file));
         if(null == found) {
             throw new NotfoundException(file.getAbsolute());
@@ -62,6 +80,7 @@ public class GraphFileIdProvider implements IdProvider {
 
     protected String set(final Path file, final String id) {
         file.attributes().setVersionId(id);
+        fileids.put(file, id);
         return id;
     }
 
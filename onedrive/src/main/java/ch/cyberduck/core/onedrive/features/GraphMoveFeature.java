@@ -18,6 +18,7 @@ package ch.cyberduck.core.onedrive.features;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
@@ -35,6 +36,7 @@ import org.nuxeo.onedrive.client.facets.FileSystemInfoFacet;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.Collections;
 
 public class GraphMoveFeature implements Move {
@@ -49,35 +51,41 @@ public class GraphMoveFeature implements Move {
 
     @Override
     public Path move(final Path file, final Path renamed, final TransferStatus status, final Delete.Callback callback, final ConnectionCallback connectionCallback) throws BackgroundException {
-        if(status.isExists()) {
-            delete.delete(Collections.singletonMap(renamed, status), connectionCallback, callback);
-            // Reset version ID for non existing file
-            renamed.attributes().setVersionId(null);
-        }
-        final OneDrivePatchOperation patchOperation = new OneDrivePatchOperation();
-        if(!StringUtils.equals(file.getName(), renamed.getName())) {
-            patchOperation.rename(renamed.getName());
-        }
-        if(!file.getParent().equals(renamed.getParent())) {
-            final OneDriveFolder moveTarget = session.toFolder(renamed.getParent());
-            patchOperation.move(moveTarget);
-        }
-        // Keep current timestamp set
-        final FileSystemInfoFacet info = new FileSystemInfoFacet();
-        info.setLastModifiedDateTime(Instant.ofEpochMilli(file.attributes().getModificationDate()).atOffset(ZoneOffset.UTC));
-        patchOperation.facet("fileSystemInfo", info);
-        final OneDriveItem item = session.toItem(file);
         try {
-            item.patch(patchOperation);
-        }
-        catch(OneDriveAPIException e) {
-            throw new GraphExceptionMappingService().map("Cannot rename {0}", e, file);
+            if(status.isExists()) {
+                delete.delete(Collections.singletonMap(renamed, status), connectionCallback, callback);
+                // Reset version ID for non existing file
+                renamed.attributes().setVersionId(null);
+            }
+            final OneDrivePatchOperation patchOperation = new OneDrivePatchOperation();
+            if(!StringUtils.equals(file.getName(), renamed.getName())) {
+                patchOperation.rename(renamed.getName());
+            }
+            if(!file.getParent().equals(renamed.getParent())) {
+                final OneDriveFolder moveTarget = session.toFolder(renamed.getParent());
+                patchOperation.move(moveTarget);
+            }
+            // Keep current timestamp set
+            final FileSystemInfoFacet info = new FileSystemInfoFacet();
+            info.setLastModifiedDateTime(Instant.ofEpochMilli(file.attributes().getModificationDate()).atOffset(ZoneOffset.UTC));
+            patchOperation.facet("fileSystemInfo", info);
+            final OneDriveItem item = session.toItem(file);
+            try {
+                item.patch(patchOperation);
+            }
+            catch(OneDriveAPIException e) {
+                throw new GraphExceptionMappingService().map("Cannot rename {0}", e, file);
+            }
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map("Cannot rename {0}", e, file);
+            }
+            return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
+                new GraphAttributesFinderFeature(session).find(renamed));
         }
-        catch(IOException e) {
-            throw new DefaultIOExceptionMappingService().map("Cannot rename {0}", e, file);
+        finally {
+            // Identifiers of moved directories are no longer valid
+            FileidCache.get(session.getHost()).remove(Arrays.asList(file, renamed));
         }
-        return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
-            new GraphAttributesFinderFeature(session).find(renamed));
     }
 
     @Override
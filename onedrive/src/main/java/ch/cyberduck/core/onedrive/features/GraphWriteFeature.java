@@ -27,7 +27,6 @@ import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
-import ch.cyberduck.core.io.MemorySegementingOutputStream;
 import ch.cyberduck.core.onedrive.GraphExceptionMappingService;
 import ch.cyberduck.core.onedrive.GraphSession;
 import ch.cyberduck.core.preferences.Preferences;
@@ -77,10 +76,9 @@ public class GraphWriteFeature implements Write<Void> {
             final OneDriveFile oneDriveFile = new OneDriveFile(session.getClient(), folder,
                 URIEncoder.encode(file.getName()), OneDriveItem.ItemIdentifierType.Path);
             final OneDriveUploadSession upload = oneDriveFile.createUploadSession();
-            final ChunkedOutputStream proxy = new ChunkedOutputStream(upload, file, status);
             final int partsize = preferences.getInteger("onedrive.upload.multipart.partsize.minimum")
                 * preferences.getInteger("onedrive.upload.multipart.partsize.factor");
-            return new HttpResponseOutputStream<Void>(new MemorySegementingOutputStream(proxy, partsize)) {
+            return new HttpResponseOutputStream<Void>(new ChunkedOutputStream(upload, file, status, partsize)) {
                 @Override
                 public Void getStatus() {
                     return null;
@@ -114,37 +112,68 @@ public class GraphWriteFeature implements Write<Void> {
         return false;
     }
 
+    /**
+     * Upload session fragments written from a single reusable buffer. Fragments are sent when the buffer of the part
+     * size, which must be a multiple of 320 KiB, is full. The last fragment is sent with the total size when the stream
+     * is closed.
+     */
     private final class ChunkedOutputStream extends OutputStream {
         private final OneDriveUploadSession upload;
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
 
+        /**
+         * Contents of next fragment retained until acknowledged to allow retry
+         */
+        private final byte[] buffer;
+        private int count = 0;
         private Long offset = 0L;
-        private final Long length;
 
-        public ChunkedOutputStream(final OneDriveUploadSession upload, final Path file, final TransferStatus status) {
+        public ChunkedOutputStream(final OneDriveUploadSession upload, final Path file, final TransferStatus status, final Integer partsize) {
             this.upload = upload;
             this.file = file;
             this.overall = status;
-            this.length = status.getOffset() + status.getLength();
+            this.buffer = new byte[partsize];
         }
 
         @Override
         public void write(final int b) throws IOException {
-            throw new IOException(new UnsupportedOperationException());
+            this.write(new byte[]{(byte) b}, 0, 1);
         }
 
         @Override
-        public void write(final byte[] b, final int off, final int len) throws IOException {
-            final byte[] content = Arrays.copyOfRange(b, off, len);
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while(len > 0) {
+                if(count == buffer.length) {
+                    // Only send full buffer when more data follows to have the last fragment written on close
+                    this.upload(buffer, false);
+                }
+                final int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * @param content Fragment with length of buffered bytes
+         * @param last    Final fragment with total size known
+         */
+        private void upload(final byte[] content, final boolean last) throws IOException {
             final HttpRange range = HttpRange.byLength(offset, content.length);
             final String header;
             if(overall.getLength() == -1L) {
-                header = String.format("%d-%d/*", range.getStart(), range.getEnd());
+                if(last) {
+                    header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), offset + content.length);
+                }
+                else {
+                    header = String.format("%d-%d/*", range.getStart(), range.getEnd());
+                }
             }
             else {
-                header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), length);
+                header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), overall.getLength());
             }
             try {
                 new DefaultRetryCallable<Void>(session.getHost(), new BackgroundExceptionCallable<Void>() {
@@ -172,6 +201,8 @@ public class GraphWriteFeature implements Write<Void> {
                 throw new IOException(e.getMessage(), e);
             }
             offset += content.length;
+            // Reuse buffer for next fragment
+            count = 0;
         }
 
         @Override
@@ -181,6 +212,9 @@ public class GraphWriteFeature implements Write<Void> {
                     log.warn(String.format("Skip double close of stream %s", this));
                     return;
                 }
+                if(count > 0) {
+                    this.upload(count == buffer.length ? buffer : Arrays.copyOf(buffer, count), true);
+                }
                 if(0L == offset) {
                     log.warn(String.format("Abort upload session %s with no completed parts", upload));
                     // Use touch feature for empty file upload
@@ -23,13 +23,17 @@ import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -83,11 +87,8 @@ public class SwiftDeleteFeature implements Delete {
                     // Clean up any old segments, only if rename.remote-transferstatus has not been
                     // set. This indicates this has been run as a move-operation, which in turn
                     // copies a manifest for a given file as long as it is on the same container.
-                    if(deleteSegments) {
-                        for(Path segment : segments) {
-                            session.getClient().deleteObject(regionService.lookup(segment),
-                                containerService.getContainer(segment).getName(), containerService.getKey(segment));
-                        }
+                    if(deleteSegments && PreferencesFactory.get().getBoolean("openstack.delete.largeobject.segments")) {
+                        this.delete(segments);
                     }
                 }
                 else if(file.isDirectory()) {
@@ -120,6 +121,32 @@ public class SwiftDeleteFeature implements Delete {
         }
     }
 
+    /**
+     * Delete segments with bulk delete if supported
+     */
+    private void delete(final List<Path> segments) throws BackgroundException, IOException {
+        if(segments.size() > 1) {
+            final Map<Path, List<String>> containers = new HashMap<>();
+            for(Path segment : segments) {
+                containers.computeIfAbsent(containerService.getContainer(segment), container -> new ArrayList<>()).add(containerService.getKey(segment));
+            }
+            try {
+                new SwiftMultipleDeleteFeature(session, segmentService, regionService).delete(containers);
+                return;
+            }
+            catch(GenericException e) {
+                if(!(new SwiftExceptionMappingService().map(e) instanceof InteroperabilityException)) {
+                    throw e;
+                }
+                log.warn(String.format("Bulk delete not supported. %s", e.getMessage()));
+            }
+        }
+        for(Path segment : segments) {
+            session.getClient().deleteObject(regionService.lookup(segment),
+                containerService.getContainer(segment).getName(), containerService.getKey(segment));
+        }
+    }
+
     @Override
     public boolean isRecursive() {
         return false;
@@ -29,6 +29,8 @@ import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.log4j.Logger;
+
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -39,6 +41,7 @@ import ch.iterate.openstack.swift.exception.GenericException;
 import ch.iterate.openstack.swift.model.Region;
 
 public class SwiftMultipleDeleteFeature implements Delete {
+    private static final Logger log = Logger.getLogger(SwiftMultipleDeleteFeature.class);
 
     private final SwiftSession session;
 
@@ -62,66 +65,80 @@ public class SwiftMultipleDeleteFeature implements Delete {
 
     @Override
     public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        if(files.size() == 1) {
+        // Keys to delete grouped by container including segments of large objects which may be stored in other containers
+        final Map<Path, List<String>> containers = new HashMap<Path, List<String>>();
+        int count = 0;
+        for(Path file : files.keySet()) {
+            if(containerService.isContainer(file)) {
+                continue;
+            }
+            containers.computeIfAbsent(containerService.getContainer(file), container -> new ArrayList<>()).add(containerService.getKey(file));
+            count++;
+            if(file.isFile() && PreferencesFactory.get().getBoolean("openstack.delete.largeobject.segments")) {
+                // Collect a list of existing segments. Must do this before deleting the manifest file.
+                for(Path segment : segmentService.list(file)) {
+                    containers.computeIfAbsent(containerService.getContainer(segment), container -> new ArrayList<>()).add(containerService.getKey(segment));
+                    count++;
+                }
+            }
+        }
+        if(count == 1 && files.size() == 1) {
             new SwiftDeleteFeature(session, regionService).delete(files, prompt, callback);
+            return;
         }
-        else {
-            final Map<Path, List<String>> containers = new HashMap<Path, List<String>>();
-            for(Path file : files.keySet()) {
-                if(containerService.isContainer(file)) {
-                    continue;
-                }
+        for(Path file : files.keySet()) {
+            if(!containerService.isContainer(file)) {
                 callback.delete(file);
-                final Path container = containerService.getContainer(file);
-                if(containers.containsKey(container)) {
-                    containers.get(container).add(containerService.getKey(file));
-                }
-                else {
-                    final List<String> keys = new ArrayList<String>();
-                    keys.add(containerService.getKey(file));
-                    // Collect a list of existing segments. Must do this before deleting the manifest file.
-                    for(Path segment : segmentService.list(file)) {
-                        keys.add(containerService.getKey(segment));
-                    }
-                    containers.put(container, keys);
-                }
             }
-            try {
-                for(Map.Entry<Path, List<String>> container : containers.entrySet()) {
-                    final Region region = regionService.lookup(container.getKey());
-                    final List<String> keys = container.getValue();
-                    for(List<String> partition : new Partition<String>(keys, PreferencesFactory.get().getInteger("openstack.delete.multiple.partition"))) {
-                        session.getClient().deleteObjects(region, container.getKey().getName(), partition);
-                    }
-                }
+        }
+        try {
+            this.delete(containers);
+        }
+        catch(GenericException e) {
+            if(new SwiftExceptionMappingService().map(e) instanceof InteroperabilityException) {
+                log.warn(String.format("Bulk delete not supported. %s", e.getMessage()));
+                new SwiftDeleteFeature(session, regionService).delete(files, prompt, new Delete.DisabledCallback());
+                return;
+            }
+            else {
+                throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, files.keySet().iterator().next());
             }
-            catch(GenericException e) {
-                if(new SwiftExceptionMappingService().map(e) instanceof InteroperabilityException) {
-                    new SwiftDeleteFeature(session, regionService).delete(files, prompt, callback);
-                    return;
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, files.keySet().iterator().next());
+        }
+        for(Path file : files.keySet()) {
+            if(containerService.isContainer(file)) {
+                callback.delete(file);
+                // Finally delete bucket itself
+                try {
+                    session.getClient().deleteContainer(regionService.lookup(file),
+                            containerService.getContainer(file).getName());
                 }
-                else {
-                    throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, files.keySet().iterator().next());
+                catch(GenericException e) {
+                    throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, file);
                 }
             }
-            catch(IOException e) {
-                throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, files.keySet().iterator().next());
-            }
-            for(Path file : files.keySet()) {
-                if(containerService.isContainer(file)) {
-                    callback.delete(file);
-                    // Finally delete bucket itself
-                    try {
-                        session.getClient().deleteContainer(regionService.lookup(file),
-                                containerService.getContainer(file).getName());
-                    }
-                    catch(GenericException e) {
-                        throw new SwiftExceptionMappingService().map("Cannot delete {0}", e, file);
-                    }
-                    catch(IOException e) {
-                        throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, file);
-                    }
+        }
+    }
+
+    /**
+     * Delete objects using bulk delete middleware in partitions of maximum number of objects allowed per request
+     *
+     * @param containers Object keys grouped by container
+     */
+    protected void delete(final Map<Path, List<String>> containers) throws BackgroundException, IOException {
+        for(Map.Entry<Path, List<String>> container : containers.entrySet()) {
+            final Region region = regionService.lookup(container.getKey());
+            for(List<String> partition : new Partition<String>(container.getValue(),
+                    PreferencesFactory.get().getInteger("openstack.delete.multiple.partition"))) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Bulk delete %d objects in %s", partition.size(), container.getKey()));
                 }
+                session.getClient().deleteObjects(region, container.getKey().getName(), partition);
             }
         }
     }
@@ -83,7 +83,7 @@ public class SwiftThresholdUploadService implements Upload<StorageObject> {
                 }
             }
             feature = new SwiftLargeObjectUploadFeature(session, regionService, writer,
-                    preferences.getLong("openstack.upload.largeobject.size"),
+                    this.getSegmentSize(status.getLength()),
                     preferences.getInteger("openstack.upload.largeobject.concurrency"));
         }
         else {
@@ -105,6 +105,19 @@ public class SwiftThresholdUploadService implements Upload<StorageObject> {
         return checksum;
     }
 
+    /**
+     * @param length Size of file
+     * @return Segment size not exceeding the default size with a segment for every connection but within the limit of
+     * segments in a manifest
+     */
+    protected Long getSegmentSize(final Long length) {
+        final int concurrency = preferences.getInteger("openstack.upload.largeobject.concurrency");
+        final long limit = preferences.getLong("openstack.upload.largeobject.segments.max");
+        final long size = Math.min(preferences.getLong("openstack.upload.largeobject.size"), (length + concurrency - 1) / concurrency);
+        final long lower = Math.max(preferences.getLong("openstack.upload.largeobject.size.minimum"), (length + limit - 1) / limit);
+        return Math.max(lower, size);
+    }
+
     @Override
     public Upload<StorageObject> withWriter(final Write<StorageObject> writer) {
         this.writer = writer;
@@ -0,0 +1,34 @@
+package ch.cyberduck.core.openstack;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SwiftThresholdUploadServiceTest {
+
+    @Test
+    public void testSegmentSize() {
+        final SwiftThresholdUploadService service = new SwiftThresholdUploadService(null, null, null, 0L);
+        // Segment for every connection
+        assertEquals(2L * 1024L * 1024L * 1024L / 5, service.getSegmentSize(2L * 1024L * 1024L * 1024L), 1L);
+        // Default size
+        assertEquals(1000L * 1024L * 1024L, service.getSegmentSize(100L * 1024L * 1024L * 1024L), 0L);
+        // Limit of segments in manifest
+        assertEquals(1024L * 1024L * 1024L * 1024L / 1000 + 1, service.getSegmentSize(1024L * 1024L * 1024L * 1024L), 0L);
+    }
+}
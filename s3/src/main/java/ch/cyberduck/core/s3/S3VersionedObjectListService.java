@@ -25,13 +25,11 @@ import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.http.ConcurrentHttpRequestService;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -45,8 +43,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -75,7 +73,7 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
 
     /**
      * @param session     Connection
-     * @param concurrency Number of threads to handle prefixes
+     * @param concurrency Maximum number of prefixes looked up in parallel with the request service of the session
      * @param references  Set references of previous versions in file attributes
      */
     public S3VersionedObjectListService(final S3Session session, final Integer concurrency, final boolean references) {
@@ -86,12 +84,14 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("list", concurrency);
+        // Lookup of prefixes is run concurrently with requests of other features of this session
+        final ConcurrentHttpRequestService pool = session.getRequestService();
+        final Semaphore limit = new Semaphore(Math.max(1, concurrency));
+        final List<Future<Path>> folders = new ArrayList<Future<Path>>();
         try {
             final String prefix = this.createPrefix(directory);
             final Path bucket = containerService.getContainer(directory);
             final AttributedList<Path> children = new AttributedList<Path>();
-            final List<Future<Path>> folders = new ArrayList<Future<Path>>();
             String priorLastKey = null;
             String priorLastVersionId = null;
             long revision = 0L;
@@ -165,7 +165,7 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
                     if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
                         continue;
                     }
-                    folders.add(this.submit(pool, bucket, directory, URIEncoder.decode(common)));
+                    folders.add(this.submit(pool, limit, bucket, directory, URIEncoder.decode(common)));
                 }
                 priorLastKey = null != chunk.getNextKeyMarker() ? URIEncoder.decode(chunk.getNextKeyMarker()) : null;
                 priorLastVersionId = chunk.getNextVersionIdMarker();
@@ -173,20 +173,7 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
             }
             while(priorLastKey != null);
             for(Future<Path> future : folders) {
-                try {
-                    children.add(future.get());
-                }
-                catch(InterruptedException e) {
-                    log.error("Listing versioned objects failed with interrupt failure");
-                    throw new ConnectionCanceledException(e);
-                }
-                catch(ExecutionException e) {
-                    log.warn(String.format("Listing versioned objects failed with execution failure %s", e.getMessage()));
-                    if(e.getCause() instanceof BackgroundException) {
-                        throw (BackgroundException) e.getCause();
-                    }
-                    throw new BackgroundException(e.getCause());
-                }
+                children.add(pool.await(future));
             }
             listener.chunk(directory, children);
             if(!hasDirectoryPlaceholder && children.isEmpty()) {
@@ -199,12 +186,14 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
         }
         finally {
             // Cancel future tasks
-            pool.shutdown(false);
+            for(Future<Path> future : folders) {
+                future.cancel(false);
+            }
         }
     }
 
-    private Future<Path> submit(final ThreadPool pool, final Path bucket, final Path directory, final String common) {
-        return pool.execute(new BackgroundExceptionCallable<Path>() {
+    private Future<Path> submit(final ConcurrentHttpRequestService pool, final Semaphore limit, final Path bucket, final Path directory, final String common) throws BackgroundException {
+        return pool.submit(new BackgroundExceptionCallable<Path>() {
             @Override
             public Path call() throws BackgroundException {
                 final PathAttributes attributes = new PathAttributes();
@@ -236,7 +225,7 @@ public class S3VersionedObjectListService extends S3AbstractListService implemen
                     throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, prefix);
                 }
             }
-        });
+        }, limit);
     }
 
     public static final class LatestVersionPathPredicate extends SimplePathPredicate {
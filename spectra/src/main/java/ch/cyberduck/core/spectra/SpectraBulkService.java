@@ -61,8 +61,6 @@ import com.spectralogic.ds3client.commands.spectrads3.CancelAllActiveJobsSpectra
 import com.spectralogic.ds3client.commands.spectrads3.CancelJobSpectraS3Request;
 import com.spectralogic.ds3client.commands.spectrads3.GetBulkJobSpectraS3Request;
 import com.spectralogic.ds3client.commands.spectrads3.GetBulkJobSpectraS3Response;
-import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Request;
-import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Response;
 import com.spectralogic.ds3client.commands.spectrads3.PutBulkJobSpectraS3Request;
 import com.spectralogic.ds3client.commands.spectrads3.PutBulkJobSpectraS3Response;
 import com.spectralogic.ds3client.models.BulkObject;
@@ -101,9 +99,17 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
         return this;
     }
 
+    /**
+     * Stop polling chunks of jobs
+     */
     @Override
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
-        //
+        for(TransferStatus status : files.values()) {
+            final String job = status.getParameters().get(REQUEST_PARAMETER_JOBID_IDENTIFIER);
+            if(job != null) {
+                SpectraChunkPoller.remove(job);
+            }
+        }
     }
 
     /**
@@ -211,6 +217,7 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Cancel job %s", job));
             }
+            SpectraChunkPoller.remove(job);
             final Ds3Client client = new SpectraClientBuilder().wrap(session.getClient(), session.getHost());
             client.cancelJobSpectraS3(new CancelJobSpectraS3Request(job));
         }
@@ -237,60 +244,35 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
      * @throws ch.cyberduck.core.exception.RedirectException Should be accessed from different node
      */
     public List<TransferStatus> query(final Transfer.Type type, final Path file, final TransferStatus status) throws BackgroundException {
-        // This will respond with which job chunks have been loaded into cache and are ready for download.
-        try {
-            if(!status.getParameters().containsKey(REQUEST_PARAMETER_JOBID_IDENTIFIER)) {
-                throw new NotfoundException(String.format("Missing job id parameter in status for %s", file.getName()));
-            }
-            final String job = status.getParameters().get(REQUEST_PARAMETER_JOBID_IDENTIFIER);
-            if(log.isDebugEnabled()) {
-                log.debug(String.format("Query status for job %s", job));
-            }
-            // Fetch current list from server
-            final Ds3Client client = new SpectraClientBuilder().wrap(session.getClient(), session.getHost());
-            // For GET, the client may need to issue multiple GET requests for a single object if it has
-            // been broken up into multiple pieces due to its large size
-            // For PUT, This will allocate a working window of job chunks, if possible, and return a list of
-            // the job chunks that the client can upload. The client should PUT all of the object parts
-            // from the list of job chunks returned and repeat this process until all chunks are transferred
-
-            final GetJobChunksReadyForClientProcessingSpectraS3Response response = client.getJobChunksReadyForClientProcessingSpectraS3(
-                new GetJobChunksReadyForClientProcessingSpectraS3Request(UUID.fromString(job)).withPreferredNumberOfChunks(Integer.MAX_VALUE));
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Job status %s for job %s", response.getStatus(), job));
-            }
-            switch(response.getStatus()) {
-                case RETRYLATER: {
-                    final Duration delay = Duration.ofSeconds(response.getRetryAfterSeconds());
-                    throw new RetriableAccessDeniedException(String.format("Job %s not yet loaded into cache", job), delay);
-                }
-            }
-            final MasterObjectList master = response.getMasterObjectListResult();
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Master object list with %d objects for %s", master.getObjects().size(), file));
-                log.info(String.format("Master object list status %s for %s", master.getStatus(), file));
-            }
-            final List<TransferStatus> chunks = query(file, status, job, master);
-            if(chunks.isEmpty()) {
-                log.info(String.format("Still missing chunks for file %s for job %s", file.getName(), job));
-                throw new RetriableAccessDeniedException(String.format("Missing chunks for job %s", job),
-                    Duration.ofSeconds(PreferencesFactory.get().getInteger("spectra.retry.delay")));
-            }
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Server returned %d chunks for %s", chunks.size(), file));
-            }
-            return chunks;
+        if(!status.getParameters().containsKey(REQUEST_PARAMETER_JOBID_IDENTIFIER)) {
+            throw new NotfoundException(String.format("Missing job id parameter in status for %s", file.getName()));
         }
-        catch(FailedRequestException e) {
-            throw new SpectraExceptionMappingService().map(e);
+        final String job = status.getParameters().get(REQUEST_PARAMETER_JOBID_IDENTIFIER);
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Query status for job %s", job));
         }
-        catch(IOException e) {
-            throw new DefaultIOExceptionMappingService().map(e);
+        // For GET, the client may need to issue multiple GET requests for a single object if it has
+        // been broken up into multiple pieces due to its large size
+        // For PUT, This will allocate a working window of job chunks, if possible, and return a list of
+        // the job chunks that the client can upload. The client should PUT all of the object parts
+        // from the list of job chunks returned and repeat this process until all chunks are transferred
+        final SpectraChunkPoller poller = SpectraChunkPoller.get(session, job);
+        // Wait for chunks allocated while other files of the job are transferred
+        final SpectraChunkPoller.Chunks allocated = poller.await(containerService.getKey(file), status.getPart(),
+            Duration.ofSeconds(PreferencesFactory.get().getInteger("spectra.retry.delay")));
+        final List<TransferStatus> chunks = this.query(file, status, job, allocated);
+        if(chunks.isEmpty()) {
+            log.info(String.format("Still missing chunks for file %s for job %s", file.getName(), job));
+            throw new RetriableAccessDeniedException(String.format("Missing chunks for job %s", job), poller.getDelay());
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Server returned %d chunks for %s", chunks.size(), file));
         }
+        return chunks;
     }
 
     private List<TransferStatus> query(final Path file, final TransferStatus status, final String job,
-                                       final MasterObjectList master) throws BackgroundException {
+                                       final SpectraChunkPoller.Chunks master) throws BackgroundException {
         final List<TransferStatus> chunks = new ArrayList<>();
         int counter = 0;
         for(Objects objects : master.getObjects()) {
@@ -0,0 +1,319 @@
+package ch.cyberduck.core.spectra;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.spectralogic.ds3client.Ds3Client;
+import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Request;
+import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Response;
+import com.spectralogic.ds3client.models.BulkObject;
+import com.spectralogic.ds3client.models.JobNode;
+import com.spectralogic.ds3client.models.JobStatus;
+import com.spectralogic.ds3client.models.MasterObjectList;
+import com.spectralogic.ds3client.models.Objects;
+import com.spectralogic.ds3client.networking.FailedRequestException;
+
+/**
+ * Polls chunks allocated for a bulk job in the background shared by all files of the job. Chunks are requested again
+ * as soon as a file waits for chunks not yet allocated and periodically while the job is in progress so that objects
+ * of new chunk windows are available to transfers when earlier chunks drain.
+ */
+public class SpectraChunkPoller {
+    private static final Logger log = Logger.getLogger(SpectraChunkPoller.class);
+
+    private static final Map<String, SpectraChunkPoller> registry = new ConcurrentHashMap<>();
+
+    /**
+     * @param session Connection
+     * @param job     Bulk job identifier
+     * @return Poller shared by all files of the job
+     */
+    public static SpectraChunkPoller get(final SpectraSession session, final String job) {
+        return registry.computeIfAbsent(job, key -> new SpectraChunkPoller(session, UUID.fromString(key)));
+    }
+
+    /**
+     * Stop polling for job
+     *
+     * @param job Bulk job identifier
+     */
+    public static void remove(final String job) {
+        final SpectraChunkPoller poller = registry.remove(job);
+        if(poller != null) {
+            poller.shutdown();
+        }
+    }
+
+    /**
+     * Stop polling for all jobs of session
+     *
+     * @param session Connection closed
+     */
+    public static void remove(final SpectraSession session) {
+        for(Map.Entry<String, SpectraChunkPoller> entry : registry.entrySet()) {
+            if(entry.getValue().session == session) {
+                if(registry.remove(entry.getKey(), entry.getValue())) {
+                    entry.getValue().shutdown();
+                }
+            }
+        }
+    }
+
+    private final SpectraSession session;
+    private final UUID job;
+    /**
+     * Interval between requests for new chunks in milliseconds
+     */
+    private final Long interval;
+    /**
+     * Stop polling when no file waited for chunks within this period in milliseconds
+     */
+    private final Long idle;
+
+    /**
+     * Allocated chunks by chunk identifier
+     */
+    private final Map<UUID, Objects> chunks = new LinkedHashMap<>();
+    /**
+     * Number of allocated chunks by object name
+     */
+    private final Map<String, Integer> counters = new HashMap<>();
+    private final List<JobNode> nodes = new ArrayList<>();
+
+    private ScheduledThreadPool scheduler;
+    private BackgroundException failure;
+    /**
+     * Next poll scheduled
+     */
+    private boolean scheduled;
+    /**
+     * Delay until chunks are expected to be available
+     */
+    private Duration delay;
+    private long access = System.currentTimeMillis();
+
+    public SpectraChunkPoller(final SpectraSession session, final UUID job) {
+        this(session, job, PreferencesFactory.get().getLong("spectra.chunks.poll.interval"),
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("spectra.chunks.poll.idle")));
+    }
+
+    public SpectraChunkPoller(final SpectraSession session, final UUID job, final Long interval, final Long idle) {
+        this.session = session;
+        this.job = job;
+        this.interval = interval;
+        this.idle = idle;
+        this.delay = Duration.ofMillis(interval);
+    }
+
+    /**
+     * Wait for all chunks of object to be allocated
+     *
+     * @param key     Object name
+     * @param parts   Number of chunks for object in job
+     * @param timeout Maximum time to wait
+     * @return Chunks with objects matching key in order of allocation or empty if not all chunks are allocated within timeout
+     * @throws BackgroundException Failure polling chunks for job
+     */
+    public synchronized Chunks await(final String key, final int parts, final Duration timeout) throws BackgroundException {
+        access = System.currentTimeMillis();
+        final long deadline = access + timeout.toMillis();
+        while(counters.getOrDefault(key, 0) < parts) {
+            if(failure != null) {
+                final BackgroundException e = failure;
+                // Retry with next file
+                failure = null;
+                throw e;
+            }
+            // Request new chunks without waiting for interval
+            this.poll(0L);
+            final long remaining = deadline - System.currentTimeMillis();
+            if(remaining <= 0L) {
+                return new Chunks(new ArrayList<>(), new ArrayList<>(nodes));
+            }
+            try {
+                this.wait(remaining);
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+        }
+        final List<Objects> matching = new ArrayList<>();
+        for(Objects chunk : chunks.values()) {
+            for(BulkObject object : chunk.getObjects()) {
+                if(object.getName().equals(key)) {
+                    matching.add(chunk);
+                    break;
+                }
+            }
+        }
+        return new Chunks(matching, new ArrayList<>(nodes));
+    }
+
+    /**
+     * @return Delay until chunks are expected to be available
+     */
+    public synchronized Duration getDelay() {
+        return delay;
+    }
+
+    private synchronized void poll(final long millis) {
+        if(scheduled) {
+            return;
+        }
+        if(null == scheduler) {
+            scheduler = new ScheduledThreadPool();
+        }
+        scheduled = true;
+        scheduler.schedule(this::run, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        try {
+            final GetJobChunksReadyForClientProcessingSpectraS3Response response = this.request();
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Job status %s for job %s", response.getStatus(), job));
+            }
+            synchronized(this) {
+                scheduled = false;
+                switch(response.getStatus()) {
+                    case RETRYLATER:
+                        delay = Duration.ofSeconds(response.getRetryAfterSeconds());
+                        break;
+                    default:
+                        delay = Duration.ofMillis(interval);
+                        this.add(response.getMasterObjectListResult());
+                        if(JobStatus.IN_PROGRESS != response.getMasterObjectListResult().getStatus()) {
+                            if(log.isInfoEnabled()) {
+                                log.info(String.format("Stop polling chunks for job %s with status %s", job,
+                                    response.getMasterObjectListResult().getStatus()));
+                            }
+                            this.notifyAll();
+                            this.shutdown();
+                            return;
+                        }
+                }
+                this.notifyAll();
+                if(System.currentTimeMillis() - access > idle) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Stop polling idle job %s", job));
+                    }
+                    registry.remove(job.toString(), this);
+                    this.shutdown();
+                    return;
+                }
+                this.poll(delay.toMillis());
+            }
+        }
+        catch(FailedRequestException e) {
+            this.fail(new SpectraExceptionMappingService().map(e));
+        }
+        catch(IOException e) {
+            this.fail(new DefaultIOExceptionMappingService().map(e));
+        }
+        catch(BackgroundException e) {
+            this.fail(e);
+        }
+    }
+
+    /**
+     * For PUT, this will allocate a working window of job chunks if possible
+     */
+    protected GetJobChunksReadyForClientProcessingSpectraS3Response request() throws IOException, BackgroundException {
+        final Ds3Client client = new SpectraClientBuilder().wrap(session.getClient(), session.getHost());
+        return client.getJobChunksReadyForClientProcessingSpectraS3(
+            new GetJobChunksReadyForClientProcessingSpectraS3Request(job).withPreferredNumberOfChunks(Integer.MAX_VALUE));
+    }
+
+    private void add(final MasterObjectList master) {
+        for(JobNode node : master.getNodes()) {
+            if(!nodes.contains(node)) {
+                nodes.add(node);
+            }
+        }
+        for(Objects chunk : master.getObjects()) {
+            if(chunks.containsKey(chunk.getChunkId())) {
+                continue;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Add chunk %s with %d objects for job %s", chunk.getChunkId(), chunk.getObjects().size(), job));
+            }
+            chunks.put(chunk.getChunkId(), chunk);
+            for(BulkObject object : chunk.getObjects()) {
+                counters.merge(object.getName(), 1, Integer::sum);
+            }
+        }
+    }
+
+    private synchronized void fail(final BackgroundException e) {
+        log.warn(String.format("Failure polling chunks for job %s. %s", job, e));
+        scheduled = false;
+        failure = e;
+        this.notifyAll();
+    }
+
+    private synchronized void shutdown() {
+        if(scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        scheduled = false;
+    }
+
+    public static final class Chunks {
+        private final List<Objects> objects;
+        private final List<JobNode> nodes;
+
+        public Chunks(final List<Objects> objects, final List<JobNode> nodes) {
+            this.objects = objects;
+            this.nodes = nodes;
+        }
+
+        public List<Objects> getObjects() {
+            return objects;
+        }
+
+        public List<JobNode> getNodes() {
+            return nodes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SpectraChunkPoller{");
+        sb.append("job=").append(job);
+        sb.append(", chunks=").append(chunks.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
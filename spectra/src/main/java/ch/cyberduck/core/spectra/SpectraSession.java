@@ -47,6 +47,13 @@ public class SpectraSession extends S3Session {
         return client;
     }
 
+    @Override
+    protected void disconnect() {
+        // Do not poll chunks of jobs with closed connection
+        SpectraChunkPoller.remove(this);
+        super.disconnect();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(final Class<T> type) {
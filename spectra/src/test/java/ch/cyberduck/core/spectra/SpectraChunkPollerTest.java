@@ -0,0 +1,113 @@
+package ch.cyberduck.core.spectra;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DisabledX509TrustManager;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Response;
+import com.spectralogic.ds3client.models.BulkObject;
+import com.spectralogic.ds3client.models.JobStatus;
+import com.spectralogic.ds3client.models.MasterObjectList;
+import com.spectralogic.ds3client.models.Objects;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpectraChunkPollerTest {
+
+    /**
+     * Allocate one more chunk with object for every request
+     */
+    private static final class AllocatingChunkPoller extends SpectraChunkPoller {
+        private final AtomicInteger requests = new AtomicInteger();
+        private final List<Objects> allocated = new ArrayList<>();
+
+        public AllocatingChunkPoller(final Long interval, final Long idle) {
+            super(null, UUID.randomUUID(), interval, idle);
+        }
+
+        @Override
+        protected GetJobChunksReadyForClientProcessingSpectraS3Response request() {
+            requests.incrementAndGet();
+            final BulkObject object = new BulkObject();
+            object.setName("f");
+            final Objects chunk = new Objects();
+            chunk.setChunkId(UUID.randomUUID());
+            chunk.setObjects(Collections.singletonList(object));
+            synchronized(allocated) {
+                allocated.add(chunk);
+            }
+            final MasterObjectList master = new MasterObjectList();
+            master.setNodes(Collections.emptyList());
+            master.setObjects(Collections.singletonList(chunk));
+            master.setStatus(JobStatus.IN_PROGRESS);
+            final GetJobChunksReadyForClientProcessingSpectraS3Response response = mock(GetJobChunksReadyForClientProcessingSpectraS3Response.class);
+            when(response.getStatus()).thenReturn(GetJobChunksReadyForClientProcessingSpectraS3Response.Status.AVAILABLE);
+            when(response.getMasterObjectListResult()).thenReturn(master);
+            return response;
+        }
+    }
+
+    @Test
+    public void testAwait() throws Exception {
+        final AllocatingChunkPoller poller = new AllocatingChunkPoller(10L, 1000L);
+        final SpectraChunkPoller.Chunks chunks = poller.await("f", 2, Duration.ofSeconds(30L));
+        assertEquals(2, chunks.getObjects().size());
+        assertEquals(poller.allocated.get(0).getChunkId(), chunks.getObjects().get(0).getChunkId());
+        assertEquals(poller.allocated.get(1).getChunkId(), chunks.getObjects().get(1).getChunkId());
+        // Not allocated
+        assertTrue(poller.await("g", 1, Duration.ofMillis(50L)).getObjects().isEmpty());
+    }
+
+    @Test
+    public void testIdle() throws Exception {
+        final AllocatingChunkPoller poller = new AllocatingChunkPoller(10L, 50L);
+        assertEquals(1, poller.await("f", 1, Duration.ofSeconds(30L)).getObjects().size());
+        Thread.sleep(500L);
+        final int requests = poller.requests.get();
+        Thread.sleep(200L);
+        // Stopped polling without file waiting for chunks
+        assertEquals(requests, poller.requests.get());
+        // Resumed when waiting for chunks
+        assertFalse(poller.await("f", requests + 1, Duration.ofSeconds(30L)).getObjects().isEmpty());
+    }
+
+    @Test
+    public void testRemoveSession() {
+        final SpectraSession session = new SpectraSession(new Host(new SpectraProtocol()), new DisabledX509TrustManager(),
+            new DefaultX509KeyManager());
+        final String job = UUID.randomUUID().toString();
+        final SpectraChunkPoller poller = SpectraChunkPoller.get(session, job);
+        assertSame(poller, SpectraChunkPoller.get(session, job));
+        SpectraChunkPoller.remove(session);
+        final SpectraSession other = new SpectraSession(new Host(new SpectraProtocol()), new DisabledX509TrustManager(),
+            new DefaultX509KeyManager());
+        assertNotSame(poller, SpectraChunkPoller.get(other, job));
+        SpectraChunkPoller.remove(job);
+    }
+}
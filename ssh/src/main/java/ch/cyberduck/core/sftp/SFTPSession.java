@@ -404,6 +404,9 @@ public class SFTPSession extends Session<SSHClient> {
         if(type == Quota.class) {
             return (T) new SFTPQuotaFeature(this);
         }
+        if(type == Probe.class) {
+            return (T) new SFTPProbeFeature(this);
+        }
         return super._getFeature(type);
     }
 
@@ -19,6 +19,7 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.storegate.io.swagger.client.ApiException;
@@ -48,32 +49,38 @@ public class StoregateDeleteFeature implements Delete {
 
     @Override
     public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        for(Map.Entry<Path, TransferStatus> file : files.entrySet()) {
-            try {
-                callback.delete(file.getKey());
-                final StoregateApiClient client = session.getClient();
-                final HttpRequestBase request;
-                request = new HttpDelete(String.format("%s/v4/files/%s", client.getBasePath(), fileid.getFileid(file.getKey(), new DisabledListProgressListener())));
-                if(file.getValue().getLockId() != null) {
-                    request.addHeader("X-Lock-Id", file.getValue().getLockId().toString());
-                }
-                request.addHeader(HTTP.CONTENT_TYPE, MEDIA_TYPE);
-                final HttpResponse response = client.getClient().execute(request);
+        try {
+            for(Map.Entry<Path, TransferStatus> file : files.entrySet()) {
                 try {
-                    switch(response.getStatusLine().getStatusCode()) {
-                        case HttpStatus.SC_NO_CONTENT:
-                            break;
-                        default:
-                            throw new StoregateExceptionMappingService().map(new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase()));
+                    callback.delete(file.getKey());
+                    final StoregateApiClient client = session.getClient();
+                    final HttpRequestBase request;
+                    request = new HttpDelete(String.format("%s/v4/files/%s", client.getBasePath(), fileid.getFileid(file.getKey(), new DisabledListProgressListener())));
+                    if(file.getValue().getLockId() != null) {
+                        request.addHeader("X-Lock-Id", file.getValue().getLockId().toString());
+                    }
+                    request.addHeader(HTTP.CONTENT_TYPE, MEDIA_TYPE);
+                    final HttpResponse response = client.getClient().execute(request);
+                    try {
+                        switch(response.getStatusLine().getStatusCode()) {
+                            case HttpStatus.SC_NO_CONTENT:
+                                break;
+                            default:
+                                throw new StoregateExceptionMappingService().map(new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase()));
+                        }
+                    }
+                    finally {
+                        EntityUtils.consume(response.getEntity());
                     }
                 }
-                finally {
-                    EntityUtils.consume(response.getEntity());
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map(e);
                 }
             }
-            catch(IOException e) {
-                throw new DefaultIOExceptionMappingService().map(e);
-            }
+        }
+        finally {
+            // Identifiers of deleted directories are no longer valid
+            FileidCache.get(session.getHost()).remove(files.keySet());
         }
     }
 
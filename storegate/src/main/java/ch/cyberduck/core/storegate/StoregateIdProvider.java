@@ -21,6 +21,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathRelativizer;
 import ch.cyberduck.core.URIEncoder;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.IdProvider;
 import ch.cyberduck.core.storegate.io.swagger.client.ApiException;
@@ -35,9 +36,11 @@ public class StoregateIdProvider implements IdProvider {
     public static final String KEY_NODE_ID = "node_id";
 
     private final StoregateSession session;
+    private final FileidCache fileids;
 
     public StoregateIdProvider(final StoregateSession session) {
         this.session = session;
+        this.fileids = FileidCache.get(session.getHost());
     }
 
     @Override
@@ -46,17 +49,26 @@ public class StoregateIdProvider implements IdProvider {
             if(file.attributes().getCustom().containsKey(KEY_NODE_ID)) {
                 return file.attributes().getCustom().get(KEY_NODE_ID);
             }
+            final String cached = fileids.get(file);
+            if(null != cached) {
+                return this.set(file, cached);
+            }
             final String id = new FilesApi(session.getClient()).filesGet_1(URIEncoder.encode(this.getPrefixedPath(file))).getId();
-            final Map<String, String> custom = new HashMap<>(file.attributes().getCustom());
-            custom.put(KEY_NODE_ID, id);
-            file.attributes().setCustom(custom);
-            return id;
+            fileids.put(file, id);
+            return this.set(file, id);
         }
         catch(ApiException e) {
             throw new StoregateExceptionMappingService().map("Failure to read attributes of {0}", e, file);
         }
     }
 
+    protected String set(final Path file, final String id) {
+        final Map<String, String> custom = new HashMap<>(file.attributes().getCustom());
+        custom.put(KEY_NODE_ID, id);
+        file.attributes().setCustom(custom);
+        return id;
+    }
+
     @Override
     public StoregateIdProvider withCache(final Cache<Path> cache) {
         return this;
@@ -20,6 +20,7 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.cache.FileidCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
@@ -39,6 +40,7 @@ import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static com.google.api.client.json.Json.MEDIA_TYPE;
 
@@ -55,36 +57,42 @@ public class StoregateMoveFeature implements Move {
     @Override
     public Path move(final Path file, final Path renamed, final TransferStatus status, final Delete.Callback delete, final ConnectionCallback callback) throws BackgroundException {
         try {
-            final StoregateApiClient client = session.getClient();
-            final MoveFileRequest move = new MoveFileRequest()
-                .name(renamed.getName())
-                .parentID(fileid.getFileid(renamed.getParent(), new DisabledListProgressListener()))
-                .mode(1); // Overwrite
-            final HttpEntityEnclosingRequestBase request;
-            request = new HttpPost(String.format("%s/v4/files/%s/move", client.getBasePath(), fileid.getFileid(file, new DisabledListProgressListener())));
-            if(status.getLockId() != null) {
-                request.addHeader("X-Lock-Id", status.getLockId().toString());
-            }
-            request.setEntity(new StringEntity(new JSON().getContext(move.getClass()).writeValueAsString(move),
-                ContentType.create("application/json", StandardCharsets.UTF_8.name())));
-            request.addHeader(HTTP.CONTENT_TYPE, MEDIA_TYPE);
-            final HttpResponse response = client.getClient().execute(request);
             try {
-                switch(response.getStatusLine().getStatusCode()) {
-                    case HttpStatus.SC_NO_CONTENT:
-                        // Copy original file attributes
-                        return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
-                            new PathAttributes(renamed.attributes()));
-                    default:
-                        throw new StoregateExceptionMappingService().map(new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase()));
+                final StoregateApiClient client = session.getClient();
+                final MoveFileRequest move = new MoveFileRequest()
+                    .name(renamed.getName())
+                    .parentID(fileid.getFileid(renamed.getParent(), new DisabledListProgressListener()))
+                    .mode(1); // Overwrite
+                final HttpEntityEnclosingRequestBase request;
+                request = new HttpPost(String.format("%s/v4/files/%s/move", client.getBasePath(), fileid.getFileid(file, new DisabledListProgressListener())));
+                if(status.getLockId() != null) {
+                    request.addHeader("X-Lock-Id", status.getLockId().toString());
+                }
+                request.setEntity(new StringEntity(new JSON().getContext(move.getClass()).writeValueAsString(move),
+                    ContentType.create("application/json", StandardCharsets.UTF_8.name())));
+                request.addHeader(HTTP.CONTENT_TYPE, MEDIA_TYPE);
+                final HttpResponse response = client.getClient().execute(request);
+                try {
+                    switch(response.getStatusLine().getStatusCode()) {
+                        case HttpStatus.SC_NO_CONTENT:
+                            // Copy original file attributes
+                            return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
+                                new PathAttributes(renamed.attributes()));
+                        default:
+                            throw new StoregateExceptionMappingService().map(new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase()));
+                    }
+                }
+                finally {
+                    EntityUtils.consume(response.getEntity());
                 }
             }
-            finally {
-                EntityUtils.consume(response.getEntity());
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map(e);
             }
         }
-        catch(IOException e) {
-            throw new DefaultIOExceptionMappingService().map(e);
+        finally {
+            // Identifiers of moved directories are no longer valid
+            FileidCache.get(session.getHost()).remove(Arrays.asList(file, renamed));
         }
     }
 
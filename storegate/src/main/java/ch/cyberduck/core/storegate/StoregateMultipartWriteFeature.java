@@ -28,31 +28,27 @@ import ch.cyberduck.core.features.MultipartWrite;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
-import ch.cyberduck.core.io.MemorySegementingOutputStream;
+import ch.cyberduck.core.io.ConcurrentChunkedOutputStream;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.storegate.io.swagger.client.ApiException;
 import ch.cyberduck.core.storegate.io.swagger.client.JSON;
 import ch.cyberduck.core.storegate.io.swagger.client.model.FileMetadata;
-import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.DefaultRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
-import org.apache.http.client.entity.EntityBuilder;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -99,8 +95,7 @@ public class StoregateMultipartWriteFeature implements MultipartWrite<VersionId>
     public HttpResponseOutputStream<VersionId> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         final String location = new StoregateWriteFeature(session, fileid).start(file, status);
         final MultipartOutputStream proxy = new MultipartOutputStream(location, file, status);
-        return new HttpResponseOutputStream<VersionId>(new MemorySegementingOutputStream(proxy,
-            PreferencesFactory.get().getInteger("storegate.upload.multipart.chunksize"))) {
+        return new HttpResponseOutputStream<VersionId>(proxy) {
             @Override
             public VersionId getStatus() {
                 return proxy.getVersionId();
@@ -108,17 +103,20 @@ public class StoregateMultipartWriteFeature implements MultipartWrite<VersionId>
         };
     }
 
-    private final class MultipartOutputStream extends OutputStream {
+    /**
+     * Chunks are uploaded in order as the upload is complete with the last chunk
+     */
+    private final class MultipartOutputStream extends ConcurrentChunkedOutputStream {
         private final String location;
         private final Path file;
         private final TransferStatus overall;
         private final AtomicBoolean close = new AtomicBoolean();
         private final AtomicReference<BackgroundException> canceled = new AtomicReference<>();
 
-        private Long offset = 0L;
         private final Long length;
 
         public MultipartOutputStream(final String location, final Path file, final TransferStatus status) {
+            super(session.getHost(), status, PreferencesFactory.get().getInteger("storegate.upload.multipart.chunksize"), 1);
             this.location = location;
             this.file = file;
             this.overall = status;
@@ -126,71 +124,53 @@ public class StoregateMultipartWriteFeature implements MultipartWrite<VersionId>
         }
 
         @Override
-        public void write(final int value) throws IOException {
-            throw new IOException(new UnsupportedOperationException());
-        }
-
-        @Override
-        public void write(final byte[] b, final int off, final int len) throws IOException {
+        protected void upload(final long offset, final byte[] content, final int len) throws BackgroundException {
+            if(null != canceled.get()) {
+                throw canceled.get();
+            }
+            final StoregateApiClient client = session.getClient();
             try {
-                if(null != canceled.get()) {
-                    throw canceled.get();
+                final HttpEntity entity = new ByteArrayEntity(content, 0, len);
+                final HttpPut put = new HttpPut(location);
+                put.setEntity(entity);
+                if(0L != overall.getLength() && 0 != len) {
+                    final HttpRange range = HttpRange.byLength(offset, len);
+                    final String header;
+                    if(overall.getLength() == -1L) {
+                        header = String.format("%d-%d/*", range.getStart(), range.getEnd());
+                    }
+                    else {
+                        header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), length);
+                    }
+                    put.addHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %s", header));
                 }
-                final byte[] content = Arrays.copyOfRange(b, off, len);
-                new DefaultRetryCallable<>(session.getHost(), new BackgroundExceptionCallable<Void>() {
-                    @Override
-                    public Void call() throws BackgroundException {
-                        final StoregateApiClient client = session.getClient();
-                        try {
-                            final HttpEntity entity = EntityBuilder.create().setBinary(content).build();
-                            final HttpPut put = new HttpPut(location);
-                            put.setEntity(entity);
-                            if(0L != overall.getLength() && 0 != content.length) {
-                                final HttpRange range = HttpRange.byLength(offset, content.length);
-                                final String header;
-                                if(overall.getLength() == -1L) {
-                                    header = String.format("%d-%d/*", range.getStart(), range.getEnd());
-                                }
-                                else {
-                                    header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), length);
-                                }
-                                put.addHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %s", header));
-                            }
-                            final HttpResponse response = client.getClient().execute(put);
-                            try {
-                                switch(response.getStatusLine().getStatusCode()) {
-                                    case HttpStatus.SC_OK:
-                                    case HttpStatus.SC_CREATED:
-                                        final FileMetadata result = new JSON().getContext(FileMetadata.class).readValue(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8),
-                                            FileMetadata.class);
-                                        overall.setVersion(new VersionId(result.getId()));
-                                    case HttpStatus.SC_NO_CONTENT:
-                                        // Upload complete
-                                        offset += content.length;
-                                        break;
-                                    default:
-                                        throw new StoregateExceptionMappingService().map(new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(), Collections.emptyMap(),
-                                            EntityUtils.toString(response.getEntity())));
-                                }
-                            }
-                            catch(BackgroundException e) {
-                                new StoregateWriteFeature(session, fileid).cancel(file, location);
-                                canceled.set(e);
-                                throw e;
-                            }
-                            finally {
-                                EntityUtils.consume(response.getEntity());
-                            }
-                        }
-                        catch(IOException e) {
-                            throw new DefaultIOExceptionMappingService().map(e);
-                        }
-                        return null; //Void
+                final HttpResponse response = client.getClient().execute(put);
+                try {
+                    switch(response.getStatusLine().getStatusCode()) {
+                        case HttpStatus.SC_OK:
+                        case HttpStatus.SC_CREATED:
+                            final FileMetadata result = new JSON().getContext(FileMetadata.class).readValue(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8),
+                                FileMetadata.class);
+                            overall.setVersion(new VersionId(result.getId()));
+                        case HttpStatus.SC_NO_CONTENT:
+                            // Upload complete
+                            break;
+                        default:
+                            throw new StoregateExceptionMappingService().map(new ApiException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase(), Collections.emptyMap(),
+                                EntityUtils.toString(response.getEntity())));
                     }
-                }, overall).call();
+                }
+                catch(BackgroundException e) {
+                    new StoregateWriteFeature(session, fileid).cancel(file, location);
+                    canceled.set(e);
+                    throw e;
+                }
+                finally {
+                    EntityUtils.consume(response.getEntity());
+                }
             }
-            catch(BackgroundException e) {
-                throw new IOException(e.getMessage(), e);
+            catch(IOException e) {
+                throw new DefaultIOExceptionMappingService().map(e);
             }
         }
 
@@ -201,6 +181,8 @@ public class StoregateMultipartWriteFeature implements MultipartWrite<VersionId>
                     log.warn(String.format("Skip double close of stream %s", this));
                     return;
                 }
+                // Upload remaining chunks
+                super.close();
                 if(null != canceled.get()) {
                     return;
                 }
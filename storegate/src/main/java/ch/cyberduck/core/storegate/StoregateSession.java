@@ -95,6 +95,10 @@ public class StoregateSession extends HttpSession<StoregateApiClient> {
     private static final Logger log = Logger.getLogger(StoregateSession.class);
 
     private OAuth2RequestInterceptor authorizationService;
+    /**
+     * HTTP client for requests to token server
+     */
+    private CloseableHttpClient authorizationClient;
     private List<RootFolder> roots = Collections.emptyList();
 
     private final StoregateIdProvider fileid = new StoregateIdProvider(this);
@@ -106,13 +110,14 @@ public class StoregateSession extends HttpSession<StoregateApiClient> {
     @Override
     protected StoregateApiClient connect(final Proxy proxy, final HostKeyCallback key, final LoginCallback prompt) {
         final HttpClientBuilder configuration = builder.build(proxy, this, prompt);
-        authorizationService = new OAuth2RequestInterceptor(builder.build(proxy, this, prompt).addInterceptorLast(new HttpRequestInterceptor() {
+        authorizationClient = builder.build(proxy, this, prompt).addInterceptorLast(new HttpRequestInterceptor() {
             @Override
             public void process(final HttpRequest request, final HttpContext context) {
                 request.addHeader(HttpHeaders.AUTHORIZATION,
                     String.format("Basic %s", Base64.encodeToString(String.format("%s:%s", host.getProtocol().getOAuthClientId(), host.getProtocol().getOAuthClientSecret()).getBytes(StandardCharsets.UTF_8), false)));
             }
-        }).build(),
+        }).build();
+        authorizationService = new OAuth2RequestInterceptor(authorizationClient,
             host).withRedirectUri(CYBERDUCK_REDIRECT_URI.equals(host.getProtocol().getOAuthRedirectUrl()) ? host.getProtocol().getOAuthRedirectUrl() :
             Scheme.isURL(host.getProtocol().getOAuthRedirectUrl()) ? host.getProtocol().getOAuthRedirectUrl() : new HostUrlProvider().withUsername(false).withPath(true).get(
                 host.getProtocol().getScheme(), host.getPort(), null, host.getHostname(), host.getProtocol().getOAuthRedirectUrl())
@@ -201,8 +206,16 @@ public class StoregateSession extends HttpSession<StoregateApiClient> {
     }
 
     @Override
-    protected void logout() {
+    protected void logout() throws BackgroundException {
+        authorizationService.shutdown();
         client.getHttpClient().close();
+        try {
+            // Release lease on shared connection pool
+            authorizationClient.close();
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
+        }
     }
 
     @Override
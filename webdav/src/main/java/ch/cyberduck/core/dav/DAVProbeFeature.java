@@ -0,0 +1,54 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Probe;
+import ch.cyberduck.core.http.HttpExceptionMappingService;
+import ch.cyberduck.core.shared.DefaultHomeFinderService;
+
+import org.apache.http.client.methods.HttpHead;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+
+import com.github.sardine.impl.SardineException;
+import com.github.sardine.impl.handler.VoidResponseHandler;
+
+public class DAVProbeFeature implements Probe {
+    private static final Logger log = Logger.getLogger(DAVProbeFeature.class);
+
+    private final DAVSession session;
+
+    public DAVProbeFeature(final DAVSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public void probe() throws BackgroundException {
+        try {
+            session.getClient().execute(new HttpHead(new DAVPathEncoder().encode(new DefaultHomeFinderService(session).find())),
+                new VoidResponseHandler());
+        }
+        catch(SardineException e) {
+            // Connection alive with any response from server
+            log.warn(String.format("Ignore failure %s probing connection", e.getResponsePhrase()));
+        }
+        catch(IOException e) {
+            throw new HttpExceptionMappingService().map(e);
+        }
+    }
+}
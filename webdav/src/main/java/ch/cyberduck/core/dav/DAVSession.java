@@ -361,6 +361,9 @@ public class DAVSession extends HttpSession<DAVClient> {
         if(type == Touch.class) {
             return (T) new DAVTouchFeature(this);
         }
+        if(type == Probe.class) {
+            return (T) new DAVProbeFeature(this);
+        }
         return super._getFeature(type);
     }
 